@@ -0,0 +1,185 @@
+package pepse.bench;
+
+import danogl.GameObject;
+import pepse.headless.HeadlessInputListener;
+import pepse.headless.HeadlessSimulation;
+import pepse.replay.InputRecording;
+import pepse.util.SplitMix;
+import pepse.world.AvatarController;
+import java.awt.event.KeyEvent;
+
+/**
+ * Checks the Avatar's state machine against the per-frame rules it replaced, over a recording of random
+ * input on a flat ground, and that flying on full energy lasts as long at any frame rate. Then measures
+ * deciding a frame's movement, and whole frames of the Avatar. Fails if the controller strays from the
+ * replaced rules at 60 frames per second, for which they were written.
+ */
+public class AvatarControllerBenchmark {
+
+    /* Constants */
+    private static final int SEED = 6;
+    private static final int FRAMES = 100_000;
+    private static final int MIN_HOLD_FRAMES = 5;  // frames between random changes of the input
+    private static final int MAX_HOLD_FRAMES = 400;
+    private static final float DELTA_TIME = 1f / 60;
+    private static final float[] FRAME_RATES = {30, 60, 144};
+    private static final float SPEED = 300;
+    private static final float GRAVITY = 500;
+    private static final float ENERGY_UNIT = 0.5f;  // per frame, by the replaced rules
+    private static final float POSITION_TOLERANCE = 1e-2f;
+    private static final float ENERGY_TOLERANCE = 1e-2f;
+    private static final int[] KEYS = {KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_SPACE,
+            KeyEvent.VK_SHIFT};
+    private static final int WARMUP = 10_000;
+    private static final int ITERATIONS = 100_000;
+
+    /**
+     * Runs the check and the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        InputRecording recording = recordRandomInput();
+        float[] replaced = replayReplacedRules(recording);
+        float[] controlled = replayController(recording);
+        for (int i = 0; i < replaced.length; i += 3) {
+            boolean strayed = Math.abs(replaced[i] - controlled[i]) > POSITION_TOLERANCE ||
+                    Math.abs(replaced[i + 1] - controlled[i + 1]) > POSITION_TOLERANCE ||
+                    Math.abs(replaced[i + 2] - controlled[i + 2]) > ENERGY_TOLERANCE;
+            if (strayed) {
+                throw new AssertionError("Frame " + i / 3 + ": the controller is at (" + controlled[i] +
+                        ", " + controlled[i + 1] + ") with energy " + controlled[i + 2] +
+                        ", the replaced rules at (" + replaced[i] + ", " + replaced[i + 1] +
+                        ") with energy " + replaced[i + 2]);
+            }
+        }
+        System.out.printf("avatar controller check: %d replayed frames match the replaced rules%n",
+                recording.getFrameCount());
+        for (float frameRate : FRAME_RATES) {
+            System.out.printf("  flying on full energy at %.0f fps: %.3f s%n", frameRate,
+                    flightTime(1 / frameRate));
+        }
+
+        AvatarController controller = new AvatarController(SPEED);
+        BenchmarkRunner.run("avatar controller", WARMUP, ITERATIONS,
+                i -> controller.update(i >> 6 & 15, (i & 32) == 0, i & 255, DELTA_TIME));
+        HeadlessSimulation simulation = new HeadlessSimulation();
+        GameObject avatar = simulation.getGameManager().getAvatar();
+        HeadlessInputListener input = simulation.getInputListener();
+        input.press(KeyEvent.VK_RIGHT);
+        BenchmarkRunner.run("avatar frame", WARMUP, ITERATIONS, i -> avatar.update(DELTA_TIME));
+        simulation.getGameManager().getPrefetcher().shutdown();
+    }
+
+    /* Records random presses and releases of the Avatar's keys, at 60 frames per second */
+    private static InputRecording recordRandomInput() {
+        InputRecording recording = new InputRecording(SEED);
+        HeadlessInputListener input = new HeadlessInputListener();
+        long keyStream = SplitMix.stream(SEED, 0);
+        long holdStream = SplitMix.stream(SEED, 1);
+        int nextChange = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            if (frame == nextChange) {
+                input.releaseAll();
+                for (int k = 0; k < KEYS.length; k++) {
+                    if (SplitMix.nextInt(keyStream, (long) frame * KEYS.length + k, 2) == 1) {
+                        input.press(KEYS[k]);
+                    }
+                }
+                nextChange += MIN_HOLD_FRAMES +
+                        SplitMix.nextInt(holdStream, frame, MAX_HOLD_FRAMES - MIN_HOLD_FRAMES);
+            }
+            recording.addFrame(DELTA_TIME, input);
+        }
+        return recording;
+    }
+
+    /* Replays a recording by the per-frame rules the controller replaced, returning the position and
+    energy after every frame */
+    private static float[] replayReplacedRules(InputRecording recording) {
+        float[] trace = new float[3 * recording.getFrameCount()];
+        float x = 0;
+        float y = 0;
+        float velocityX = 0;
+        float velocityY = 0;
+        float energy = AvatarController.FULL_ENERGY;
+        for (int frame = 0; frame < recording.getFrameCount(); frame++) {
+            float deltaTime = recording.getDeltaTime(frame);
+            x += velocityX * deltaTime;
+            y += velocityY * deltaTime;
+            velocityY += GRAVITY * deltaTime;
+            boolean grounded = y >= 0;
+            if (grounded) {
+                y = 0;
+                velocityY = 0;
+            }
+            float yVelocity = velocityY;
+            if (grounded && energy < AvatarController.FULL_ENERGY) {
+                energy += ENERGY_UNIT;
+            }
+            velocityX = 0;
+            if (recording.isKeyPressed(frame, KeyEvent.VK_SPACE) &&
+                    recording.isKeyPressed(frame, KeyEvent.VK_SHIFT) && energy > 0) {
+                velocityY = -SPEED;
+                energy -= ENERGY_UNIT;
+            }
+            if (recording.isKeyPressed(frame, KeyEvent.VK_LEFT)) {
+                velocityX = -SPEED;
+                velocityY = yVelocity;
+            }
+            if (recording.isKeyPressed(frame, KeyEvent.VK_RIGHT)) {
+                velocityX = SPEED;
+                velocityY = yVelocity;
+            }
+            if (recording.isKeyPressed(frame, KeyEvent.VK_SPACE) && grounded) {
+                velocityX = 0;
+                velocityY = -SPEED;
+            }
+            trace[3 * frame] = x;
+            trace[3 * frame + 1] = y;
+            trace[3 * frame + 2] = energy;
+        }
+        return trace;
+    }
+
+    /* Replays a recording through the controller, returning the position and energy after every frame */
+    private static float[] replayController(InputRecording recording) {
+        float[] trace = new float[3 * recording.getFrameCount()];
+        AvatarController controller = new AvatarController(SPEED);
+        float x = 0;
+        float y = 0;
+        float velocityY = 0;
+        for (int frame = 0; frame < recording.getFrameCount(); frame++) {
+            float deltaTime = recording.getDeltaTime(frame);
+            x += controller.getVelocityX() * deltaTime;
+            y += velocityY * deltaTime;
+            velocityY += GRAVITY * deltaTime;
+            boolean grounded = y >= 0;
+            if (grounded) {
+                y = 0;
+                velocityY = 0;
+            }
+            int input = 0;
+            input |= recording.isKeyPressed(frame, KeyEvent.VK_LEFT) ? AvatarController.LEFT : 0;
+            input |= recording.isKeyPressed(frame, KeyEvent.VK_RIGHT) ? AvatarController.RIGHT : 0;
+            input |= recording.isKeyPressed(frame, KeyEvent.VK_SPACE) ? AvatarController.UP : 0;
+            input |= recording.isKeyPressed(frame, KeyEvent.VK_SHIFT) ? AvatarController.BOOST : 0;
+            controller.update(input, grounded, velocityY, deltaTime);
+            velocityY = controller.getVelocityY();
+            trace[3 * frame] = x;
+            trace[3 * frame + 1] = y;
+            trace[3 * frame + 2] = controller.getEnergy();
+        }
+        return trace;
+    }
+
+    /* Returns how long the Avatar flies straight up on full energy, in seconds */
+    private static float flightTime(float deltaTime) {
+        AvatarController controller = new AvatarController(SPEED);
+        float time = 0;
+        do {
+            controller.update(AvatarController.UP | AvatarController.BOOST, false, 0, deltaTime);
+            time += deltaTime;
+        } while (controller.getState() == AvatarController.State.FLY);
+        return time - deltaTime;
+    }
+}
@@ -0,0 +1,55 @@
+package pepse.bench;
+
+import danogl.GameObject;
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessSimulation;
+import pepse.world.Block;
+import java.awt.event.KeyEvent;
+
+/**
+ * Compares walking frames when the avatar collides with the terrain and trunk layers and when its movement
+ * is resolved against the terrain heightfield and trunk extents. Also walks the avatar at several frame
+ * rates and reports how far its feet end up from the ground, which should be 0 at any rate.
+ */
+public class AvatarMovementBenchmark {
+
+    /* Constants */
+    private static final float DELTA_TIME = 1f / 60;
+    private static final float[] FRAME_RATES = {15, 30, 60, 144, 240};
+    private static final float WALKING_TIME = 10;  // seconds walked at every frame rate
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        benchmarkWalking("collisions", false);
+        benchmarkWalking("resolver", true);
+        for (float frameRate : FRAME_RATES) {
+            PepseGameManager game = new PepseGameManager();
+            HeadlessSimulation simulation = new HeadlessSimulation(game);
+            simulation.getInputListener().press(KeyEvent.VK_RIGHT);
+            simulation.run((int) (WALKING_TIME * frameRate), 1 / frameRate);
+            simulation.getInputListener().release(KeyEvent.VK_RIGHT);
+            simulation.run((int) frameRate, 1 / frameRate);  // come to rest
+            GameObject avatar = game.getAvatar();
+            float feet = avatar.getTopLeftCorner().y() + avatar.getDimensions().y();
+            // The avatar stands on the higher of the columns under it
+            float left = avatar.getTopLeftCorner().x();
+            float right = left + avatar.getDimensions().x() - 1;
+            float ground = Math.min(game.getTerrain().groundHeightAt(Block.gridIndexOf(left) * Block.SIZE),
+                    game.getTerrain().groundHeightAt(Block.gridIndexOf(right) * Block.SIZE));
+            System.out.printf("  %.0f fps: avatar at x=%.0f, feet %.2f px above the ground%n",
+                    frameRate, avatar.getCenter().x(), ground - feet);
+        }
+    }
+
+    /* Benchmarks walking frames in the given movement mode */
+    private static void benchmarkWalking(String name, boolean resolve) {
+        PepseGameManager game = new PepseGameManager();
+        game.setResolveAvatarMovement(resolve);
+        HeadlessSimulation simulation = new HeadlessSimulation(game);
+        simulation.getInputListener().press(KeyEvent.VK_RIGHT);
+        BenchmarkRunner.run("frame, walking right, " + name, i -> simulation.step(DELTA_TIME));
+    }
+}
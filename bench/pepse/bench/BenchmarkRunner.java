@@ -0,0 +1,115 @@
+package pepse.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * A minimal benchmark harness. Runs an operation for a number of warmup iterations, then times every
+ * measured iteration (excluding an optional untimed setup) and prints the mean and a few percentiles in
+ * microseconds, along with the mean number of bytes allocated by a single iteration.
+ */
+public final class BenchmarkRunner {
+
+    /* Constants */
+    private static final int DEFAULT_WARMUP = 2000;
+    private static final int DEFAULT_ITERATIONS = 5000;
+
+    /**
+     * A single benchmarked operation.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * Runs the operation once.
+         * @param iteration Index of the current iteration.
+         */
+        void run(int iteration);
+    }
+
+    private BenchmarkRunner() { }
+
+    /**
+     * Benchmarks an operation with the default number of warmup and measured iterations.
+     * @param name Name under which the results are printed.
+     * @param operation The operation to benchmark.
+     * @return The mean time of a single operation, in nanoseconds.
+     */
+    public static double run(String name, Operation operation) {
+        return run(name, DEFAULT_WARMUP, DEFAULT_ITERATIONS, operation);
+    }
+
+    /**
+     * Benchmarks an operation, running an untimed setup before every iteration.
+     * @param name Name under which the results are printed.
+     * @param setup Untimed operation run before every iteration of the benchmarked operation.
+     * @param operation The operation to benchmark.
+     * @return The mean time of a single operation, in nanoseconds.
+     */
+    public static double run(String name, Operation setup, Operation operation) {
+        return run(name, DEFAULT_WARMUP, DEFAULT_ITERATIONS, setup, operation);
+    }
+
+    /**
+     * Benchmarks an operation.
+     * @param name Name under which the results are printed.
+     * @param warmup Number of iterations run before measuring.
+     * @param iterations Number of measured iterations.
+     * @param operation The operation to benchmark.
+     * @return The mean time of a single operation, in nanoseconds.
+     */
+    public static double run(String name, int warmup, int iterations, Operation operation) {
+        return run(name, warmup, iterations, i -> { }, operation);
+    }
+
+    /**
+     * Benchmarks an operation, running an untimed setup before every iteration.
+     * @param name Name under which the results are printed.
+     * @param warmup Number of iterations run before measuring.
+     * @param iterations Number of measured iterations.
+     * @param setup Untimed operation run before every iteration of the benchmarked operation.
+     * @param operation The operation to benchmark.
+     * @return The mean time of a single operation, in nanoseconds.
+     */
+    public static double run(String name, int warmup, int iterations, Operation setup,
+                             Operation operation) {
+        for (int i = 0; i < warmup; i++) {
+            setup.run(i);
+            operation.run(i);
+        }
+        long[] samples = new long[iterations];
+        long total = 0;
+        long allocated = 0;
+        for (int i = 0; i < iterations; i++) {
+            setup.run(warmup + i);
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            operation.run(warmup + i);
+            samples[i] = System.nanoTime() - start;
+            allocated += allocatedBytes() - allocatedBefore;
+            total += samples[i];
+        }
+        Arrays.sort(samples);
+        double mean = (double) total / iterations;
+        System.out.printf("%-40s mean %9.2f us   p50 %9.2f us   p99 %9.2f us   max %9.2f us   " +
+                        "alloc %10.1f B/op%n", name, mean / 1e3, percentile(samples, 0.5) / 1e3,
+                percentile(samples, 0.99) / 1e3, samples[iterations - 1] / 1e3,
+                (double) allocated / iterations);
+        return mean;
+    }
+
+    /**
+     * @return Total number of bytes allocated so far by the current thread, or 0 if unsupported.
+     */
+    public static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /* Returns the given percentile of sorted samples */
+    private static double percentile(long[] sortedSamples, double percentile) {
+        return sortedSamples[(int) Math.min(sortedSamples.length - 1, percentile * sortedSamples.length)];
+    }
+}
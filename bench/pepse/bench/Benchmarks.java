@@ -0,0 +1,43 @@
+package pepse.bench;
+
+/**
+ * Runs every Pepse benchmark. Compile the sources of both src and bench against the DanoGameLab jar and
+ * run this class from the project root, e.g.
+ * <pre>
+ *     javac -cp DanoGameLab.jar -d out/bench $(find src bench -name '*.java')
+ *     java -cp DanoGameLab.jar:out/bench pepse.bench.Benchmarks
+ * </pre>
+ * or, with DanoGameLab.jar in the project root, through the Maven build: {@code mvn test-compile exec:java}.
+ */
+public class Benchmarks {
+
+    /**
+     * Runs every benchmark.
+     * @param args Unused.
+     * @throws Exception If a benchmark fails.
+     */
+    public static void main(String[] args) throws Exception {
+        DeterminismCheck.main(args);
+        WorldGenerationBenchmark.main(args);
+        FrameBenchmark.main(args);
+        ColumnLayoutBenchmark.main(args);
+        TileStoreBenchmark.main(args);
+        PoolingBenchmark.main(args);
+        HeightfieldBenchmark.main(args);
+        PrefetchBenchmark.main(args);
+        LeafSystemBenchmark.main(args);
+        LeafLandingBenchmark.main(args);
+        AvatarMovementBenchmark.main(args);
+        SnapshotBenchmark.main(args);
+        TreePlanningBenchmark.main(args);
+        StartupBenchmark.main(args);
+        FirstFrameBenchmark.main(args);
+        BotsBenchmark.main(args);
+        ReplayBenchmark.main(args);
+        ProfilerBenchmark.main(args);
+        DayNightBenchmark.main(args);
+        AvatarControllerBenchmark.main(args);
+        VerticalStreamingBenchmark.main(args);
+        ColumnEditsBenchmark.main(args);
+    }
+}
@@ -0,0 +1,43 @@
+package pepse.bench;
+
+import pepse.PepseGameManager;
+import pepse.bots.Bot;
+import pepse.headless.HeadlessSimulation;
+import pepse.stats.WorldStats;
+import java.awt.event.KeyEvent;
+
+/**
+ * Measures how frame time and the number of objects in the world scale with the number of actors, as bots
+ * wandering, flying and running through the world join the player, who walks right.
+ */
+public class BotsBenchmark {
+
+    /* Constants */
+    private static final int[] BOT_COUNTS = {0, 1, 2, 4, 8, 16};
+    private static final float DELTA_TIME = 1f / 60;
+    private static final int WARMUP = 600;  // frames, so the bots spread out before measuring
+    private static final int ITERATIONS = 600;
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        Bot.Behavior[] behaviors = Bot.Behavior.values();
+        for (int botCount : BOT_COUNTS) {
+            PepseGameManager game = new PepseGameManager();
+            game.setSeed(6);
+            for (int i = 0; i < botCount; i++) {
+                game.addBot(new Bot(behaviors[i % behaviors.length], i));
+            }
+            HeadlessSimulation simulation = new HeadlessSimulation(game);
+            simulation.getInputListener().press(KeyEvent.VK_RIGHT);
+            BenchmarkRunner.run(String.format("frame, %d bots", botCount), WARMUP, ITERATIONS,
+                    i -> simulation.step(DELTA_TIME));
+            WorldStats stats = game.getStats();
+            System.out.printf("  objects: %d, cached tiles: %d, generated columns/s: %.1f%n",
+                    stats.getTotalObjects(), stats.getCachedTiles(), stats.getGenerationRate());
+            game.getPrefetcher().shutdown();
+        }
+    }
+}
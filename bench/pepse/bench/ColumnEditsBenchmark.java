@@ -0,0 +1,266 @@
+package pepse.bench;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessSimulation;
+import pepse.util.SplitMix;
+import pepse.world.Avatar;
+import pepse.world.Block;
+import pepse.world.ColumnEdits;
+import pepse.world.Terrain;
+import pepse.world.TileStore;
+import pepse.world.trees.Leaf;
+import pepse.world.trees.Tree;
+import pepse.world.trees.TreePlan;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Checks the ColumnEdits against a HashMap over random edits and clears, and checks that the avatar stands in
+ * a pit dug under it, stands on the ground where a tree's trunk was removed, and is stopped by a wall of
+ * placed Blocks, as its movement is resolved by default, and that editing the terrain in the tile of a tree
+ * keeps its leaves. Then records a million edits, once clustered in few columns and once spread over a
+ * distance far beyond any walk, and reports the memory they take. Measures looking up the edits of a tile,
+ * and the frame time while walking through a world with a million terrain edits. Fails if the store strays
+ * from the HashMap, the avatar ignores an edit, or a terrain edit recreates a tree.
+ */
+public class ColumnEditsBenchmark {
+
+    /* Constants */
+    private static final int SEED = 6;
+    private static final int CHECKED_OPERATIONS = 200_000;
+    private static final int CHECKED_COLUMNS = 2_000;
+    private static final int CHECKED_CELLS = 64;
+    private static final int EDITS = 1_000_000;
+    private static final int CLUSTERED_EDITS_PER_COLUMN = 100;
+    private static final int SPREAD_COLUMN_STRIDE = 61;  // columns between two edited columns
+    private static final int WORLD_EDITS_PER_COLUMN = 2;  // a removed ground Block and a placed Block above
+    private static final float DELTA_TIME = 1f / 60;
+    private static final int PIT_DEPTH = 2;  // rows removed under the avatar
+    private static final int WALL_HEIGHT = 3;  // Blocks placed in the avatar's way
+    private static final int SETTLING_FRAMES = 60;
+    private static final float FEET_TOLERANCE = 1;
+
+    /* Private members */
+    private static int visited;  // consumes looked up edits so lookups can't be optimized away
+
+    /**
+     * Runs the check and the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        checkAgainstHashMap();
+        checkWalkingOverEdits();
+        checkTerrainEditKeepsTree();
+
+        reportMemory("clustered", EDITS / CLUSTERED_EDITS_PER_COLUMN, 1, CLUSTERED_EDITS_PER_COLUMN);
+        ColumnEdits spread = reportMemory("spread", EDITS, SPREAD_COLUMN_STRIDE, 1);
+
+        long lookupStream = SplitMix.stream(SEED, 1);
+        BenchmarkRunner.run("edits of a tile, edited column", i -> {
+            int x = SplitMix.nextInt(lookupStream, i, EDITS) * SPREAD_COLUMN_STRIDE * Block.SIZE;
+            visitTile(spread, x, 0);
+        });
+        BenchmarkRunner.run("edits of a tile, unedited column", i -> {
+            int x = (SplitMix.nextInt(lookupStream, i, EDITS) * SPREAD_COLUMN_STRIDE + 1) * Block.SIZE;
+            visitTile(spread, x, 0);
+        });
+
+        benchmarkWorld("no edits", 0);
+        benchmarkWorld("1M terrain edits", EDITS / WORLD_EDITS_PER_COLUMN);
+    }
+
+    /* Applies random edits and clears to a store and to a HashMap, failing once they disagree */
+    private static void checkAgainstHashMap() {
+        ColumnEdits edits = new ColumnEdits(1);
+        HashMap<Long, Integer> expected = new HashMap<>();
+        long stream = SplitMix.stream(SEED, 0);
+        for (int i = 0; i < CHECKED_OPERATIONS; i++) {
+            int x = (SplitMix.nextInt(stream, 3L * i, CHECKED_COLUMNS) - CHECKED_COLUMNS / 2) * Block.SIZE;
+            int cell = SplitMix.nextInt(stream, 3L * i + 1, CHECKED_CELLS) - CHECKED_CELLS / 2;
+            int value = SplitMix.nextInt(stream, 3L * i + 2, 4) - 2;
+            long key = ((long) x << Integer.SIZE) | (cell & 0xFFFFFFFFL);
+            if (value < ColumnEdits.REMOVED) {
+                edits.clear(x, cell);
+                expected.remove(key);
+            } else {
+                edits.set(x, cell, value);
+                expected.put(key, value);
+            }
+            int actual = edits.get(x, cell);
+            int wanted = expected.getOrDefault(key, ColumnEdits.NONE);
+            if (actual != wanted || edits.getEditCount() != expected.size()) {
+                throw new AssertionError("Operation " + i + ": cell " + cell + " of column " + x + " is " +
+                        actual + " with " + edits.getEditCount() + " edits, expected " + wanted + " with " +
+                        expected.size());
+            }
+        }
+        System.out.printf("column edits check: %d operations match a HashMap, %d edits in %d columns%n",
+                CHECKED_OPERATIONS, edits.getEditCount(), edits.getColumnCount());
+    }
+
+    /* Edits the world around the avatar, failing once the avatar doesn't stand or stop as the edits make it:
+    in a pit dug under it, on the ground where a tree's trunk was removed, and before a wall in its way */
+    private static void checkWalkingOverEdits() {
+        PepseGameManager game = new PepseGameManager();
+        HeadlessSimulation simulation = new HeadlessSimulation(game);
+        Terrain terrain = game.getTerrain();
+        GameObject avatar = game.getAvatar();
+        simulation.run(SETTLING_FRAMES, DELTA_TIME);
+        // Dig a pit under the avatar, which then falls to its bottom
+        int firstColumn = Block.gridIndexOf(avatar.getTopLeftCorner().x());
+        int lastColumn = Block.gridIndexOf(avatar.getTopLeftCorner().x() + avatar.getDimensions().x() - 1);
+        float pitBottom = Float.POSITIVE_INFINITY;
+        for (int column = firstColumn; column <= lastColumn; column++) {
+            int x = column * Block.SIZE;
+            int groundRow = terrain.rowAt(x, terrain.groundHeightAt(x));
+            for (int row = groundRow; row < groundRow + PIT_DEPTH; row++) {
+                game.editTerrain(x, row, ColumnEdits.REMOVED);
+            }
+            pitBottom = Math.min(pitBottom, terrain.groundHeightAt(x) + PIT_DEPTH * Block.SIZE);
+        }
+        simulation.run(SETTLING_FRAMES, DELTA_TIME);
+        checkFeet("in the pit", avatar, pitBottom);
+        // Remove the trunk of the nearest tree on the right, and drop the avatar where it stood
+        int treeX = (lastColumn + 1) * Block.SIZE;
+        while (game.getPrefetcher().planOf(treeX).getTree() == null) {
+            treeX += Block.SIZE;
+        }
+        TreePlan tree = game.getPrefetcher().planOf(treeX).getTree();
+        for (int trunkRow = 0; trunkRow < tree.getTrunkHeight(); trunkRow++) {
+            game.editTree(treeX, Tree.trunkCell(trunkRow), ColumnEdits.REMOVED);
+        }
+        // The avatar stands on the higher of the columns under it
+        float treeGround = Math.min(terrain.groundHeightAt(treeX), terrain.groundHeightAt(
+                Block.gridIndexOf(treeX + avatar.getDimensions().x() - 1) * Block.SIZE));
+        avatar.setTopLeftCorner(new Vector2(treeX, treeGround - Avatar.HEIGHT - Block.SIZE));
+        avatar.setVelocity(Vector2.ZERO);
+        simulation.run(SETTLING_FRAMES, DELTA_TIME);
+        checkFeet("where the trunk was", avatar, treeGround);
+        // Build a wall in the column right of the avatar, and walk into it
+        int wallX = Block.gridIndexOf(avatar.getTopLeftCorner().x() + avatar.getDimensions().x() - 1) *
+                Block.SIZE + Block.SIZE;
+        int wallGroundRow = terrain.rowAt(wallX, terrain.groundHeightAt(wallX));
+        for (int row = wallGroundRow - WALL_HEIGHT; row < wallGroundRow; row++) {
+            game.editTerrain(wallX, row, terrain.colorAt(wallX, row));
+        }
+        simulation.getInputListener().press(KeyEvent.VK_RIGHT);
+        simulation.run(SETTLING_FRAMES, DELTA_TIME);
+        simulation.getInputListener().release(KeyEvent.VK_RIGHT);
+        float right = avatar.getTopLeftCorner().x() + avatar.getDimensions().x();
+        if (right > wallX + FEET_TOLERANCE) {
+            throw new AssertionError("The avatar walked into a wall of placed Blocks at x=" + wallX +
+                    ", up to x=" + right);
+        }
+        game.getPrefetcher().shutdown();
+        System.out.printf("walking over edits check: the avatar stood in a pit, where a trunk was removed, " +
+                "and stopped before a placed wall%n");
+    }
+
+    /* Places a Block in the tile of a tree, failing unless the tree keeps the very same leaves, which would
+    lose their life cycles and fall if the tree was created again */
+    private static void checkTerrainEditKeepsTree() {
+        PepseGameManager game = new PepseGameManager();
+        HeadlessSimulation simulation = new HeadlessSimulation(game);
+        simulation.run(SETTLING_FRAMES, DELTA_TIME);
+        int treeX = Block.gridIndexOf(game.getAvatar().getCenter().x()) * Block.SIZE;
+        while (game.getPrefetcher().planOf(treeX).getTree() == null) {
+            treeX += Block.SIZE;
+        }
+        List<GameObject> leaves = leavesOf(game, treeX);
+        // The top row of the tree's tile, so that the edit recreates the tile
+        int row = TileStore.tileRowOf(game.getPrefetcher().planOf(treeX).getTree().getLeavesTopY()) *
+                TileStore.ROWS;
+        game.editTerrain(treeX, row, game.getTerrain().colorAt(treeX, row));
+        List<GameObject> leavesAfterEdit = leavesOf(game, treeX);
+        if (leaves.isEmpty() || !leaves.equals(leavesAfterEdit)) {
+            throw new AssertionError("Placing a Block in the tile of the tree at x=" + treeX +
+                    " replaced its " + leaves.size() + " leaves by " + leavesAfterEdit.size() + " others");
+        }
+        game.getPrefetcher().shutdown();
+        System.out.printf("terrain edit check: the tree at x=%d kept its %d leaves%n", treeX, leaves.size());
+    }
+
+    /* Returns the leaves created at a column, in the order they are recorded */
+    private static List<GameObject> leavesOf(PepseGameManager game, int x) {
+        List<GameObject> leaves = new ArrayList<>();
+        game.forEachObjectInColumn(x, (gameObject, layer) -> {
+            if (gameObject instanceof Leaf) {
+                leaves.add(gameObject);
+            }
+        });
+        return leaves;
+    }
+
+    /* Fails unless the avatar's feet are at the given y value */
+    private static void checkFeet(String where, GameObject avatar, float expected) {
+        float feet = avatar.getTopLeftCorner().y() + avatar.getDimensions().y();
+        if (Math.abs(feet - expected) > FEET_TOLERANCE) {
+            throw new AssertionError("The avatar's feet are at y=" + feet + " " + where + ", expected " +
+                    expected);
+        }
+    }
+
+    /* Records a million edits in the given layout, and reports the time and the memory they take */
+    private static ColumnEdits reportMemory(String name, int columns, int stride, int editsPerColumn) {
+        long before = usedMemory();
+        long start = System.nanoTime();
+        ColumnEdits edits = new ColumnEdits(1);
+        for (int column = 0; column < columns; column++) {
+            for (int cell = 0; cell < editsPerColumn; cell++) {
+                edits.set(column * stride * Block.SIZE, cell, cell == 0 ? ColumnEdits.REMOVED : cell);
+            }
+        }
+        double millis = (System.nanoTime() - start) / 1e6;
+        long bytes = usedMemory() - before;
+        System.out.printf("%d %s edits over %d columns, %d columns apart: recorded in %.1f ms, %.1f MB, " +
+                        "%.1f bytes per edit%n", edits.getEditCount(), name, edits.getColumnCount(), stride,
+                millis, bytes / 1e6, (double) bytes / edits.getEditCount());
+        return edits;
+    }
+
+    /* Visits the edits of a single tile of a column, as a producer does while creating it */
+    private static void visitTile(ColumnEdits edits, int x, int tileRow) {
+        int slot = edits.slotOf(x);
+        if (slot < 0) {
+            return;
+        }
+        int tileBottom = (tileRow + 1) * TileStore.ROWS;
+        for (int i = edits.firstEditAtOrAfter(slot, tileRow * TileStore.ROWS);
+             i < edits.sizeOf(slot) && edits.cellAt(slot, i) < tileBottom; i++) {
+            visited += edits.valueAt(slot, i);
+        }
+    }
+
+    /* Benchmarks walking frames through a world with the ground of the given number of columns around the
+    avatar edited: the top Block removed, and a Block placed above it */
+    private static void benchmarkWorld(String name, int editedColumns) {
+        PepseGameManager game = new PepseGameManager();
+        HeadlessSimulation simulation = new HeadlessSimulation(game);
+        Terrain terrain = game.getTerrain();
+        int center = Block.gridIndexOf(game.getAvatar().getCenter().x());
+        for (int column = center - editedColumns / 2; column < center + editedColumns / 2; column++) {
+            int x = column * Block.SIZE;
+            int groundRow = terrain.rowAt(x, terrain.groundHeightAt(x));
+            game.editTerrain(x, groundRow, ColumnEdits.REMOVED);
+            game.editTerrain(x, groundRow - 2, terrain.colorAt(x, groundRow - 2));
+        }
+        System.out.printf("%s: %d terrain edits in %d columns, %d world objects%n", name,
+                game.getTerrainEdits().getEditCount(), game.getTerrainEdits().getColumnCount(),
+                game.getCachedObjectCount());
+        simulation.getInputListener().press(KeyEvent.VK_RIGHT);
+        BenchmarkRunner.run("frame, walking right, " + name, i -> simulation.step(DELTA_TIME));
+        game.getPrefetcher().shutdown();
+    }
+
+    /* Returns the number of bytes in use on the heap, after collecting garbage */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
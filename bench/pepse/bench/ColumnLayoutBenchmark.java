@@ -0,0 +1,35 @@
+package pepse.bench;
+
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessSimulation;
+import java.awt.event.KeyEvent;
+
+/**
+ * Compares the per-Block column layout with the merged column layout, in which every terrain run and tree
+ * trunk of a column is a single object. Reports the number of world objects and the steady-state frame
+ * time of both layouts while the avatar walks right.
+ */
+public class ColumnLayoutBenchmark {
+
+    /* Constants */
+    private static final float DELTA_TIME = 1f / 60;
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        benchmarkLayout("per-block columns", false);
+        benchmarkLayout("merged columns", true);
+    }
+
+    /* Benchmarks walking frames with the given column layout */
+    private static void benchmarkLayout(String name, boolean mergedColumns) {
+        PepseGameManager game = new PepseGameManager();
+        game.setMergedColumns(mergedColumns);
+        HeadlessSimulation simulation = new HeadlessSimulation(game);
+        System.out.printf("%s: %d world objects%n", name, game.getCachedObjectCount());
+        simulation.getInputListener().press(KeyEvent.VK_RIGHT);
+        BenchmarkRunner.run("frame, walking right, " + name, i -> simulation.step(DELTA_TIME));
+    }
+}
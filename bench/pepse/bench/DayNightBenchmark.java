@@ -0,0 +1,41 @@
+package pepse.bench;
+
+import pepse.headless.HeadlessSimulation;
+import pepse.world.daynight.DayNightCycle;
+
+/**
+ * Measures a frame of the day/night cycle, which should allocate nothing, and jumping to arbitrary times
+ * of day. Fails if advancing the cycle allocates.
+ */
+public class DayNightBenchmark {
+
+    /* Constants */
+    private static final float DELTA_TIME = 1f / 60;
+    private static final int WARMUP = 10_000;
+    private static final int ITERATIONS = 100_000;
+    private static final long ALLOCATION_TOLERANCE = 1024;  // reading the allocation counter may allocate
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        HeadlessSimulation simulation = new HeadlessSimulation();
+        DayNightCycle cycle = simulation.getGameManager().getDayNightCycle();
+        BenchmarkRunner.run("day/night frame", WARMUP, ITERATIONS, i -> cycle.update(DELTA_TIME));
+        float cycleLength = cycle.getCycleLength();
+        BenchmarkRunner.run("day/night jump", WARMUP, ITERATIONS,
+                i -> cycle.setTime(i * 0.37f % cycleLength));
+        // Outside the harness, which allocates its samples
+        long allocatedBefore = BenchmarkRunner.allocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            cycle.update(DELTA_TIME);
+        }
+        long allocated = BenchmarkRunner.allocatedBytes() - allocatedBefore;
+        System.out.printf("  allocated over %d frames: %d bytes%n", ITERATIONS, allocated);
+        if (allocated > ALLOCATION_TOLERANCE) {
+            throw new AssertionError("The day/night cycle allocated " + allocated + " bytes");
+        }
+        simulation.getGameManager().getPrefetcher().shutdown();
+    }
+}
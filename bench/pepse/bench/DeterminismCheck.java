@@ -0,0 +1,74 @@
+package pepse.bench;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessSimulation;
+import pepse.world.Block;
+import pepse.world.ColumnRenderable;
+
+/**
+ * Checks that world generation is deterministic: every column in the initial window is rebuilt identically
+ * after it is evicted, and a second game with the same seed, whose initial window is generated serially
+ * instead of in parallel, builds identical columns. Columns are compared by the class, layer, tag, position,
+ * dimensions and renderable of all of their objects. Throws an IllegalStateException naming the first column
+ * that differs.
+ */
+public class DeterminismCheck {
+
+    /* Constants */
+    private static final int SEED = 6;
+
+    /**
+     * Runs the check.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        PepseGameManager game = createGame(true);
+        PepseGameManager twin = createGame(false);
+        int columns = 0;
+        for (int x = game.getLeftRange(); x < game.getRightRange(); x += Block.SIZE) {
+            String created = describeColumn(game, x, true);
+            game.collectGarbage(x);
+            game.generateWorld(x, x + Block.SIZE);
+            String rebuilt = describeColumn(game, x, true);
+            if (!created.equals(rebuilt)) {
+                throw new IllegalStateException("Column " + x + " was rebuilt differently after eviction:\n" +
+                        created + "\nvs\n" + rebuilt);
+            }
+            if (!describeColumn(game, x, false).equals(describeColumn(twin, x, false))) {
+                throw new IllegalStateException("Column " + x + " differs between parallel and serial " +
+                        "generation with seed " + SEED);
+            }
+            columns++;
+        }
+        System.out.printf("determinism check: %d columns rebuilt identically%n", columns);
+    }
+
+    /* Creates a game with the checked seed, without stepping it */
+    private static PepseGameManager createGame(boolean parallelStartup) {
+        PepseGameManager game = new PepseGameManager();
+        game.setSeed(SEED);
+        game.setParallelStartup(parallelStartup);
+        new HeadlessSimulation(game);
+        return game;
+    }
+
+    /* Describes every object of a column. Shared palette renderables are compared by identity within a
+    single game */
+    private static String describeColumn(PepseGameManager game, int x, boolean renderableIdentity) {
+        StringBuilder description = new StringBuilder();
+        game.forEachObjectInColumn(x, (gameObject, layer) -> {
+            Renderable renderable = gameObject.renderer().getRenderable();
+            description.append(gameObject.getClass().getSimpleName()).append(' ').append(layer).append(' ')
+                    .append(gameObject.getTag()).append(' ').append(gameObject.getTopLeftCorner()).append(' ')
+                    .append(gameObject.getDimensions()).append(' ')
+                    .append(renderable == null ? "null" : renderable.getClass().getSimpleName());
+            if (renderableIdentity && renderable != null && !(renderable instanceof ColumnRenderable)) {
+                description.append('@').append(System.identityHashCode(renderable));
+            }
+            description.append('\n');
+        });
+        return description.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package pepse.bench;
+
+import danogl.util.Vector2;
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessImageReader;
+import pepse.headless.HeadlessSimulation;
+import pepse.headless.HeadlessWindowController;
+import pepse.util.AssetManager;
+
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Compares the time from creating a game to the end of its first frame, including loading the Avatar's
+ * images from disk. Before, the images were decoded one by one on the game thread while the Avatar was
+ * created, which is reproduced by decoding them serially on top of a game whose assets are already
+ * loaded. After, they are decoded in parallel while the world is generated and packed into an atlas, and
+ * later games sharing an AssetManager don't load them at all. Headless games, which read blank images, skip
+ * decoding altogether unless given an AssetManager that decodes. Run from the repository root, so that the
+ * images are found.
+ */
+public class FirstFrameBenchmark {
+
+    /* Constants */
+    private static final String[] AVATAR_IMAGES = {"assets/idle1.png", "assets/idle2.png",
+            "assets/idle3.png", "assets/walking1.png", "assets/walking2.png", "assets/walking3.png",
+            "assets/jumping1.png"};
+    private static final float FRAME_TIME = 1 / 60f;
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1024, 768);
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        AssetManager shared = firstFrame(decodingAssets());  // loads the shared assets
+        BenchmarkRunner.run("first frame, serial image reads", WARMUP, ITERATIONS, i -> {
+            for (String path : AVATAR_IMAGES) {
+                decode(path);
+            }
+            firstFrame(shared);
+        });
+        BenchmarkRunner.run("first frame, parallel atlas", WARMUP, ITERATIONS,
+                i -> firstFrame(decodingAssets()));
+        BenchmarkRunner.run("first frame, shared atlas", WARMUP, ITERATIONS, i -> firstFrame(shared));
+        BenchmarkRunner.run("first frame, headless, no decoding", WARMUP, ITERATIONS, i -> firstFrame(null));
+    }
+
+    /* Creates a game and runs its first frame, returning the game's assets */
+    private static AssetManager firstFrame(AssetManager assets) {
+        PepseGameManager game = new PepseGameManager();
+        game.setSeed(6);
+        if (assets != null) {
+            game.setAssetManager(assets);
+        }
+        new HeadlessSimulation(game).step(FRAME_TIME);
+        game.getPrefetcher().shutdown();
+        return game.getAssetManager();
+    }
+
+    /* Returns new assets that decode images from disk, as a game with a display has */
+    private static AssetManager decodingAssets() {
+        return new AssetManager(new HeadlessImageReader(new HeadlessWindowController(WINDOW_DIMENSIONS)),
+                true);
+    }
+
+    /* Decodes an image from disk */
+    private static void decode(String path) {
+        try {
+            ImageIO.read(new File(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package pepse.bench;
+
+import pepse.headless.HeadlessSimulation;
+import java.awt.event.KeyEvent;
+
+/**
+ * Benchmarks steady-state frames of the full game loop, while the avatar walks or flies at a fixed speed.
+ */
+public class FrameBenchmark {
+
+    /* Constants */
+    private static final float DELTA_TIME = 1f / 60;
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        HeadlessSimulation walking = new HeadlessSimulation();
+        walking.getInputListener().press(KeyEvent.VK_RIGHT);
+        BenchmarkRunner.run("frame, walking right", i -> walking.step(DELTA_TIME));
+
+        HeadlessSimulation flying = new HeadlessSimulation();
+        flying.getInputListener().press(KeyEvent.VK_RIGHT);
+        flying.getInputListener().press(KeyEvent.VK_SHIFT);
+        flying.getInputListener().press(KeyEvent.VK_SPACE);
+        BenchmarkRunner.run("frame, flying right", i -> flying.step(DELTA_TIME));
+        System.out.printf("  pending columns after flying: %d%n", flying.getGameManager().getPendingColumns());
+    }
+}
@@ -0,0 +1,43 @@
+package pepse.bench;
+
+import danogl.util.Vector2;
+import pepse.world.Block;
+import pepse.world.HeightFunction;
+import pepse.world.Terrain;
+
+/**
+ * Benchmarks terrain height queries over a wide range of columns, each queried the three times world
+ * generation does (terrain, trunk and leaves), through the heightfield cache and through the batch API.
+ */
+public class HeightfieldBenchmark {
+
+    /* Constants */
+    private static final int RANGE_COLUMNS = 512;
+    private static final int QUERIES_PER_COLUMN = 3;
+
+    /* Private members */
+    private static float sink;  // consumes heights so queries can't be optimized away
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        Terrain terrain = new Terrain(null, 0, new Vector2(1024, 768), 42);
+        HeightFunction heights = terrain::groundHeightAt;
+        BenchmarkRunner.run("per-column queries, wide range", i -> {
+            int minX = i * RANGE_COLUMNS * Block.SIZE;
+            for (int column = 0; column < RANGE_COLUMNS; column++) {
+                for (int query = 0; query < QUERIES_PER_COLUMN; query++) {
+                    sink += heights.heightAt(minX + column * Block.SIZE);
+                }
+            }
+        });
+        float[] range = new float[RANGE_COLUMNS];
+        BenchmarkRunner.run("batch query, wide range", i -> {
+            int minX = i * RANGE_COLUMNS * Block.SIZE;
+            terrain.groundHeightsInRange(minX, minX + RANGE_COLUMNS * Block.SIZE, range);
+            sink += range[RANGE_COLUMNS - 1];
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package pepse.bench;
+
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessSimulation;
+
+/**
+ * Compares frames in which hundreds of leaves are falling, when leaves land by colliding with the top
+ * terrain layer and when they land analytically on the terrain height. All leaves are dropped again every
+ * few seconds, so most frames have falling leaves in the collision pass.
+ */
+public class LeafLandingBenchmark {
+
+    /* Constants */
+    private static final float DELTA_TIME = 1f / 60;
+    private static final int DROP_INTERVAL_FRAMES = 360;  // a fall and fade out take 300 frames
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        benchmarkLanding("collisions", false);
+        benchmarkLanding("analytic", true);
+    }
+
+    /* Benchmarks idle frames with all leaves falling, in the given landing mode */
+    private static void benchmarkLanding(String name, boolean analytic) {
+        PepseGameManager game = new PepseGameManager();
+        game.setAnalyticLeafLanding(analytic);
+        HeadlessSimulation simulation = new HeadlessSimulation(game);
+        System.out.printf("  %d leaves%n", game.getLeafSystem().size());
+        BenchmarkRunner.run("frame, leaves falling, " + name,
+                i -> {
+                    if (i % DROP_INTERVAL_FRAMES == 0) {
+                        game.getLeafSystem().dropAll();
+                    }
+                },
+                i -> simulation.step(DELTA_TIME));
+    }
+}
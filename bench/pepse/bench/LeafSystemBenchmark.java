@@ -0,0 +1,81 @@
+package pepse.bench;
+
+import danogl.util.Vector2;
+import pepse.world.Block;
+import pepse.world.trees.Leaf;
+import pepse.world.trees.LeafSystem;
+
+import java.util.Random;
+
+/**
+ * Checks that a leaf frozen off-screen in the middle of its fall is, once back in view, where a leaf kept in
+ * view all along is. Then benchmarks a frame of leaf animation over many live leaves, all updated by a single
+ * LeafSystem, at full detail and with only a screen's worth of leaves in view.
+ */
+public class LeafSystemBenchmark {
+
+    /* Constants */
+    private static final int LEAF_COUNT = 10_000;
+    private static final float DELTA_TIME = 1f / 60;
+    private static final int VIEW_COLUMNS = 35;
+    // A leaf falls after a second, is frozen half a second into its fall, and is back in view 2 seconds later
+    private static final int LIFETIME = 1;
+    private static final int FREEZE_FRAME = 90;
+    private static final int THAW_FRAME = 210;
+    private static final int COMPARED_FRAME = 240;
+    private static final float POSITION_TOLERANCE = 2;
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        checkFrozenFall();
+
+        LeafSystem leafSystem = new LeafSystem(LEAF_COUNT);
+        Random random = new Random(42);
+        for (int i = 0; i < LEAF_COUNT; i++) {
+            Leaf leaf = new Leaf(new Vector2(i * Block.SIZE, 0), null);
+            leafSystem.add(leaf, random.nextFloat(), random.nextFloat(), 1 + random.nextInt(5),
+                    1 + random.nextInt(5), random.nextLong());
+        }
+        BenchmarkRunner.run("leaf system frame, " + LEAF_COUNT + " leaves",
+                i -> leafSystem.update(DELTA_TIME));
+        // A screen's worth of leaves in view, out of all cached leaves
+        float viewWidth = VIEW_COLUMNS * Block.SIZE;
+        BenchmarkRunner.run("leaf system frame, " + LEAF_COUNT + " leaves, " + VIEW_COLUMNS + " in view",
+                i -> leafSystem.update(DELTA_TIME, 0, viewWidth, viewWidth / 2));
+        System.out.printf("  leaves updated in the last frame: %d%n", leafSystem.getUpdatedLeaves());
+    }
+
+    /* Drops a leaf kept in view and a leaf frozen off-screen for a part of its fall, moving both by their
+    physics every frame as the game does, and fails unless both are at the same place once back in view */
+    private static void checkFrozenFall() {
+        Leaf[] leaves = new Leaf[2];
+        LeafSystem[] systems = new LeafSystem[2];
+        for (int i = 0; i < leaves.length; i++) {
+            leaves[i] = new Leaf(Vector2.ZERO, null);
+            systems[i] = new LeafSystem(1);
+            systems[i].setGround(x -> Float.MAX_VALUE);
+            systems[i].add(leaves[i], 0, 0, LIFETIME, LIFETIME, 0);
+        }
+        float viewWidth = VIEW_COLUMNS * Block.SIZE;
+        for (int frame = 0; frame < COMPARED_FRAME; frame++) {
+            // The second leaf is out of view while the view is moved a whole width away
+            float viewShift = frame < FREEZE_FRAME || frame >= THAW_FRAME ? 0 : 2 * viewWidth;
+            systems[0].update(DELTA_TIME, -viewWidth / 2, viewWidth / 2, 0);
+            systems[1].update(DELTA_TIME, viewShift - viewWidth / 2, viewShift + viewWidth / 2, viewShift);
+            for (Leaf leaf : leaves) {
+                leaf.update(DELTA_TIME);
+            }
+        }
+        Vector2 live = leaves[0].getTopLeftCorner();
+        Vector2 thawed = leaves[1].getTopLeftCorner();
+        if (live.subtract(thawed).magnitude() > POSITION_TOLERANCE) {
+            throw new AssertionError("A leaf frozen while falling is at " + thawed + " once back in view, " +
+                    "a leaf kept in view at " + live);
+        }
+        System.out.printf("frozen fall check: the thawed leaf is %.2f px from the live one, %.0f px into " +
+                "the fall%n", live.subtract(thawed).magnitude(), thawed.y());
+    }
+}
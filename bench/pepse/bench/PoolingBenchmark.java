@@ -0,0 +1,61 @@
+package pepse.bench;
+
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessSimulation;
+import java.awt.event.KeyEvent;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compares walking frames with and without recycling of Blocks and Leaves. Reports frame time and bytes
+ * allocated per frame, the pool hit/miss counters, and the garbage collections that occurred.
+ */
+public class PoolingBenchmark {
+
+    /* Constants */
+    private static final float DELTA_TIME = 1f / 60;
+    private static final int DEFAULT_POOL_CAPACITY = 4096;
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        benchmarkPoolCapacity("no pooling", 0);
+        benchmarkPoolCapacity("pooling", DEFAULT_POOL_CAPACITY);
+    }
+
+    /* Benchmarks walking frames with pools of the given capacity */
+    private static void benchmarkPoolCapacity(String name, int capacity) {
+        PepseGameManager game = new PepseGameManager();
+        game.setPoolCapacity(capacity);
+        HeadlessSimulation simulation = new HeadlessSimulation(game);
+        simulation.getInputListener().press(KeyEvent.VK_RIGHT);
+        long collectionsBefore = collections();
+        long collectionTimeBefore = collectionTime();
+        BenchmarkRunner.run("frame, walking right, " + name, i -> simulation.step(DELTA_TIME));
+        System.out.printf("  blocks: %d hits, %d misses; leaves: %d hits, %d misses; " +
+                        "%d GCs taking %d ms%n",
+                game.getBlockPool().getHits(), game.getBlockPool().getMisses(),
+                game.getLeafPool().getHits(), game.getLeafPool().getMisses(),
+                collections() - collectionsBefore, collectionTime() - collectionTimeBefore);
+    }
+
+    /* Returns the total number of garbage collections so far */
+    private static long collections() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    /* Returns the total time spent in garbage collections so far, in milliseconds */
+    private static long collectionTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, collector.getCollectionTime());
+        }
+        return time;
+    }
+}
@@ -0,0 +1,34 @@
+package pepse.bench;
+
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessSimulation;
+import pepse.world.ColumnPrefetcher;
+import java.awt.event.KeyEvent;
+
+/**
+ * Benchmarks frames while the avatar flies right, and reports how many of the materialized columns were
+ * planned in time by the background prefetcher rather than by the game thread.
+ */
+public class PrefetchBenchmark {
+
+    /* Constants */
+    private static final float DELTA_TIME = 1f / 60;
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        HeadlessSimulation simulation = new HeadlessSimulation();
+        simulation.getInputListener().press(KeyEvent.VK_RIGHT);
+        simulation.getInputListener().press(KeyEvent.VK_SHIFT);
+        simulation.getInputListener().press(KeyEvent.VK_SPACE);
+        PepseGameManager game = simulation.getGameManager();
+        ColumnPrefetcher prefetcher = game.getPrefetcher();
+        long hitsBefore = prefetcher.getHits();
+        long missesBefore = prefetcher.getMisses();
+        BenchmarkRunner.run("frame, flying right, prefetching", i -> simulation.step(DELTA_TIME));
+        System.out.printf("  column plans: %d prefetched, %d planned on the game thread%n",
+                prefetcher.getHits() - hitsBefore, prefetcher.getMisses() - missesBefore);
+    }
+}
@@ -0,0 +1,38 @@
+package pepse.bench;
+
+import pepse.headless.HeadlessSimulation;
+import pepse.stats.FrameProfiler;
+import pepse.stats.LatencyHistogram;
+import java.awt.event.KeyEvent;
+
+/**
+ * Measures the cost of recording a duration into a LatencyHistogram and of timing a subsystem, and prints
+ * the per-subsystem profile of the game while the avatar flies right, spreading generation over frames.
+ */
+public class ProfilerBenchmark {
+
+    /* Constants */
+    private static final float DELTA_TIME = 1f / 60;
+    private static final int FRAMES = 3600;
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        BenchmarkRunner.run("histogram record", i -> histogram.record(i * 7919L));
+        FrameProfiler profiler = new FrameProfiler();
+        long[] lap = {System.nanoTime()};
+        BenchmarkRunner.run("profiler lap", i -> lap[0] = profiler.lap(FrameProfiler.Subsystem.OBJECTS, lap[0]));
+
+        HeadlessSimulation flying = new HeadlessSimulation();
+        flying.getInputListener().press(KeyEvent.VK_RIGHT);
+        flying.getInputListener().press(KeyEvent.VK_SHIFT);
+        flying.getInputListener().press(KeyEvent.VK_SPACE);
+        flying.getGameManager().getProfiler().reset();  // leave out the initial world
+        flying.run(FRAMES, DELTA_TIME);
+        System.out.print(flying.getGameManager().getProfiler().summary());
+        flying.getGameManager().getPrefetcher().shutdown();
+    }
+}
@@ -0,0 +1,87 @@
+package pepse.bench;
+
+import danogl.GameObject;
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessInputListener;
+import pepse.headless.HeadlessSimulation;
+import pepse.replay.HeadlessReplay;
+import pepse.replay.InputRecording;
+import pepse.stats.FrameTrace;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Records a scripted run, writes and reads the recording back, and replays it headlessly with a
+ * frame-time trace. Fails if the replayed run ends anywhere else than the recorded one, or if a second
+ * replay ends with other leaf states than the first, and reports how much faster than real time the
+ * replay ran.
+ */
+public class ReplayBenchmark {
+
+    /* Constants */
+    private static final int SEED = 6;
+    private static final int FRAMES = 3600;
+    private static final int LEG_FRAMES = 300;  // frames between changes of the scripted input
+    private static final float DELTA_TIME = 1f / 60;
+
+    /**
+     * Runs the benchmark.
+     * @param args Unused.
+     * @throws IOException If the recording can't be written or read.
+     */
+    public static void main(String[] args) throws IOException {
+        PepseGameManager recorded = new PepseGameManager();
+        recorded.setSeed(SEED);
+        recorded.setRecordInput(true);
+        HeadlessSimulation simulation = new HeadlessSimulation(recorded);
+        HeadlessInputListener input = simulation.getInputListener();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            // Walk right, fly right, walk left, in turn
+            if (frame % LEG_FRAMES == 0) {
+                input.releaseAll();
+                int leg = frame / LEG_FRAMES % 3;
+                input.press(leg == 2 ? KeyEvent.VK_LEFT : KeyEvent.VK_RIGHT);
+                if (leg == 1) {
+                    input.press(KeyEvent.VK_SPACE);
+                    input.press(KeyEvent.VK_SHIFT);
+                }
+            }
+            simulation.step(DELTA_TIME);
+        }
+        recorded.getPrefetcher().shutdown();
+
+        Path path = Files.createTempFile("pepse", ".recording");
+        recorded.getRecording().write(path);
+        System.out.printf("recording: %d frames, %d bytes%n", recorded.getRecording().getFrameCount(),
+                Files.size(path));
+        InputRecording recording = InputRecording.read(path);
+        Files.delete(path);
+
+        FrameTrace frameTrace = new FrameTrace();
+        long start = System.nanoTime();
+        PepseGameManager replayed = HeadlessReplay.replay(recording, frameTrace);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        GameObject expected = recorded.getAvatar();
+        GameObject actual = replayed.getAvatar();
+        if (!expected.getTopLeftCorner().equals(actual.getTopLeftCorner())) {
+            throw new AssertionError("Replay ended at " + actual.getTopLeftCorner() + " instead of " +
+                    expected.getTopLeftCorner());
+        }
+        System.out.println("replay: " + frameTrace.summary());
+        System.out.printf("  %.1fx real time, ended where the recording did%n", FRAMES * DELTA_TIME / elapsed);
+
+        // Replaying again must follow the very same run, down to the life cycle of every leaf
+        PepseGameManager replayedAgain = HeadlessReplay.replay(recording, new FrameTrace());
+        ByteBuffer leafStates = replayed.getLeafSystem().saveStates();
+        ByteBuffer leafStatesAgain = replayedAgain.getLeafSystem().saveStates();
+        if (!leafStates.equals(leafStatesAgain)) {
+            throw new AssertionError("Two replays of the recording ended with different states of their " +
+                    replayed.getLeafSystem().size() + " and " + replayedAgain.getLeafSystem().size() +
+                    " leaves");
+        }
+        System.out.printf("  replayed again with the same %d leaf states%n", replayed.getLeafSystem().size());
+    }
+}
@@ -0,0 +1,72 @@
+package pepse.bench;
+
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessSimulation;
+import pepse.save.WorldSnapshot;
+import pepse.world.Block;
+import pepse.world.ColumnEdits;
+import pepse.world.Terrain;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compares getting back to a spot far into the world by restoring a snapshot, against a cold start
+ * followed by walking back to the spot. Also times saving the snapshot on the game thread, which only
+ * takes the snapshot and starts the write. Fails if an edit to the terrain is lost on restore.
+ */
+public class SnapshotBenchmark {
+
+    /* Constants */
+    private static final float DELTA_TIME = 1f / 60;
+    private static final int WALKING_FRAMES = 3600;  // one minute of walking right
+    private static final int REPETITIONS = 5;
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     * @throws IOException If the snapshot file can't be written or read.
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Files.createTempFile("pepse", ".snapshot");
+        // Walk far into the world and save it
+        PepseGameManager game = new PepseGameManager();
+        HeadlessSimulation simulation = new HeadlessSimulation(game);
+        simulation.getInputListener().press(KeyEvent.VK_RIGHT);
+        simulation.run(WALKING_FRAMES, DELTA_TIME);
+        // Remove the ground Block under the avatar, which should be saved along with the world
+        Terrain terrain = game.getTerrain();
+        int editedX = Block.gridIndexOf(game.getAvatar().getCenter().x()) * Block.SIZE;
+        int editedRow = terrain.rowAt(editedX, terrain.groundHeightAt(editedX));
+        game.editTerrain(editedX, editedRow, ColumnEdits.REMOVED);
+        long saveStart = System.nanoTime();
+        game.saveSnapshot(path).join();
+        System.out.printf("save and write: %.2f ms, %d bytes, %d leaves%n",
+                (System.nanoTime() - saveStart) / 1e6, Files.size(path), game.getLeafSystem().size());
+        BenchmarkRunner.run("take snapshot", 200, 1000, i -> game.takeSnapshot());
+
+        for (int i = 0; i < REPETITIONS; i++) {
+            long coldStart = System.nanoTime();
+            PepseGameManager cold = new PepseGameManager();
+            cold.setSeed(game.getSeed());
+            HeadlessSimulation walkBack = new HeadlessSimulation(cold);
+            walkBack.getInputListener().press(KeyEvent.VK_RIGHT);
+            walkBack.run(WALKING_FRAMES, DELTA_TIME);
+            long coldTime = System.nanoTime() - coldStart;
+
+            long restoreStart = System.nanoTime();
+            PepseGameManager restored = new PepseGameManager();
+            restored.setSnapshot(WorldSnapshot.read(path));
+            new HeadlessSimulation(restored);
+            long restoreTime = System.nanoTime() - restoreStart;
+            if (restored.getTerrainEdits().get(editedX, editedRow) != ColumnEdits.REMOVED) {
+                throw new AssertionError("The removed ground Block at x=" + editedX + " was restored");
+            }
+            System.out.printf("cold start and walk back: %.1f ms, restore: %.1f ms (avatar at x=%.0f vs %.0f)%n",
+                    coldTime / 1e6, restoreTime / 1e6, cold.getAvatar().getTopLeftCorner().x(),
+                    restored.getAvatar().getTopLeftCorner().x());
+        }
+        Files.delete(path);
+    }
+}
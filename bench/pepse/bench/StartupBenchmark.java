@@ -0,0 +1,38 @@
+package pepse.bench;
+
+import danogl.util.Vector2;
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessSimulation;
+
+/**
+ * Compares the time to initialize a game, up to its first frame, when the initial window is planned
+ * serially and when it is planned in parallel, for window sizes up to a wide 4K screen.
+ */
+public class StartupBenchmark {
+
+    /* Constants */
+    private static final Vector2[] WINDOW_SIZES = {
+            new Vector2(1024, 768), new Vector2(1920, 1080), new Vector2(3840, 2160), new Vector2(7680, 2160)};
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        for (Vector2 windowSize : WINDOW_SIZES) {
+            for (boolean parallel : new boolean[]{false, true}) {
+                String name = String.format("startup, %.0fx%.0f, %s", windowSize.x(), windowSize.y(),
+                        parallel ? "parallel" : "serial");
+                BenchmarkRunner.run(name, WARMUP, ITERATIONS, i -> {
+                    PepseGameManager game = new PepseGameManager();
+                    game.setSeed(i);
+                    game.setParallelStartup(parallel);
+                    new HeadlessSimulation(game, windowSize);
+                    game.getPrefetcher().shutdown();
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package pepse.bench;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.world.Block;
+import pepse.world.TileStore;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Compares the TileStore with the previous column cache, a HashMap from boxed x values to lists of
+ * GameObjects whose layers were recovered from their tags upon eviction. Every iteration slides a window of
+ * columns by one column: a new column is recorded, and the oldest one is evicted. Then measures sliding a
+ * window of tiles vertically by one tile row, across all of its columns.
+ */
+public class TileStoreBenchmark {
+
+    /* Constants */
+    private static final int WINDOW_COLUMNS = 40;
+    private static final int OBJECTS_PER_COLUMN = 22;
+    private static final int WINDOW_TILE_ROWS = 4;
+    private static final String[] TAGS = {"top-terrain", "bottom-terrain", "leaf", "trunk"};
+    private static final int[] LAYERS = {-101, -100, -98, -99};
+
+    /* Private members */
+    private static int removed;  // consumes evicted objects so eviction can't be optimized away
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        GameObject[] column = new GameObject[OBJECTS_PER_COLUMN];
+        for (int i = 0; i < OBJECTS_PER_COLUMN; i++) {
+            column[i] = new GameObject(Vector2.ZERO, Vector2.ONES, null);
+            column[i].setTag(TAGS[i % TAGS.length]);
+        }
+
+        HashMap<Integer, ArrayList<GameObject>> legacyCache = new HashMap<>();
+        BenchmarkRunner.run("legacy HashMap cache, slide one column", i -> {
+            int x = i * Block.SIZE;
+            for (GameObject gameObject : column) {
+                if (!(legacyCache.containsKey(x))) {
+                    legacyCache.put(x, new ArrayList<GameObject>());
+                }
+                legacyCache.get(x).add(gameObject);
+            }
+            int evictedX = x - WINDOW_COLUMNS * Block.SIZE;
+            if (legacyCache.containsKey(evictedX)) {
+                for (GameObject gameObject : legacyCache.get(evictedX)) {
+                    removed += layerOfTag(gameObject.getTag());
+                }
+                legacyCache.remove(evictedX);
+            }
+        });
+
+        TileStore store = new TileStore(2 * WINDOW_COLUMNS);
+        BenchmarkRunner.run("TileStore, slide one column", i -> {
+            int x = i * Block.SIZE;
+            for (int j = 0; j < OBJECTS_PER_COLUMN; j++) {
+                store.add(x, 0, column[j], LAYERS[j % LAYERS.length]);
+            }
+            store.evict(x - WINDOW_COLUMNS * Block.SIZE, 0, (gameObject, layer) -> removed += layer);
+        });
+
+        TileStore tiles = new TileStore(WINDOW_COLUMNS * (WINDOW_TILE_ROWS + 1));
+        BenchmarkRunner.run("TileStore, slide one tile row", i -> {
+            for (int c = 0; c < WINDOW_COLUMNS; c++) {
+                int x = c * Block.SIZE;
+                for (int j = 0; j < OBJECTS_PER_COLUMN; j++) {
+                    tiles.add(x, i, column[j], LAYERS[j % LAYERS.length]);
+                }
+                tiles.evict(x, i - WINDOW_TILE_ROWS, (gameObject, layer) -> removed += layer);
+            }
+        });
+    }
+
+    /* Recovers the layer of an object from its tag, as the legacy cache did */
+    private static int layerOfTag(String tag) {
+        switch (tag) {
+            case "top-terrain":
+                return LAYERS[0];
+            case "bottom-terrain":
+                return LAYERS[1];
+            case "leaf":
+                return LAYERS[2];
+            default:
+                return LAYERS[3];
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package pepse.bench;
+
+import pepse.util.SplitMix;
+import pepse.world.Block;
+import pepse.world.trees.Tree;
+
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Benchmarks the random draws behind tree generation: the per-column draws of the previous generator
+ * (a new Random seeded by Objects.hash for every column) against SplitMix draws, and planning the trees of
+ * whole ranges of columns, as the WorldPlanner does for every range it plans.
+ */
+public class TreePlanningBenchmark {
+
+    /* Constants */
+    private static final int SEED = 6;
+    private static final int RANGE_COLUMNS = 64;
+    private static final int DRAWS_PER_COLUMN = 8;
+    private static final int BOUND = 25;
+
+    /* Private members */
+    private static long sink;  // consumes draws so they can't be optimized away
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        BenchmarkRunner.run("Random + Objects.hash, " + RANGE_COLUMNS + " columns", i -> {
+            for (int column = 0; column < RANGE_COLUMNS; column++) {
+                Random random = new Random(Objects.hash((i * RANGE_COLUMNS + column) * Block.SIZE, SEED));
+                for (int draw = 0; draw < DRAWS_PER_COLUMN; draw++) {
+                    sink += random.nextInt(BOUND);
+                }
+            }
+        });
+        BenchmarkRunner.run("SplitMix, " + RANGE_COLUMNS + " columns", i -> {
+            for (int column = 0; column < RANGE_COLUMNS; column++) {
+                long stream = SplitMix.stream(SEED, (i * RANGE_COLUMNS + column) * Block.SIZE);
+                for (int draw = 0; draw < DRAWS_PER_COLUMN; draw++) {
+                    sink += SplitMix.nextInt(stream, draw, BOUND);
+                }
+            }
+        });
+        Tree trees = new Tree(null, 0, SEED);
+        BenchmarkRunner.run("tree planning, " + RANGE_COLUMNS + " columns", i -> {
+            for (int column = 0; column < RANGE_COLUMNS; column++) {
+                if (trees.planTree((i * RANGE_COLUMNS + column) * Block.SIZE, 600) != null) {
+                    sink++;
+                }
+            }
+        });
+    }
+}
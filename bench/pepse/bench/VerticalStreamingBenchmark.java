@@ -0,0 +1,57 @@
+package pepse.bench;
+
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessInputListener;
+import pepse.headless.HeadlessSimulation;
+import java.awt.event.KeyEvent;
+
+/**
+ * Compares columns created whole, with terrain at a fixed depth, with columns created only in the tiles
+ * around the camera, in both column layouts. Reports the number of world objects with the avatar on the
+ * ground and high up in the air, and the frame time while the avatar flies up and falls back down, moving
+ * the camera along.
+ */
+public class VerticalStreamingBenchmark {
+
+    /* Constants */
+    private static final float DELTA_TIME = 1f / 60;
+    private static final int FLIGHT_FRAMES = 120;
+    private static final int LEG_FRAMES = 60;  // frames between flying up and falling down
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        benchmarkStreaming("per-block columns, whole", false, false);
+        benchmarkStreaming("per-block columns, streamed vertically", false, true);
+        benchmarkStreaming("merged columns, whole", true, false);
+        benchmarkStreaming("merged columns, streamed vertically", true, true);
+    }
+
+    /* Benchmarks the world with the given column layout, with or without vertical streaming */
+    private static void benchmarkStreaming(String name, boolean mergedColumns, boolean verticalStreaming) {
+        PepseGameManager game = new PepseGameManager();
+        game.setMergedColumns(mergedColumns);
+        game.setVerticalStreaming(verticalStreaming);
+        HeadlessSimulation simulation = new HeadlessSimulation(game);
+        HeadlessInputListener input = simulation.getInputListener();
+        int onGround = game.getCachedObjectCount();
+        input.press(KeyEvent.VK_SPACE);
+        input.press(KeyEvent.VK_SHIFT);
+        simulation.run(FLIGHT_FRAMES, DELTA_TIME);
+        System.out.printf("%s: %d world objects on the ground, %d in the air%n", name, onGround,
+                game.getCachedObjectCount());
+        BenchmarkRunner.run("frame, flying up and down, " + name, i -> {
+            if (i % LEG_FRAMES == 0) {
+                if (i / LEG_FRAMES % 2 == 0) {
+                    input.release(KeyEvent.VK_SPACE);
+                } else {
+                    input.press(KeyEvent.VK_SPACE);
+                }
+            }
+            simulation.step(DELTA_TIME);
+        });
+        game.getPrefetcher().shutdown();
+    }
+}
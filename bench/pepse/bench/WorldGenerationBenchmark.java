@@ -0,0 +1,39 @@
+package pepse.bench;
+
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessSimulation;
+import pepse.world.Block;
+
+/**
+ * Benchmarks generation and eviction of single world columns. Columns are generated just right of the
+ * materialized window of a game that is never stepped, so they never interfere with the columns the game
+ * itself maintains.
+ */
+public class WorldGenerationBenchmark {
+
+    /* Constants */
+    private static final int BENCHMARKED_COLUMNS = 8;
+
+    /**
+     * Runs the benchmarks.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        PepseGameManager game = new HeadlessSimulation().getGameManager();
+        // Time the generation only; the column is evicted in the untimed setup
+        BenchmarkRunner.run("column generation",
+                i -> game.collectGarbage(columnX(game, i)),
+                i -> game.generateWorld(columnX(game, i), columnX(game, i) + Block.SIZE));
+        // Time the eviction only; the evicted column is generated in the untimed setup
+        PepseGameManager evictionGame = new HeadlessSimulation().getGameManager();
+        BenchmarkRunner.run("column eviction",
+                i -> evictionGame.generateWorld(columnX(evictionGame, i),
+                        columnX(evictionGame, i) + Block.SIZE),
+                i -> evictionGame.collectGarbage(columnX(evictionGame, i)));
+    }
+
+    /* Returns the x value of the i-th benchmarked column */
+    private static int columnX(PepseGameManager game, int i) {
+        return game.getRightRange() + (i % BENCHMARKED_COLUMNS) * Block.SIZE;
+    }
+}
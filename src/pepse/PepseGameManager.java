@@ -3,25 +3,56 @@ package pepse;
 import danogl.GameManager;
 import danogl.GameObject;
 import danogl.collisions.Layer;
+import danogl.components.CoordinateSpace;
 import danogl.gui.ImageReader;
 import danogl.gui.SoundReader;
 import danogl.gui.UserInputListener;
 import danogl.gui.WindowController;
 import danogl.gui.rendering.Camera;
+import danogl.gui.rendering.TextRenderable;
 import danogl.util.Vector2;
+import pepse.bots.Bot;
+import pepse.replay.InputRecording;
+import pepse.replay.ReplayInputListener;
+import pepse.save.WorldSnapshot;
+import pepse.stats.FrameProfiler;
+import pepse.stats.FrameTrace;
+import pepse.stats.WorldStats;
+import pepse.util.AssetManager;
+import pepse.util.ObjectPool;
 import pepse.world.Avatar;
 import pepse.world.Block;
+import pepse.world.ColumnEdits;
+import pepse.world.ColumnPlan;
+import pepse.world.ColumnPrefetcher;
+import pepse.world.ColumnRefCounts;
+import pepse.world.HeightFunction;
+import pepse.world.MovementResolver;
+import pepse.world.Neighborhood;
 import pepse.world.Sky;
 import pepse.world.Terrain;
+import pepse.world.TileProducer;
+import pepse.world.TileStore;
+import pepse.world.WorldPlanner;
+import pepse.world.daynight.DayNightCycle;
 import pepse.world.daynight.Night;
 import pepse.world.daynight.Sun;
 import pepse.world.daynight.SunHalo;
+import pepse.world.trees.Leaf;
+import pepse.world.trees.LeafSystem;
 import pepse.world.trees.Tree;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
+import java.util.function.ObjIntConsumer;
 import java.awt.*;
+import java.awt.event.KeyEvent;
 
 /**
  * A generic game simulator.
@@ -40,15 +71,48 @@ public class PepseGameManager extends GameManager {
     private static final int TRUNK_LAYER = LEAF_LAYER - 1;
     private static final int NIGHT_LAYER = Layer.FOREGROUND;
     private static final int AVATAR_LAYER = Layer.DEFAULT;
-    // Tags
-    private static final String TOP_TERRAIN_TAG = "top-terrain";
-    private static final String BOTTOM_TERRAIN_TAG = "bottom-terrain";
-    private static final String LEAF_TAG = "leaf";
-    private static final String TRUNK_TAG = "trunk";
     // Other
     private static final int DAY_CYCLE_LENGTH = 30;
     private static final Color SUN_HALO_COLOR = new Color(255, 255, 0, 20);
     private static final int RANGE_BUFFER = -90;
+    private static final boolean MERGE_COLUMN_COLLIDERS = true;  // one object per terrain run and trunk
+    private static final boolean ANALYTIC_LEAF_LANDING = true;  // leaves land on the terrain height
+    private static final boolean RESOLVE_AVATAR_MOVEMENT = true;  // avatar moves by geometry, not colliders
+    private static final boolean PARALLEL_STARTUP = true;  // plan the initial window across cores
+    private static final boolean VERTICAL_STREAMING = true;  // create only the tiles around the view
+    private static final int VERTICAL_MARGIN_ROWS = 4;  // rows kept created above and below the view
+    private static final int INITIAL_TILES_PER_COLUMN = 4;
+    private static final int INITIAL_EDITED_COLUMNS = 64;
+    private static final int COLUMN_STORE_CAPACITY_FACTOR = 2;  // stored columns per column in view
+    private static final int BLOCK_POOL_CAPACITY = 4096;
+    private static final int LEAF_POOL_CAPACITY = 4096;
+    private static final int PREFETCH_CAPACITY = 256;  // column plans kept by the prefetcher
+    // Per-frame budget of world streaming; columns beyond the budget are built in the following frames
+    private static final int MAX_GENERATED_COLUMNS_PER_FRAME = 4;
+    private static final int MAX_EVICTED_COLUMNS_PER_FRAME = 8;
+    private static final long GENERATION_BUDGET_NANOS = 4_000_000;
+    private static final int GENERATION_SAFETY_MARGIN = Block.SIZE;  // columns this close are built at once
+    // World census
+    private static final float CENSUS_INTERVAL = 1;  // seconds between two censuses of the world
+    private static final int DEBUG_OVERLAY_KEY = KeyEvent.VK_F3;
+    private static final int DEBUG_OVERLAY_LAYER = Layer.UI;
+    private static final Vector2 DEBUG_OVERLAY_TOP_LEFT = new Vector2(10, 10);
+    private static final Vector2 DEBUG_OVERLAY_DIMENSIONS = new Vector2(900, 18);
+    // Snapshots
+    private static final int SAVE_SNAPSHOT_KEY = KeyEvent.VK_F5;
+    private static final String SNAPSHOT_PATH = "pepse.snapshot";
+    private static final String RESTORE_ARGUMENT = "--restore";
+    // Recordings and replays
+    private static final String RECORDING_PATH = "pepse.recording";
+    private static final String TRACE_PATH = "pepse-frames.csv";
+    private static final String RECORD_ARGUMENT = "--record";
+    private static final String REPLAY_ARGUMENT = "--replay";
+    private static final String TRACE_ARGUMENT = "--trace";
+    // Profiling
+    private static final int SAVE_PROFILE_KEY = KeyEvent.VK_F6;
+    private static final String PROFILE_PATH = "pepse-profile.csv";
+    private static final String PROFILE_ARGUMENT = "--profile";
+    private static final int REPLAY_FRAMERATE = 1000;  // replays run faster than real time when they can
     // private static final long INITIAL_SEED = 6;  // init this.seed with this constant to test consistency
 
     /* Private members */
@@ -59,15 +123,63 @@ public class PepseGameManager extends GameManager {
     private UserInputListener inputListener;
     private WindowController windowController;
     private ImageReader imageReader;
+    private AssetManager assets;  // shared by all games given the same one
     // Pepse-related members
     private Tree trees;  // a Tree object
-    private Function<Float, Float> getTerrainHeightAtX;  // function to get terrain height at a given x
-    private int leftRange;  // left-most x value at which objects have been created
-    private int rightRange;  // right-most x value at which objects have been created
-    private final int seed = new Random().nextInt();  // seed for all randomness
+    private HeightFunction getTerrainHeightAtX;  // function to get terrain height at a given x
+    // Columns created around the camera and around every bot; a column shared by several is created once
+    private Neighborhood view;  // columns created around the camera
+    private Neighborhood[] neighborhoods;
+    private ColumnRefCounts columnRefs;  // number of neighborhoods every created column is in
+    private int neighborhoodCapacity;  // maximal number of columns in a neighborhood
+    private final List<Bot> bots = new ArrayList<>();
+    private int seed = new Random().nextInt();  // seed for all randomness
     private float avatarAtX;  // last location of the Avatar
-    // Hash table mapping x values to a list of all gameObjects created at x
-    private final HashMap<Integer, ArrayList<GameObject>> cache = new HashMap<>();
+    private float spawnX;  // location at which the Avatar was first created, around which no trees grow
+    private DayNightCycle dayNightCycle;  // the single clock of the sun, its halo, the night and the sky
+    private WorldSnapshot snapshot;  // snapshot to restore the world from, if any
+    private boolean recordInput;
+    private InputRecording recording;  // input of every frame so far, if recorded
+    private InputRecording replayed;  // recording to replay instead of the user's input, if any
+    private ReplayInputListener replay;
+    private FrameTrace frameTrace;  // time taken by every frame, if traced
+    private final FrameProfiler profiler = new FrameProfiler();  // time taken by every subsystem
+    // Tiles recording all gameObjects created at every column, cut vertically into runs of rows
+    private TileStore cache;
+    private TileProducer[] producers;  // create the world a tile at a time
+    private int reachBelowTile;  // rows below its tile that any object created for a tile may reach
+    // Tile rows created at every column, and those created before the rows last moved
+    private int firstTileRow;
+    private int endTileRow;
+    private int previousFirstTileRow;
+    private int previousEndTileRow;
+    private final IntConsumer tileRefresher = this::refreshTiles;
+    private boolean mergedColumns = MERGE_COLUMN_COLLIDERS;
+    private boolean analyticLeafLanding = ANALYTIC_LEAF_LANDING;
+    private boolean resolveAvatarMovement = RESOLVE_AVATAR_MOVEMENT;
+    private boolean parallelStartup = PARALLEL_STARTUP;
+    private boolean verticalStreaming = VERTICAL_STREAMING;
+    private MovementResolver movementResolver;  // trunk extents of all created columns
+    // Player edits to the generated world, kept across the eviction and regeneration of their columns
+    private final ColumnEdits terrainEdits = new ColumnEdits(INITIAL_EDITED_COLUMNS);
+    private final ColumnEdits treeEdits = new ColumnEdits(INITIAL_EDITED_COLUMNS);
+    // Pools of recycled objects; evicted columns are returned to them
+    private ObjectPool<Block> blockPool = new ObjectPool<>(BLOCK_POOL_CAPACITY);
+    private ObjectPool<Leaf> leafPool = new ObjectPool<>(LEAF_POOL_CAPACITY);
+    private LeafSystem leafSystem;  // animates all leaves
+    private final ObjIntConsumer<GameObject> recycler = this::removeAndRecycle;
+    // Plans columns of the world, and upcoming columns in the background, ahead of the avatar
+    private WorldPlanner planner;
+    private ColumnPrefetcher prefetcher;
+    private GameObject avatar;
+    private int pendingColumns;  // columns still waiting to be built after the last frame
+    // World census
+    private WorldStats stats;
+    private long generatedColumns;  // columns generated since the game started
+    private long evictedColumns;  // columns evicted since the game started
+    private float timeSinceCensus;
+    private TextRenderable debugText;
+    private GameObject debugOverlay;  // shows the last census; only in the game while toggled on
 
 
     /* Public methods */  // (Main located below)
@@ -88,15 +200,56 @@ public class PepseGameManager extends GameManager {
         this.windowDimensions = windowController.getWindowDimensions();
         this.inputListener = inputListener;
         this.windowController = windowController;
-        this.avatarAtX = windowDimensions.x() / 2;
+        if (assets == null) {
+            this.assets = new AssetManager(imageReader);
+        }
+        // Decode the Avatar's images while the world is generated
+        Avatar.preloadAssets(assets);
+        this.spawnX = windowDimensions.x() / 2;
+        this.avatarAtX = spawnX;
+        if (snapshot != null) {
+            // Restore the saved world; everything but the dynamic state and the player's edits is
+            // regenerated from the seed
+            this.seed = snapshot.getSeed();
+            this.spawnX = snapshot.getSpawnX();
+            this.avatarAtX = snapshot.getAvatarX();
+            terrainEdits.restoreEdits(snapshot.getTerrainEdits());
+            treeEdits.restoreEdits(snapshot.getTreeEdits());
+        }
+        if (replayed != null) {
+            // Replay the recorded run, as fast as frames can be run
+            this.seed = replayed.getSeed();
+            this.replay = new ReplayInputListener(replayed);
+            this.inputListener = replay;
+            windowController.setTargetFramerate(REPLAY_FRAMERATE);
+        } else if (recordInput) {
+            this.recording = new InputRecording(seed);
+        }
         // Create the various objects that the simulator consists of
         computeRanges();
-        createSky();
+        this.neighborhoodCapacity = COLUMN_STORE_CAPACITY_FACTOR * view.getColumnCount();
+        int columnCapacity = neighborhoodCapacity * (1 + bots.size());
+        this.cache = new TileStore(columnCapacity * INITIAL_TILES_PER_COLUMN);
+        this.columnRefs = new ColumnRefCounts(columnCapacity);
+        GameObject sky = createSky();
         createTerrain();
-        createNight();
-        createSunHalo(createSun());
+        createDayNightCycle(sky);
         createTrees();
+        if (snapshot != null) {
+            leafSystem.restoreStates(snapshot.getLeafStates());
+        }
+        this.planner = new WorldPlanner(terrain, trees);
+        this.prefetcher = new ColumnPrefetcher(planner, PREFETCH_CAPACITY);
+        this.movementResolver = new MovementResolver(getTerrainHeightAtX, terrain, trees, columnCapacity);
+        createProducers();
+        generateInitialWorld();
         createAvatar();
+        createBots();
+        if (snapshot != null) {
+            restoreAvatar();
+            leafSystem.clearRestoredStates();
+        }
+        createStats();
     }
 
     /**
@@ -105,129 +258,867 @@ public class PepseGameManager extends GameManager {
      */
     @Override
     public void update(float deltaTime) {
+        long frameStart = System.nanoTime();
+        profiler.beginFrame();
+        if (replay != null) {
+            if (replay.isFinished()) {
+                windowController.closeWindow();
+                return;
+            }
+            // Run the recorded frame, however long this one actually took
+            deltaTime = replay.nextFrame();
+        } else if (recording != null) {
+            recording.addFrame(deltaTime, inputListener);
+        }
+        long lap = frameStart;
+        for (Bot bot : bots) {
+            bot.update(deltaTime);
+        }
+        lap = profiler.lap(FrameProfiler.Subsystem.BOTS, lap);
+        // Animate all leaves before the objects are updated, like their components used to be, at a level
+        // of detail set by what is in view
+        float viewMaxX = camera().screenToWorldCoords(windowDimensions).x();
+        leafSystem.update(deltaTime, viewMaxX - windowDimensions.x(), viewMaxX, avatar.getCenter().x());
+        lap = profiler.lap(FrameProfiler.Subsystem.LEAVES, lap);
+        dayNightCycle.update(deltaTime);
         super.update(deltaTime);
-        // Dynamically update the world as the avatar progresses through it
-        float actualRightBorder = camera().screenToWorldCoords(windowDimensions).x();
-        float actualLeftBorder = camera().screenToWorldCoords(windowDimensions).x() - windowDimensions.x();
-        while (actualRightBorder - rightRange > RANGE_BUFFER) {
+        lap = profiler.lap(FrameProfiler.Subsystem.OBJECTS, lap);
+        if (inputListener.wasKeyPressedThisFrame(SAVE_SNAPSHOT_KEY)) {
+            saveSnapshot(Paths.get(SNAPSHOT_PATH)).exceptionally(e -> {
+                System.err.println("Could not save " + SNAPSHOT_PATH + ": " + e.getMessage());
+                return null;
+            });
+        }
+        if (inputListener.wasKeyPressedThisFrame(SAVE_PROFILE_KEY)) {
+            profiler.writeCsvAsync(Paths.get(PROFILE_PATH)).exceptionally(e -> {
+                System.err.println("Could not save " + PROFILE_PATH + ": " + e.getMessage());
+                return null;
+            });
+        }
+        // Dynamically update the world as the avatar and the bots progress through it
+        lap = System.nanoTime();
+        streamWorld();
+        lap = profiler.lap(FrameProfiler.Subsystem.STREAMING, lap);
+        // Plan the columns ahead of the avatar before they are needed
+        prefetcher.prefetch(view.getLeft(), view.getRight(), avatar.getVelocity().x());
+        lap = profiler.lap(FrameProfiler.Subsystem.PREFETCH, lap);
+        updateStats(deltaTime);
+        profiler.lap(FrameProfiler.Subsystem.STATS, lap);
+        profiler.endFrame(frameStart);
+        if (frameTrace != null) {
+            frameTrace.record(deltaTime, System.nanoTime() - frameStart);
+        }
+    }
+
+    /**
+     * Sets the seed of the world. Must be called before initializeGame.
+     * @param seed Seed for all randomness.
+     */
+    public void setSeed(int seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @return Seed of the world.
+     */
+    public int getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets a snapshot to restore the world from, instead of creating a new one. Only the window around the
+     * saved avatar position is created. Must be called before initializeGame.
+     * @param snapshot The snapshot, as read by WorldSnapshot.read.
+     */
+    public void setSnapshot(WorldSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Takes a snapshot of the world and writes it to a file. The snapshot is taken at once, and written in
+     * the background without blocking the game thread.
+     * @param path Path of the file.
+     * @return A future completed once the snapshot is written.
+     */
+    public CompletableFuture<Void> saveSnapshot(Path path) {
+        return takeSnapshot().write(path);
+    }
+
+    /**
+     * @return A snapshot of the current state of the world.
+     */
+    public WorldSnapshot takeSnapshot() {
+        Avatar avatar = (Avatar) this.avatar;
+        return new WorldSnapshot(seed, spawnX, dayNightCycle.getTime(), avatar.getTopLeftCorner().x(),
+                avatar.getTopLeftCorner().y(), avatar.getVelocity().x(), avatar.getVelocity().y(),
+                avatar.getEnergy(), terrainEdits.saveEdits(), treeEdits.saveEdits(), leafSystem.saveStates());
+    }
+
+    /**
+     * Sets whether the input of every frame is recorded, along with the seed, so the run can be replayed.
+     * Must be called before initializeGame.
+     * @param recordInput Whether to record the input.
+     */
+    public void setRecordInput(boolean recordInput) {
+        this.recordInput = recordInput;
+    }
+
+    /**
+     * @return The input recorded so far, or null if input isn't recorded.
+     */
+    public InputRecording getRecording() {
+        return recording;
+    }
+
+    /**
+     * Sets a recording to replay instead of taking the user's input. The recorded world is created, every
+     * frame runs the recorded time step with the recorded keys held, and the window closes once all frames
+     * were replayed. A run restored from a snapshot is replayed by setting the same snapshot. Must be called
+     * before initializeGame.
+     * @param replayed The recording, as read by InputRecording.read.
+     */
+    public void setReplay(InputRecording replayed) {
+        this.replayed = replayed;
+    }
+
+    /**
+     * @return Whether a replay was set and all of its frames were replayed.
+     */
+    public boolean isReplayFinished() {
+        return replay != null && replay.isFinished();
+    }
+
+    /**
+     * Sets a trace recording the time every following frame takes to update.
+     * @param frameTrace The trace, or null to stop tracing.
+     */
+    public void setFrameTrace(FrameTrace frameTrace) {
+        this.frameTrace = frameTrace;
+    }
+
+    /**
+     * @return Profiler timing the subsystems of every frame.
+     */
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Sets whether terrain runs and tree trunks are created as single merged objects per column, or as one
+     * Block per row. Must be called before initializeGame.
+     * @param mergedColumns Whether to merge columns.
+     */
+    public void setMergedColumns(boolean mergedColumns) {
+        this.mergedColumns = mergedColumns;
+    }
+
+    /**
+     * Sets whether the world streams vertically as well: columns are created only in the tiles around the
+     * views of the camera and of the bots, tiles are added and removed as the views move up and down, and
+     * terrain goes down without end. Otherwise, every column is created whole, with terrain at a fixed depth
+     * below the ground. Must be called before initializeGame.
+     * @param verticalStreaming Whether the world streams vertically.
+     */
+    public void setVerticalStreaming(boolean verticalStreaming) {
+        this.verticalStreaming = verticalStreaming;
+    }
+
+    /**
+     * Sets whether falling leaves land by comparing their position with the terrain height, or by colliding
+     * with the top terrain layer. Must be called before initializeGame.
+     * @param analyticLeafLanding Whether leaves land analytically.
+     */
+    public void setAnalyticLeafLanding(boolean analyticLeafLanding) {
+        this.analyticLeafLanding = analyticLeafLanding;
+    }
+
+    /**
+     * Sets whether the avatar moves by resolving its movement against the terrain heightfield and the tree
+     * trunks, or by colliding with the terrain and trunk layers. Must be called before initializeGame.
+     * @param resolveAvatarMovement Whether to resolve the avatar's movement.
+     */
+    public void setResolveAvatarMovement(boolean resolveAvatarMovement) {
+        this.resolveAvatarMovement = resolveAvatarMovement;
+    }
+
+    /**
+     * Sets whether the columns of the initial window are planned in parallel before they are created, or
+     * planned and created one by one. The created world is identical either way. Must be called before
+     * initializeGame.
+     * @param parallelStartup Whether to plan the initial window in parallel.
+     */
+    public void setParallelStartup(boolean parallelStartup) {
+        this.parallelStartup = parallelStartup;
+    }
+
+    /**
+     * Sets the assets the game loads its images from, so that several games share the images they load.
+     * By default, every game loads its own. Must be called before initializeGame.
+     * @param assets The assets.
+     */
+    public void setAssetManager(AssetManager assets) {
+        this.assets = assets;
+    }
+
+    /**
+     * @return The assets the game loads its images from.
+     */
+    public AssetManager getAssetManager() {
+        return assets;
+    }
+
+    /**
+     * Adds a bot, driving an avatar of its own through the world next to the player's. The world is
+     * created around every bot as around the camera. Must be called before initializeGame.
+     * @param bot The bot.
+     */
+    public void addBot(Bot bot) {
+        bots.add(bot);
+    }
+
+    /**
+     * @return All bots of the game, each driving its avatar once the game is initialized.
+     */
+    public List<Bot> getBots() {
+        return Collections.unmodifiableList(bots);
+    }
+
+    /**
+     * Sets the maximal number of recycled Blocks and Leaves kept for reuse. Must be called before
+     * initializeGame.
+     * @param capacity Maximal number of pooled objects of each kind.
+     */
+    public void setPoolCapacity(int capacity) {
+        this.blockPool = new ObjectPool<>(capacity);
+        this.leafPool = new ObjectPool<>(capacity);
+    }
+
+    /**
+     * @return Pool of recycled terrain and trunk Blocks.
+     */
+    public ObjectPool<Block> getBlockPool() {
+        return blockPool;
+    }
+
+    /**
+     * @return Pool of recycled Leaves.
+     */
+    public ObjectPool<Leaf> getLeafPool() {
+        return leafPool;
+    }
+
+    /**
+     * @return Number of GameObjects currently recorded in the cache, i.e. all terrain and tree objects.
+     */
+    public int getCachedObjectCount() {
+        return cache.getObjectCount();
+    }
+
+    /**
+     * Visits all GameObjects created at a column, without removing them. Exposed for headless drivers and
+     * checks.
+     * @param x The x value of the column.
+     * @param visitor Called with every GameObject and its layer.
+     */
+    public void forEachObjectInColumn(int x, ObjIntConsumer<GameObject> visitor) {
+        for (int tileRow = firstTileRow; tileRow < endTileRow; tileRow++) {
+            cache.forEach(x, tileRow, visitor);
+        }
+    }
+
+    /**
+     * Edits the terrain, keeping the edit across the eviction and regeneration of its column. The tile of
+     * the edit is created anew at once if its column is in the world.
+     * @param x The x value of the column. Must be a multiple of Block.SIZE.
+     * @param row The grid row of the edit, as returned by Terrain.rowAt.
+     * @param value ColumnEdits.REMOVED to remove the Block at the row, the palette index of the color of a
+     *              Block to place at the row, as returned by Terrain.colorAt, or ColumnEdits.NONE to have
+     *              the row generated again.
+     */
+    public void editTerrain(int x, int row, int value) {
+        edit(terrainEdits, x, row, value);
+        recreateTile(terrain, x, Math.floorDiv(row, TileStore.ROWS));
+    }
+
+    /**
+     * Edits a tree, keeping the edit across the eviction and regeneration of its column. The tree is
+     * created anew at once if its column is in the world.
+     * @param x The x value of the tree's column. Must be a multiple of Block.SIZE.
+     * @param cell The edited leaf or trunk Block, as returned by Tree.leafCell or Tree.trunkCell.
+     * @param value ColumnEdits.REMOVED to remove the leaf or trunk Block, or ColumnEdits.NONE to have it
+     *              generated again.
+     */
+    public void editTree(int x, int cell, int value) {
+        edit(treeEdits, x, cell, value);
+        if (prefetcher != null) {
+            recreateTile(trees, x, trees.firstTileRowOf(prefetcher.planOf(x)));
+        }
+    }
+
+    /**
+     * @return Player edits to the terrain.
+     */
+    public ColumnEdits getTerrainEdits() {
+        return terrainEdits;
+    }
+
+    /**
+     * @return Player edits to the trees.
+     */
+    public ColumnEdits getTreeEdits() {
+        return treeEdits;
+    }
+
+    /**
+     * @return Prefetcher planning upcoming columns of the world.
+     */
+    public ColumnPrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    /**
+     * @return The avatar.
+     */
+    public GameObject getAvatar() {
+        return avatar;
+    }
+
+    /**
+     * @return Terrain of the world.
+     */
+    public Terrain getTerrain() {
+        return terrain;
+    }
+
+    /**
+     * @return The system animating all leaves.
+     */
+    public LeafSystem getLeafSystem() {
+        return leafSystem;
+    }
+
+    /**
+     * @return The day/night cycle, through which the time of day can be read or set.
+     */
+    public DayNightCycle getDayNightCycle() {
+        return dayNightCycle;
+    }
+
+    /**
+     * @return The live world census, also exposed over JMX.
+     */
+    public WorldStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return Number of columns that were due but still waited to be built at the end of the last frame.
+     */
+    public int getPendingColumns() {
+        return pendingColumns;
+    }
+
+    /**
+     * @return Left-most x value at which objects have been created around the camera.
+     */
+    public int getLeftRange() {
+        return view.getLeft();
+    }
+
+    /**
+     * @return Right-most x value at which objects have been created around the camera.
+     */
+    public int getRightRange() {
+        return view.getRight();
+    }
+
+    /**
+     * Generates a new segment of the world in a given range. Exposed for headless drivers and benchmarks;
+     * update calls this as the avatar progresses through the world.
+     * @param minX The left-most x value of the range.
+     * @param maxX The right-most x value of the range. Rounded up so the range is a multiple of Block.SIZE.
+     */
+    public void generateWorld(int minX, int maxX) {
+        if (((maxX - minX) % Block.SIZE) != 0) {
+            maxX += Block.SIZE - ((maxX - minX) % Block.SIZE);
+        }
+        for (int x = minX; x < maxX; x += Block.SIZE) {
+            createColumn(prefetcher.planOf(x));
+        }
+    }
+
+    /**
+     * Removes all GameObjects at a given x, returning them to the pools. Exposed for headless drivers and
+     * benchmarks; update calls this for columns that are no longer in view.
+     * @param x The x value of the column to remove.
+     */
+    public void collectGarbage(int x) {
+        long start = System.nanoTime();
+        for (int tileRow = firstTileRow; tileRow < endTileRow; tileRow++) {
+            cache.evict(x, tileRow, recycler);
+        }
+        movementResolver.forgetColumn(x);
+        evictedColumns++;
+        profiler.lapColumn(FrameProfiler.Subsystem.EVICTION, start);
+    }
+
+    /* Private methods */
+
+    /* Creates the initial window: all columns are planned in parallel, then created on this thread, since
+    GameObjects may only be added to the game on the game thread */
+    private void generateInitialWorld() {
+        if (parallelStartup) {
+            for (ColumnPlan plan : planner.planRange(view.getLeft(), view.getRight())) {
+                createColumn(plan);
+            }
+        } else {
+            generateWorld(view.getLeft(), view.getRight());
+        }
+        for (int x = view.getLeft(); x < view.getRight(); x += Block.SIZE) {
+            columnRefs.retain(x);
+        }
+    }
+
+    /* Creates the GameObjects of a planned column */
+    private void createColumn(ColumnPlan plan) {
+        long start = System.nanoTime();
+        createTiles(plan, firstTileRow, endTileRow);
+        movementResolver.recordColumn(plan);
+        generatedColumns++;
+        profiler.lapColumn(FrameProfiler.Subsystem.GENERATION, start);
+    }
+
+    /* Records an edit, or forgets the edit of the cell if the value is NONE */
+    private static void edit(ColumnEdits edits, int x, int cell, int value) {
+        if (value == ColumnEdits.NONE) {
+            edits.clear(x, cell);
+        } else {
+            edits.set(x, cell, value);
+        }
+    }
+
+    /* Records the edited extent of a created column for movement, after an edit within one of its tiles, and
+    if the tile is created, evicts the objects the producer created in it and has the producer create them
+    again. The objects of other producers in the tile are kept as they are. Does nothing if the column isn't
+    created */
+    private void recreateTile(TileProducer producer, int x, int tileRow) {
+        if (columnRefs == null || columnRefs.countOf(x) == 0) {
+            return;
+        }
+        ColumnPlan plan = prefetcher.planOf(x);
+        movementResolver.recordColumn(plan);
+        if (tileRow < firstTileRow || tileRow >= endTileRow) {
+            return;
+        }
+        cache.evict(x, tileRow, producer::createsOnLayer, recycler);
+        if (tileRow >= producer.firstTileRowOf(plan) && tileRow < producer.endTileRowOf(plan)) {
+            producer.createTile(plan, tileRow);
+        }
+    }
+
+    /* Creates the objects of a planned column within the given tile rows, by every producer */
+    private void createTiles(ColumnPlan plan, int fromTileRow, int toTileRow) {
+        for (TileProducer producer : producers) {
+            int start = Math.max(fromTileRow, producer.firstTileRowOf(plan));
+            int end = Math.min(toTileRow, producer.endTileRowOf(plan));
+            for (int tileRow = start; tileRow < end; tileRow++) {
+                producer.createTile(plan, tileRow);
+            }
+        }
+    }
+
+    /* Moves the tile rows created at every column to those around a vertical range in view, once the range
+    is no longer covered by them, or they are more than a tile off. Tiles are then evicted and created at all
+    created columns at once */
+    private void streamVertically(float viewTop, float viewBottom) {
+        // Objects reach down from their tile, so keep tiles further up
+        int first = TileStore.tileRowOf(viewTop - (VERTICAL_MARGIN_ROWS + reachBelowTile) * Block.SIZE);
+        int end = TileStore.tileRowOf(viewBottom + VERTICAL_MARGIN_ROWS * Block.SIZE) + 1;
+        if (firstTileRow <= first && endTileRow >= end && firstTileRow >= first - 1 && endTileRow <= end + 1) {
+            return;
+        }
+        this.previousFirstTileRow = firstTileRow;
+        this.previousEndTileRow = endTileRow;
+        this.firstTileRow = first;
+        this.endTileRow = end;
+        columnRefs.forEach(tileRefresher);
+    }
+
+    /* Brings a created column to the current tile rows: evicts its tiles outside them, and creates the
+    tiles that weren't created yet */
+    private void refreshTiles(int x) {
+        for (int tileRow = previousFirstTileRow; tileRow < previousEndTileRow; tileRow++) {
+            if (tileRow < firstTileRow || tileRow >= endTileRow) {
+                cache.evict(x, tileRow, recycler);
+            }
+        }
+        ColumnPlan plan = prefetcher.planOf(x);
+        createTiles(plan, firstTileRow, Math.min(endTileRow, previousFirstTileRow));
+        createTiles(plan, Math.max(firstTileRow, previousEndTileRow), endTileRow);
+    }
+
+    /* Generates and evicts columns so the created ranges follow the camera and the bots. Generation and
+    eviction are spread over several frames by a per-frame budget, except for columns at the visible edges
+    of every neighborhood, which are always generated at once so that no gap is ever seen */
+    private void streamWorld() {
+        Vector2 viewMax = camera().screenToWorldCoords(windowDimensions);
+        view.setVisible(viewMax.x() - windowDimensions.x(), viewMax.x());
+        if (verticalStreaming) {
+            // Cover the views of the camera and of every bot
+            float viewTop = viewMax.y() - windowDimensions.y();
+            float viewBottom = viewMax.y();
+            for (Bot bot : bots) {
+                float botY = bot.getAvatar().getCenter().y();
+                viewTop = Math.min(viewTop, botY - windowDimensions.y() / 2);
+                viewBottom = Math.max(viewBottom, botY + windowDimensions.y() / 2);
+            }
+            streamVertically(viewTop, viewBottom);
+        }
+        for (int i = 0; i < bots.size(); i++) {
+            float botX = bots.get(i).getAvatar().getCenter().x();
+            neighborhoods[i + 1].setVisible(botX - windowDimensions.x() / 2, botX + windowDimensions.x() / 2);
+        }
+        for (Neighborhood neighborhood : neighborhoods) {
+            if (neighborhood.isDisjointFromWanted()) {
+                // Moved more than a whole range at once; start over from the middle of the window
+                recenterRange(neighborhood, Block.gridIndexOf((neighborhood.getVisibleLeft() +
+                        neighborhood.getVisibleRight()) / 2) * Block.SIZE);
+            }
+        }
+        // Grow the neighborhoods a column at a time in turn, so that no neighborhood starves the others.
+        // Recorded and replayed runs keep to the column budget alone, since a leaf's life cycle starts on
+        // the frame its column is built, which would otherwise depend on the speed of the machine
+        boolean timeBudgeted = replay == null && recording == null;
+        long deadline = System.nanoTime() + GENERATION_BUDGET_NANOS;
+        long generatedBefore = generatedColumns;
+        boolean grown = true;
+        while (grown) {
+            grown = false;
+            for (Neighborhood neighborhood : neighborhoods) {
+                boolean withinBudget = generatedColumns - generatedBefore < MAX_GENERATED_COLUMNS_PER_FRAME &&
+                        (!timeBudgeted || System.nanoTime() < deadline);
+                grown |= growRange(neighborhood, withinBudget);
+            }
+        }
+        // Shrink the neighborhoods that are no longer needed, evicting within the budget
+        long evictedBefore = evictedColumns;
+        boolean shrunk = true;
+        while (shrunk && evictedColumns - evictedBefore < MAX_EVICTED_COLUMNS_PER_FRAME) {
+            shrunk = false;
+            for (Neighborhood neighborhood : neighborhoods) {
+                if (evictedColumns - evictedBefore < MAX_EVICTED_COLUMNS_PER_FRAME) {
+                    shrunk |= shrinkRange(neighborhood);
+                }
+            }
+        }
+        int pending = 0;
+        for (Neighborhood neighborhood : neighborhoods) {
+            pending += neighborhood.getPendingColumns();
+        }
+        this.pendingColumns = pending;
+    }
+
+    /* Grows a neighborhood by a column towards its wanted range, if within the budget or if the column is at
+    the visible edge. Returns whether it grew */
+    private boolean growRange(Neighborhood neighborhood, boolean withinBudget) {
+        int left = neighborhood.getLeft();
+        int right = neighborhood.getRight();
+        if (right < neighborhood.getWantedRight() &&
+                (withinBudget || right < neighborhood.getVisibleRight() + GENERATION_SAFETY_MARGIN)) {
             // moved right
-            generateWorld(rightRange, rightRange + Block.SIZE);
-            collectGarbage(leftRange);
-            this.leftRange += Block.SIZE;
-            this.rightRange += Block.SIZE;
+            makeRoomForColumn(neighborhood, true);
+            retainColumn(right);
+            neighborhood.setRange(neighborhood.getLeft(), right + Block.SIZE);
+            return true;
         }
-        while (leftRange - actualLeftBorder > RANGE_BUFFER) {
+        if (left > neighborhood.getWantedLeft() &&
+                (withinBudget || left > neighborhood.getVisibleLeft() - GENERATION_SAFETY_MARGIN)) {
             // moved left
-            generateWorld(leftRange - Block.SIZE, leftRange);
-            collectGarbage(rightRange - Block.SIZE);
-            this.leftRange -= Block.SIZE;
-            this.rightRange -= Block.SIZE;
+            makeRoomForColumn(neighborhood, false);
+            retainColumn(left - Block.SIZE);
+            neighborhood.setRange(left - Block.SIZE, neighborhood.getRight());
+            return true;
         }
+        return false;
     }
 
-    /* Private methods */
+    /* Shrinks a neighborhood by a column outside its wanted range, if there is one. Returns whether it
+    shrank */
+    private boolean shrinkRange(Neighborhood neighborhood) {
+        int left = neighborhood.getLeft();
+        int right = neighborhood.getRight();
+        if (left < neighborhood.getWantedLeft()) {
+            releaseColumn(left);
+            neighborhood.setRange(left + Block.SIZE, right);
+            return true;
+        }
+        if (right > neighborhood.getWantedRight()) {
+            releaseColumn(right - Block.SIZE);
+            neighborhood.setRange(left, right - Block.SIZE);
+            return true;
+        }
+        return false;
+    }
+
+    /* Shrinks a neighborhood from the side opposite to a new column if it has no room for the new one */
+    private void makeRoomForColumn(Neighborhood neighborhood, boolean growingRight) {
+        if (neighborhood.getColumnCount() < neighborhoodCapacity) {
+            return;
+        }
+        int left = neighborhood.getLeft();
+        int right = neighborhood.getRight();
+        if (growingRight) {
+            releaseColumn(left);
+            neighborhood.setRange(left + Block.SIZE, right);
+        } else {
+            releaseColumn(right - Block.SIZE);
+            neighborhood.setRange(left, right - Block.SIZE);
+        }
+    }
+
+    /* Releases all columns of a neighborhood and restarts it, empty, at the given x */
+    private void recenterRange(Neighborhood neighborhood, int x) {
+        for (int column = neighborhood.getLeft(); column < neighborhood.getRight(); column += Block.SIZE) {
+            releaseColumn(column);
+        }
+        neighborhood.setRange(x, x);
+    }
+
+    /* Adds a column to a neighborhood, creating it unless another neighborhood already did */
+    private void retainColumn(int x) {
+        if (columnRefs.retain(x) == 1) {
+            generateWorld(x, x + Block.SIZE);
+        }
+    }
+
+    /* Removes a column from a neighborhood, evicting it once no neighborhood has it */
+    private void releaseColumn(int x) {
+        if (columnRefs.release(x) == 0) {
+            collectGarbage(x);
+        }
+    }
+
+    /* Takes a census of the world about once per second, and toggles the debug overlay showing it */
+    private void updateStats(float deltaTime) {
+        timeSinceCensus += deltaTime;
+        if (timeSinceCensus >= CENSUS_INTERVAL) {
+            stats.takeCensus(gameObjects(), cache, generatedColumns, evictedColumns, pendingColumns,
+                    timeSinceCensus);
+            this.timeSinceCensus = 0;
+            debugText.setString(stats.summary());
+        }
+        if (inputListener.wasKeyPressedThisFrame(DEBUG_OVERLAY_KEY)) {
+            if (debugOverlay == null) {
+                this.debugOverlay = new GameObject(DEBUG_OVERLAY_TOP_LEFT, DEBUG_OVERLAY_DIMENSIONS,
+                        debugText);
+                debugOverlay.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+                gameObjects().addGameObject(debugOverlay, DEBUG_OVERLAY_LAYER);
+            } else {
+                gameObjects().removeGameObject(debugOverlay, DEBUG_OVERLAY_LAYER);
+                this.debugOverlay = null;
+            }
+        }
+    }
+
+    /* Creates the world census, registers it over JMX and takes a first census */
+    private void createStats() {
+        this.stats = new WorldStats(SKY_LAYER, TOP_TERRAIN_LAYER, BOTTOM_TERRAIN_LAYER, TRUNK_LAYER,
+                LEAF_LAYER, AVATAR_LAYER);
+        stats.register();
+        stats.takeCensus(gameObjects(), cache, generatedColumns, evictedColumns, pendingColumns, 0);
+        this.debugText = new TextRenderable(stats.summary());
+    }
+
+    /* Removes an evicted GameObject from its layer and returns it to its pool */
+    private void removeAndRecycle(GameObject gameObject, int layer) {
+        gameObjects().removeGameObject(gameObject, layer);
+        if (gameObject instanceof Leaf) {
+            leafSystem.remove((Leaf) gameObject);
+            leafPool.release((Leaf) gameObject);
+        } else if (gameObject instanceof Block) {
+            blockPool.release((Block) gameObject);
+        }
+    }
 
     /* Computes the initial left and right ranges in which to create objects. The difference will be a
     multiple of Block.SIZE */
     private void computeRanges() {
-        int left = RANGE_BUFFER;
-        int right = (int) windowDimensions.x() - RANGE_BUFFER;
+        // Center the range on the Avatar, aligned to whole columns
+        int left = Block.gridIndexOf(avatarAtX - windowDimensions.x() / 2 + RANGE_BUFFER) * Block.SIZE;
+        int right = left + (int) windowDimensions.x() - 2 * RANGE_BUFFER;
         if ((right - left) % Block.SIZE != 0) {
             right += Block.SIZE - ((right - left) % Block.SIZE);
         }
-        this.leftRange = left;
-        this.rightRange = right;
+        this.view = new Neighborhood(RANGE_BUFFER);
+        view.setRange(left, right);
     }
 
     /* Creates a Sky */
-    private void createSky() {
-        GameObject sky = Sky.create(gameObjects(), windowDimensions, SKY_LAYER);
+    private GameObject createSky() {
+        return Sky.create(gameObjects(), windowDimensions, SKY_LAYER);
     }
 
-    /* Creates the initial terrain upon booting */
+    /* Creates the terrain upon booting */
     private void createTerrain() {
         this.terrain = new Terrain(gameObjects(), BOTTOM_TERRAIN_LAYER, windowDimensions, seed);
         terrain.setCache(cache);
-        terrain.createInRange(leftRange, rightRange);
+        terrain.setEdits(terrainEdits);
+        terrain.setBlockPool(blockPool);
+        terrain.setMergedColumns(mergedColumns);
+        terrain.setUnboundedDepth(verticalStreaming);
         // Save terrain calculation function as private member, to be used when needed
         this.getTerrainHeightAtX = terrain::groundHeightAt;
     }
 
-    /* Creates the Night */
-    private void createNight() {
-        GameObject night = Night.create(gameObjects(), NIGHT_LAYER, windowDimensions, DAY_CYCLE_LENGTH);
+    /* Creates the Sun, its halo and the Night, and the cycle moving them along with the Sky's tint, at the
+    saved time of day if the world is restored */
+    private void createDayNightCycle(GameObject sky) {
+        GameObject night = Night.create(gameObjects(), NIGHT_LAYER, windowDimensions);
+        GameObject sun = Sun.create(gameObjects(), SUN_LAYER);
+        GameObject sunHalo = SunHalo.create(gameObjects(), SUN_HALO_LAYER, SUN_HALO_COLOR);
+        this.dayNightCycle = new DayNightCycle(sun, sunHalo, night, sky, windowDimensions, DAY_CYCLE_LENGTH);
+        if (snapshot != null) {
+            dayNightCycle.setTime(snapshot.getDayTime());
+        }
     }
 
-    /* Creates the Sun */
-    private GameObject createSun() {
-        return Sun.create(gameObjects(), SUN_LAYER, windowDimensions, DAY_CYCLE_LENGTH);
+    /* Puts the Avatar back in its saved state */
+    private void restoreAvatar() {
+        avatar.setTopLeftCorner(new Vector2(snapshot.getAvatarX(), snapshot.getAvatarY()));
+        avatar.setVelocity(new Vector2(snapshot.getAvatarVelocityX(), snapshot.getAvatarVelocityY()));
+        ((Avatar) avatar).setEnergy(snapshot.getAvatarEnergy());
     }
 
-    /* Creates the SunHalo */
-    private void createSunHalo(GameObject sun) {
-        GameObject sunHalo = SunHalo.create(gameObjects(), SUN_HALO_LAYER, sun, SUN_HALO_COLOR);
+    /* Has the terrain and the trees create the world a tile at a time, and sets the tile rows to create:
+    around the initial view when streaming vertically, and all rows any column spans otherwise */
+    private void createProducers() {
+        this.producers = new TileProducer[]{terrain, trees};
+        for (TileProducer producer : producers) {
+            this.reachBelowTile = Math.max(reachBelowTile, producer.getReachBelowTile());
+        }
+        if (verticalStreaming) {
+            // The camera will be centered on the Avatar, standing on the ground unless restored elsewhere
+            float avatarCenterY = (snapshot != null ? snapshot.getAvatarY() :
+                    terrain.groundHeightAt(avatarAtX) - Avatar.HEIGHT) + Avatar.HEIGHT / 2;
+            float halfHeight = windowDimensions.y() / 2;
+            streamVertically(avatarCenterY - halfHeight, avatarCenterY + halfHeight);
+        } else {
+            this.firstTileRow = TileStore.tileRowOf(terrain.getMinGroundHeight() -
+                    reachBelowTile * Block.SIZE);
+            this.endTileRow = TileStore.tileRowOf(terrain.getMaxGroundHeight() +
+                    (Terrain.TERRAIN_DEPTH - 1) * Block.SIZE) + 1;
+        }
     }
 
-    /* Creates the initial trees upon booting */
+    /* Creates the trees upon booting */
     private void createTrees() {
-        Tree trees = new Tree(gameObjects(), LEAF_LAYER, seed, terrain::groundHeightAt);
+        Tree trees = new Tree(gameObjects(), LEAF_LAYER, seed);
         this.trees = trees;
         trees.setCache(cache);
-        trees.createInRange(leftRange, rightRange);
-        // Leaves should collide with the terrain
-        gameObjects().layers().shouldLayersCollide(LEAF_LAYER, TOP_TERRAIN_LAYER, true);
+        trees.setEdits(treeEdits);
+        trees.setPools(blockPool, leafPool);
+        this.leafSystem = new LeafSystem(LEAF_POOL_CAPACITY);
+        trees.setLeafSystem(leafSystem);
+        trees.setMergedTrunks(mergedColumns);
+        trees.setClearing(spawnX);
+        // Leaves should land on the terrain, either by themselves or by colliding with it
+        if (analyticLeafLanding) {
+            leafSystem.setGround(getTerrainHeightAtX);
+        }
+        gameObjects().layers().shouldLayersCollide(LEAF_LAYER, TOP_TERRAIN_LAYER, !analyticLeafLanding);
     }
 
     /* Creates the Avatar to be used in the simulator */
     private void createAvatar() {
-        GameObject avatar = Avatar.create(gameObjects(), AVATAR_LAYER,
+        this.avatar = Avatar.create(gameObjects(), AVATAR_LAYER,
                 new Vector2(avatarAtX,
-                        getTerrainHeightAtX.apply(avatarAtX) - Avatar.HEIGHT),
-                inputListener, imageReader);
+                        getTerrainHeightAtX.heightAt(avatarAtX) - Avatar.HEIGHT),
+                inputListener, assets);
         this.setCamera(new Camera(avatar, Vector2.ZERO, windowController.getWindowDimensions(),
                 windowController.getWindowDimensions()));
-        // The Avatar should collide with tree trunks and top layer of terrain
-        gameObjects().layers().shouldLayersCollide(AVATAR_LAYER, TRUNK_LAYER, true);
-        gameObjects().layers().shouldLayersCollide(AVATAR_LAYER, TOP_TERRAIN_LAYER, true);
+        // The Avatar should be stopped by tree trunks and top layer of terrain, either by its movement
+        // resolver or by colliding with them
+        if (resolveAvatarMovement) {
+            ((Avatar) avatar).setMovementResolver(movementResolver);
+        }
+        gameObjects().layers().shouldLayersCollide(AVATAR_LAYER, TRUNK_LAYER, !resolveAvatarMovement);
+        gameObjects().layers().shouldLayersCollide(AVATAR_LAYER, TOP_TERRAIN_LAYER, !resolveAvatarMovement);
         gameObjects().layers().shouldLayersCollide(AVATAR_LAYER, BOTTOM_TERRAIN_LAYER, false);
 
     }
 
-    /* Generates a new segment of the world in a given range */
-    private void generateWorld(int minX, int maxX) {
-        if (((maxX - minX) % Block.SIZE) != 0) {
-            maxX += Block.SIZE - ((maxX - minX) % Block.SIZE);
-        }
-        terrain.createInRange(minX, maxX);
-        trees.createInRange(minX, maxX);
-    }
-
-    /* Removes all GameObjects at a given x */
-    private void collectGarbage(int x) {
-        for (GameObject gameObject: cache.get(x)) {
-            switch (gameObject.getTag()) {
-                case TOP_TERRAIN_TAG:
-                    gameObjects().removeGameObject(gameObject, TOP_TERRAIN_LAYER);
-                    break;
-                case BOTTOM_TERRAIN_TAG:
-                    gameObjects().removeGameObject(gameObject, BOTTOM_TERRAIN_LAYER);
-                    break;
-                case LEAF_TAG:
-                    gameObjects().removeGameObject(gameObject, LEAF_LAYER);
-                    break;
-                case TRUNK_TAG:
-                    gameObjects().removeGameObject(gameObject, TRUNK_LAYER);
-                    break;
+    /* Creates an avatar for every bot where the Avatar was first created, and the world around them */
+    private void createBots() {
+        this.neighborhoods = new Neighborhood[1 + bots.size()];
+        neighborhoods[0] = view;
+        for (int i = 0; i < bots.size(); i++) {
+            Bot bot = bots.get(i);
+            Avatar botAvatar = Avatar.create(gameObjects(), AVATAR_LAYER,
+                    new Vector2(spawnX, getTerrainHeightAtX.heightAt(spawnX) - Avatar.HEIGHT), bot, assets);
+            if (resolveAvatarMovement) {
+                botAvatar.setMovementResolver(movementResolver);
             }
+            bot.control(botAvatar);
+            // Start with the full window around the bot, sharing the columns already created
+            Neighborhood neighborhood = new Neighborhood(RANGE_BUFFER);
+            neighborhood.setVisible(spawnX - windowDimensions.x() / 2, spawnX + windowDimensions.x() / 2);
+            neighborhood.setRange(neighborhood.getWantedLeft(), neighborhood.getWantedLeft());
+            while (neighborhood.getRight() < neighborhood.getWantedRight()) {
+                retainColumn(neighborhood.getRight());
+                neighborhood.setRange(neighborhood.getLeft(), neighborhood.getRight() + Block.SIZE);
+            }
+            neighborhoods[i + 1] = neighborhood;
         }
-        cache.remove(x);
+        // Avatars walk through one another
+        gameObjects().layers().shouldLayersCollide(AVATAR_LAYER, AVATAR_LAYER, false);
     }
 
     /**
-     * Main method for the Pepse simulator.
+     * Main method for the Pepse simulator. F5 saves the world to a snapshot file, which is restored when
+     * the simulator is run with "--restore [path]". "--record [path]" records the input of the run, which
+     * "--replay [path]" plays back; "--trace [path]" writes the time taken by every frame as CSV. F6 saves
+     * histograms of the time taken by every subsystem as CSV, which "--profile [path]" also does on exit.
      * @param args Command line arguments.
+     * @throws IOException If a snapshot or recording can't be read, or a recording, trace or profile written.
      */
-    public static void main(String[] args) {
-        new PepseGameManager().run();
+    public static void main(String[] args) throws IOException {
+        PepseGameManager gameManager = new PepseGameManager();
+        String snapshotPath = optionOf(args, RESTORE_ARGUMENT, SNAPSHOT_PATH);
+        String recordingPath = optionOf(args, RECORD_ARGUMENT, RECORDING_PATH);
+        String replayPath = optionOf(args, REPLAY_ARGUMENT, RECORDING_PATH);
+        String tracePath = optionOf(args, TRACE_ARGUMENT, TRACE_PATH);
+        String profilePath = optionOf(args, PROFILE_ARGUMENT, PROFILE_PATH);
+        if (snapshotPath != null) {
+            gameManager.setSnapshot(WorldSnapshot.read(Paths.get(snapshotPath)));
+        }
+        if (replayPath != null) {
+            gameManager.setReplay(InputRecording.read(Paths.get(replayPath)));
+        }
+        gameManager.setRecordInput(recordingPath != null);
+        FrameTrace frameTrace = tracePath != null ? new FrameTrace() : null;
+        gameManager.setFrameTrace(frameTrace);
+        gameManager.run();
+        if (recordingPath != null) {
+            gameManager.getRecording().write(Paths.get(recordingPath));
+        }
+        if (frameTrace != null) {
+            frameTrace.writeCsv(Paths.get(tracePath));
+            System.out.println(frameTrace.summary());
+        }
+        if (profilePath != null) {
+            gameManager.getProfiler().writeCsv(Paths.get(profilePath));
+            System.out.print(gameManager.getProfiler().summary());
+        }
+    }
+
+    /* Returns the value of a command line option: the argument following its name, the default value if no
+    value follows it, or null if the option isn't given */
+    private static String optionOf(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(name)) {
+                return i + 1 < args.length && !args[i + 1].startsWith("--") ? args[i + 1] : defaultValue;
+            }
+        }
+        return null;
     }
-}
\ No newline at end of file
+}
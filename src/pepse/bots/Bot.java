@@ -0,0 +1,225 @@
+package pepse.bots;
+
+import danogl.gui.UserInputListener;
+import danogl.util.Vector2;
+import pepse.util.SplitMix;
+import pepse.world.Avatar;
+import java.awt.event.KeyEvent;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Drives a non-player Avatar by pressing its keys, standing in for a user's input. Every frame, before the
+ * game is updated, the bot decides which keys to hold according to its behavior. Its decisions are drawn
+ * from a seeded stream, so a bot given the same seed always takes the same decisions in the same world.
+ */
+public class Bot implements UserInputListener {
+
+    /**
+     * How a bot moves through the world.
+     */
+    public enum Behavior {
+        /** Walks either way or stands still for random stretches of time, sometimes jumping. */
+        WANDER,
+        /** Flies in a single direction until out of energy, then walks until the energy is back. */
+        FLY,
+        /** Runs in a single direction, jumping over whatever blocks it. */
+        RUN
+    }
+
+    /* Constants */
+    private static final int MAX_KEY_CODE = 256;
+    private static final float MIN_LEG_TIME = 1;  // seconds a wandering bot keeps to its decision
+    private static final float MAX_LEG_TIME = 4;
+    private static final int LEG_TIME_STEPS = 1000;
+    private static final int JUMP_CHANCE = 3;  // a wandering bot jumps at the start of 1 in this many legs
+    private static final float STUCK_TIME = 0.25f;  // seconds without moving before a bot jumps
+    private static final float STUCK_DISTANCE = 1;  // pixels per frame under which a bot isn't moving
+
+    /* Private members */
+    private final Behavior behavior;
+    private final long stream;  // stream of decisions
+    private long draws;
+    private final boolean[] pressed = new boolean[MAX_KEY_CODE];
+    private final boolean[] pressedLastFrame = new boolean[MAX_KEY_CODE];
+    private Avatar avatar;
+    private int direction;  // -1 for left, 1 for right, 0 to stand still
+    private float legTimeLeft;
+    private boolean flying;
+    private float lastX;
+    private float stuckTime;
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param behavior How the bot moves through the world.
+     * @param seed Seed of the bot's decisions.
+     */
+    public Bot(Behavior behavior, long seed) {
+        this.behavior = behavior;
+        this.stream = SplitMix.stream(seed, behavior.ordinal());
+        this.direction = SplitMix.nextInt(stream, draws++, 2) == 0 ? -1 : 1;
+    }
+
+    /**
+     * Sets the Avatar the bot drives. The Avatar should have been created with the bot as its input.
+     * @param avatar The Avatar.
+     */
+    public void control(Avatar avatar) {
+        this.avatar = avatar;
+        this.lastX = avatar.getTopLeftCorner().x();
+        this.flying = behavior == Behavior.FLY;
+    }
+
+    /**
+     * Decides which keys to hold in the coming frame. Called once per frame, before the game is updated.
+     * @param deltaTime The time, in seconds, that passed since the last invocation of this method.
+     */
+    public void update(float deltaTime) {
+        System.arraycopy(pressed, 0, pressedLastFrame, 0, MAX_KEY_CODE);
+        release(KeyEvent.VK_LEFT);
+        release(KeyEvent.VK_RIGHT);
+        release(KeyEvent.VK_SPACE);
+        release(KeyEvent.VK_SHIFT);
+        boolean stuck = updateStuck(deltaTime);
+        switch (behavior) {
+            case WANDER:
+                wander(deltaTime);
+                break;
+            case FLY:
+                fly();
+                break;
+            case RUN:
+                break;  // keeps to its direction
+        }
+        if (direction < 0) {
+            press(KeyEvent.VK_LEFT);
+        } else if (direction > 0) {
+            press(KeyEvent.VK_RIGHT);
+        }
+        if (stuck) {
+            press(KeyEvent.VK_SPACE);
+        }
+    }
+
+    /**
+     * @return How the bot moves through the world.
+     */
+    public Behavior getBehavior() {
+        return behavior;
+    }
+
+    /**
+     * @return The Avatar the bot drives, or null if it drives none yet.
+     */
+    public Avatar getAvatar() {
+        return avatar;
+    }
+
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        return keyCode < MAX_KEY_CODE && pressed[keyCode];
+    }
+
+    @Override
+    public boolean wasKeyPressedThisFrame(int keyCode) {
+        return isKeyPressed(keyCode) && !pressedLastFrame[keyCode];
+    }
+
+    @Override
+    public boolean wasKeyReleasedThisFrame(int keyCode) {
+        return keyCode < MAX_KEY_CODE && !pressed[keyCode] && pressedLastFrame[keyCode];
+    }
+
+    @Override
+    public Set<Integer> pressedKeys() {
+        Set<Integer> keys = new HashSet<>();
+        for (int keyCode = 0; keyCode < MAX_KEY_CODE; keyCode++) {
+            if (pressed[keyCode]) {
+                keys.add(keyCode);
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public boolean isMouseButtonPressed(int button) {
+        return false;
+    }
+
+    @Override
+    public boolean wasMouseButtonPressedThisFrame(int button) {
+        return false;
+    }
+
+    @Override
+    public boolean wasMouseButtonReleasedThisFrame(int button) {
+        return false;
+    }
+
+    @Override
+    public Vector2 getMouseScreenPos() {
+        return Vector2.ZERO;
+    }
+
+    /* Private methods */
+
+    /* Holds a key for the coming frame */
+    private void press(int keyCode) {
+        pressed[keyCode] = true;
+    }
+
+    /* Releases a key for the coming frame */
+    private void release(int keyCode) {
+        pressed[keyCode] = false;
+    }
+
+    /* Returns whether the Avatar was meant to move but barely did for a while, and should jump */
+    private boolean updateStuck(float deltaTime) {
+        if (avatar == null) {
+            return false;
+        }
+        float x = avatar.getTopLeftCorner().x();
+        if (direction != 0 && Math.abs(x - lastX) < STUCK_DISTANCE) {
+            stuckTime += deltaTime;
+        } else {
+            this.stuckTime = 0;
+        }
+        this.lastX = x;
+        if (stuckTime < STUCK_TIME) {
+            return false;
+        }
+        this.stuckTime = 0;
+        return true;
+    }
+
+    /* Picks a new direction, and maybe a jump, whenever the current leg of wandering is over */
+    private void wander(float deltaTime) {
+        legTimeLeft -= deltaTime;
+        if (legTimeLeft > 0) {
+            return;
+        }
+        this.direction = SplitMix.nextInt(stream, draws++, 3) - 1;
+        this.legTimeLeft = MIN_LEG_TIME + (MAX_LEG_TIME - MIN_LEG_TIME) *
+                SplitMix.nextInt(stream, draws++, LEG_TIME_STEPS) / LEG_TIME_STEPS;
+        if (SplitMix.nextInt(stream, draws++, JUMP_CHANCE) == 0) {
+            press(KeyEvent.VK_SPACE);
+        }
+    }
+
+    /* Flies while there is energy left, and walks until it is full again */
+    private void fly() {
+        if (avatar == null) {
+            return;
+        }
+        if (flying && avatar.getEnergy() <= 0) {
+            this.flying = false;
+        } else if (!flying && avatar.getEnergy() >= Avatar.FULL_ENERGY) {
+            this.flying = true;
+        }
+        if (flying) {
+            press(KeyEvent.VK_SPACE);
+            press(KeyEvent.VK_SHIFT);
+        }
+    }
+}
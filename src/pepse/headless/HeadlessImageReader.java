@@ -0,0 +1,37 @@
+package pepse.headless;
+
+import danogl.gui.ImageReader;
+import danogl.gui.WindowController;
+import danogl.gui.rendering.ImageRenderable;
+import java.awt.image.BufferedImage;
+
+/**
+ * An ImageReader stand-in for running the Pepse simulator without a display. Never touches the disk;
+ * every image read returns the same blank, single pixel image.
+ */
+public class HeadlessImageReader extends ImageReader {
+
+    /* Private members */
+    private final ImageRenderable blankImage =
+            new ImageRenderable(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB));
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param windowController The (headless) window controller of the simulation.
+     */
+    public HeadlessImageReader(WindowController windowController) {
+        super(windowController);
+    }
+
+    /**
+     * Returns a blank image regardless of the given path.
+     * @param imageFilePath Ignored.
+     * @param isTopLeftPixelTransparent Ignored.
+     * @return A blank, single pixel image.
+     */
+    @Override
+    public ImageRenderable readImage(String imageFilePath, boolean isTopLeftPixelTransparent) {
+        return blankImage;
+    }
+}
@@ -0,0 +1,98 @@
+package pepse.headless;
+
+import danogl.gui.UserInputListener;
+import danogl.util.Vector2;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A UserInputListener stand-in whose keys are pressed and released programmatically. Key state set
+ * during a frame is only reported as "pressed/released this frame" until endFrame is called.
+ */
+public class HeadlessInputListener implements UserInputListener {
+
+    /* Constants */
+    private static final int MAX_KEY_CODE = 1 << 16;
+
+    /* Private members */
+    private final boolean[] pressed = new boolean[MAX_KEY_CODE];
+    private final boolean[] pressedLastFrame = new boolean[MAX_KEY_CODE];
+
+    /* Public methods */
+    /**
+     * Presses a key until it is released.
+     * @param keyCode Key code of the key, as defined in java.awt.event.KeyEvent.
+     */
+    public void press(int keyCode) {
+        pressed[keyCode] = true;
+    }
+
+    /**
+     * Releases a key.
+     * @param keyCode Key code of the key, as defined in java.awt.event.KeyEvent.
+     */
+    public void release(int keyCode) {
+        pressed[keyCode] = false;
+    }
+
+    /**
+     * Releases all keys.
+     */
+    public void releaseAll() {
+        Arrays.fill(pressed, false);
+    }
+
+    /**
+     * Marks the end of a frame. Should be called once after every update of the simulation.
+     */
+    public void endFrame() {
+        System.arraycopy(pressed, 0, pressedLastFrame, 0, MAX_KEY_CODE);
+    }
+
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        return pressed[keyCode];
+    }
+
+    @Override
+    public boolean wasKeyPressedThisFrame(int keyCode) {
+        return pressed[keyCode] && !pressedLastFrame[keyCode];
+    }
+
+    @Override
+    public boolean wasKeyReleasedThisFrame(int keyCode) {
+        return !pressed[keyCode] && pressedLastFrame[keyCode];
+    }
+
+    @Override
+    public Set<Integer> pressedKeys() {
+        Set<Integer> keys = new HashSet<>();
+        for (int keyCode = 0; keyCode < MAX_KEY_CODE; keyCode++) {
+            if (pressed[keyCode]) {
+                keys.add(keyCode);
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public boolean isMouseButtonPressed(int button) {
+        return false;
+    }
+
+    @Override
+    public boolean wasMouseButtonPressedThisFrame(int button) {
+        return false;
+    }
+
+    @Override
+    public boolean wasMouseButtonReleasedThisFrame(int button) {
+        return false;
+    }
+
+    @Override
+    public Vector2 getMouseScreenPos() {
+        return Vector2.ZERO;
+    }
+}
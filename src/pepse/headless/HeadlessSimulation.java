@@ -0,0 +1,122 @@
+package pepse.headless;
+
+import danogl.util.Vector2;
+import pepse.PepseGameManager;
+import pepse.util.AssetManager;
+import java.awt.event.KeyEvent;
+
+/**
+ * Drives the Pepse simulator's game loop without a display. The game is initialized with headless
+ * stand-ins for the window, the image reader and the user input, and is then advanced frame by frame with
+ * a fixed time step. Used by benchmarks and by CI machines that have no screen.
+ */
+public class HeadlessSimulation {
+
+    /* Constants */
+    private static final Vector2 DEFAULT_WINDOW_DIMENSIONS = new Vector2(1024, 768);
+    private static final float DEFAULT_DELTA_TIME = 1f / 60;
+    private static final int DEFAULT_FRAMES = 3600;
+
+    /* Private members */
+    private final PepseGameManager gameManager;
+    private final HeadlessInputListener inputListener;
+    private final HeadlessWindowController windowController;
+    private long frames;
+
+    /* Public methods */
+    /**
+     * Constructor. Initializes the given game in a headless window of the given dimensions.
+     * @param gameManager The game to simulate. Must not have been initialized yet.
+     * @param windowDimensions Dimensions of the simulated window.
+     */
+    public HeadlessSimulation(PepseGameManager gameManager, Vector2 windowDimensions) {
+        this.gameManager = gameManager;
+        this.inputListener = new HeadlessInputListener();
+        this.windowController = new HeadlessWindowController(windowDimensions);
+        HeadlessImageReader imageReader = new HeadlessImageReader(windowController);
+        if (gameManager.getAssetManager() == null) {
+            // Every image read is blank, so decoding images from disk would only slow the game's startup
+            gameManager.setAssetManager(new AssetManager(imageReader, false));
+        }
+        // Pepse never plays sounds, so no SoundReader is needed
+        gameManager.initializeGame(imageReader, null, inputListener, windowController);
+    }
+
+    /**
+     * Constructor. Initializes the given game in a headless window of default dimensions.
+     * @param gameManager The game to simulate. Must not have been initialized yet.
+     */
+    public HeadlessSimulation(PepseGameManager gameManager) {
+        this(gameManager, DEFAULT_WINDOW_DIMENSIONS);
+    }
+
+    /**
+     * Constructor. Initializes a new game in a headless window of default dimensions.
+     */
+    public HeadlessSimulation() {
+        this(new PepseGameManager());
+    }
+
+    /**
+     * Advances the simulation by a single frame.
+     * @param deltaTime The time, in seconds, that passes during the frame.
+     */
+    public void step(float deltaTime) {
+        gameManager.update(deltaTime);
+        inputListener.endFrame();
+        frames++;
+    }
+
+    /**
+     * Advances the simulation by a number of frames with a fixed time step.
+     * @param frameCount Number of frames to simulate.
+     * @param deltaTime The time, in seconds, that passes during each frame.
+     */
+    public void run(int frameCount, float deltaTime) {
+        for (int i = 0; i < frameCount; i++) {
+            step(deltaTime);
+        }
+    }
+
+    /**
+     * @return The simulated game.
+     */
+    public PepseGameManager getGameManager() {
+        return gameManager;
+    }
+
+    /**
+     * @return The input listener through which keys may be pressed in the simulation.
+     */
+    public HeadlessInputListener getInputListener() {
+        return inputListener;
+    }
+
+    /**
+     * @return The headless window controller of the simulation.
+     */
+    public HeadlessWindowController getWindowController() {
+        return windowController;
+    }
+
+    /**
+     * @return Number of frames simulated so far.
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Runs the simulator headlessly, with the avatar walking right, and prints the average frame time.
+     * @param args Optional number of frames to simulate.
+     */
+    public static void main(String[] args) {
+        int frameCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FRAMES;
+        HeadlessSimulation simulation = new HeadlessSimulation();
+        simulation.getInputListener().press(KeyEvent.VK_RIGHT);
+        long start = System.nanoTime();
+        simulation.run(frameCount, DEFAULT_DELTA_TIME);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%d frames, %.3f ms/frame%n", frameCount, elapsed / 1e6 / frameCount);
+    }
+}
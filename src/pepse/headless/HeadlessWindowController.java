@@ -0,0 +1,68 @@
+package pepse.headless;
+
+import danogl.gui.WindowController;
+import danogl.util.Vector2;
+
+/**
+ * A WindowController stand-in for running the Pepse simulator without a display. Reports fixed window
+ * dimensions and ignores every request that would otherwise require a real window.
+ */
+public class HeadlessWindowController implements WindowController {
+
+    /* Constants */
+    private static final int DEFAULT_FRAMERATE = 60;
+
+    /* Private members */
+    private final Vector2 windowDimensions;
+    private int targetFramerate = DEFAULT_FRAMERATE;
+    private boolean closed;
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param windowDimensions The dimensions the simulated window should report.
+     */
+    public HeadlessWindowController(Vector2 windowDimensions) {
+        this.windowDimensions = windowDimensions;
+    }
+
+    @Override
+    public void closeWindow() {
+        this.closed = true;
+    }
+
+    @Override
+    public Vector2 getWindowDimensions() {
+        return windowDimensions;
+    }
+
+    @Override
+    public void setTargetFramerate(int targetFramerate) {
+        this.targetFramerate = targetFramerate;
+    }
+
+    @Override
+    public int getTargetFramerate() {
+        return targetFramerate;
+    }
+
+    @Override
+    public void showMessageBox(String msg) {
+    }
+
+    @Override
+    public boolean openYesNoDialog(String msg) {
+        return false;
+    }
+
+    @Override
+    public void resetGame() {
+    }
+
+    /**
+     * @return Whether closeWindow has been called on this controller.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+}
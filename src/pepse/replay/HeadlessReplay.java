@@ -0,0 +1,62 @@
+package pepse.replay;
+
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessSimulation;
+import pepse.stats.FrameTrace;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Replays a recorded run without a display, as fast as frames can be run, and traces the time every frame
+ * took. Comparing the traces of the same recording before and after a change shows exactly which frames
+ * got slower.
+ */
+public class HeadlessReplay {
+
+    /* Constants */
+    private static final String DEFAULT_TRACE_PATH = "pepse-frames.csv";
+
+    /* Public methods */
+    /**
+     * Replays a recording to its end.
+     * @param recording The recording.
+     * @param frameTrace Trace recording the time every frame takes, or null for none.
+     * @return The game, in the state at the end of the replay.
+     */
+    public static PepseGameManager replay(InputRecording recording, FrameTrace frameTrace) {
+        PepseGameManager game = new PepseGameManager();
+        game.setReplay(recording);
+        game.setFrameTrace(frameTrace);
+        HeadlessSimulation simulation = new HeadlessSimulation(game);
+        while (!game.isReplayFinished()) {
+            simulation.step(0);  // the recorded time step is used instead
+        }
+        game.getPrefetcher().shutdown();
+        return game;
+    }
+
+    /**
+     * Replays a recording and writes its frame-time trace as CSV.
+     * @param args Path of the recording, and optionally the path of the trace.
+     * @throws IOException If the recording can't be read or the trace written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: HeadlessReplay <recording> [trace.csv]");
+            return;
+        }
+        InputRecording recording = InputRecording.read(Paths.get(args[0]));
+        FrameTrace frameTrace = new FrameTrace();
+        long start = System.nanoTime();
+        replay(recording, frameTrace);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        float recorded = 0;
+        for (int frame = 0; frame < recording.getFrameCount(); frame++) {
+            recorded += recording.getDeltaTime(frame);
+        }
+        frameTrace.writeCsv(Paths.get(args.length > 1 ? args[1] : DEFAULT_TRACE_PATH));
+        System.out.println(frameTrace.summary());
+        System.out.printf("%.1fs of play replayed in %.1fs (%.1fx real time)%n", recorded, elapsed,
+                recorded / elapsed);
+    }
+}
@@ -0,0 +1,159 @@
+package pepse.replay;
+
+import danogl.gui.UserInputListener;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A recording of a run of the game: the seed of its world, and for every frame the time that passed and
+ * which of the keys the game reads were held. Replaying it against the same seed repeats the run exactly.
+ * Frames are stored in 6 bytes each, so an hour at 60 frames per second takes about 1.3MB.
+ */
+public class InputRecording {
+
+    /* Constants */
+    private static final int MAGIC = 0x50455052;  // "PEPR"
+    private static final short VERSION = 2;  // 2: F6 is recorded
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + 2 * Integer.BYTES;
+    private static final int FRAME_BYTES = Float.BYTES + Short.BYTES;
+    private static final int INITIAL_CAPACITY = 1024;
+    // Keys read by the game, in the order of their bits in a frame's key mask
+    private static final int[] KEYS = {KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_SPACE,
+            KeyEvent.VK_SHIFT, KeyEvent.VK_F3, KeyEvent.VK_F5, KeyEvent.VK_F6};
+
+    /* Private members */
+    private final int seed;
+    private float[] deltaTimes = new float[INITIAL_CAPACITY];
+    private short[] keyMasks = new short[INITIAL_CAPACITY];
+    private int frameCount;
+
+    /* Public methods */
+    /**
+     * Constructor. The recording starts with no frames.
+     * @param seed Seed of the recorded world.
+     */
+    public InputRecording(int seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Records a frame.
+     * @param deltaTime The time, in seconds, that passed during the frame.
+     * @param inputListener The input during the frame.
+     */
+    public void addFrame(float deltaTime, UserInputListener inputListener) {
+        short keyMask = 0;
+        for (int i = 0; i < KEYS.length; i++) {
+            if (inputListener.isKeyPressed(KEYS[i])) {
+                keyMask |= 1 << i;
+            }
+        }
+        addFrame(deltaTime, keyMask);
+    }
+
+    /**
+     * Writes the recording to a file, replacing it if it exists.
+     * @param path Path of the file.
+     * @throws IOException If the file can't be written.
+     */
+    public void write(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + frameCount * FRAME_BYTES);
+        buffer.putInt(MAGIC).putShort(VERSION).putInt(seed).putInt(frameCount);
+        for (int frame = 0; frame < frameCount; frame++) {
+            buffer.putFloat(deltaTimes[frame]).putShort(keyMasks[frame]);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads a recording from a file.
+     * @param path Path of the file.
+     * @return The recording.
+     * @throws IOException If the file can't be read, or doesn't hold a recording of this version.
+     */
+    public static InputRecording read(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the whole file is in the buffer
+            }
+        }
+        buffer.flip();
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+            throw new IOException("Not a version " + VERSION + " input recording: " + path);
+        }
+        InputRecording recording = new InputRecording(buffer.getInt());
+        int frameCount = buffer.getInt();
+        if (buffer.remaining() != frameCount * FRAME_BYTES) {
+            throw new IOException("Truncated input recording: " + path);
+        }
+        for (int frame = 0; frame < frameCount; frame++) {
+            recording.addFrame(buffer.getFloat(), buffer.getShort());
+        }
+        return recording;
+    }
+
+    /**
+     * @return Seed of the recorded world.
+     */
+    public int getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return Number of recorded frames.
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @param frame Index of a frame.
+     * @return The time, in seconds, that passed during the frame.
+     */
+    public float getDeltaTime(int frame) {
+        return deltaTimes[frame];
+    }
+
+    /**
+     * @param frame Index of a frame.
+     * @param keyCode Key code of a key, as defined in java.awt.event.KeyEvent.
+     * @return Whether the key was held during the frame. Always false for keys the game doesn't read.
+     */
+    public boolean isKeyPressed(int frame, int keyCode) {
+        if (frame < 0) {
+            return false;
+        }
+        for (int i = 0; i < KEYS.length; i++) {
+            if (KEYS[i] == keyCode) {
+                return (keyMasks[frame] & (1 << i)) != 0;
+            }
+        }
+        return false;
+    }
+
+    /* Private methods */
+
+    /* Appends a frame, growing the arrays if needed */
+    private void addFrame(float deltaTime, short keyMask) {
+        if (frameCount == deltaTimes.length) {
+            this.deltaTimes = Arrays.copyOf(deltaTimes, 2 * frameCount);
+            this.keyMasks = Arrays.copyOf(keyMasks, 2 * frameCount);
+        }
+        deltaTimes[frameCount] = deltaTime;
+        keyMasks[frameCount] = keyMask;
+        frameCount++;
+    }
+}
@@ -0,0 +1,103 @@
+package pepse.replay;
+
+import danogl.gui.UserInputListener;
+import danogl.util.Vector2;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A UserInputListener playing back an InputRecording, frame by frame. The game advances the replay at the
+ * start of every frame, and runs the frame with the recorded time step instead of the measured one, so the
+ * replayed run is the recorded one regardless of how fast frames are actually run.
+ */
+public class ReplayInputListener implements UserInputListener {
+
+    /* Constants */
+    private static final int MAX_KEY_CODE = 256;
+
+    /* Private members */
+    private final InputRecording recording;
+    private int frame = -1;  // frame being replayed
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param recording The recording to play back.
+     */
+    public ReplayInputListener(InputRecording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Moves on to the next recorded frame.
+     * @return The time, in seconds, that passed during the frame.
+     * @throws IllegalStateException If the replay is finished.
+     */
+    public float nextFrame() {
+        if (isFinished()) {
+            throw new IllegalStateException("All " + recording.getFrameCount() + " frames were replayed");
+        }
+        frame++;
+        return recording.getDeltaTime(frame);
+    }
+
+    /**
+     * @return Whether all recorded frames were replayed.
+     */
+    public boolean isFinished() {
+        return frame + 1 >= recording.getFrameCount();
+    }
+
+    /**
+     * @return Number of frames replayed so far.
+     */
+    public int getReplayedFrames() {
+        return frame + 1;
+    }
+
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        return recording.isKeyPressed(frame, keyCode);
+    }
+
+    @Override
+    public boolean wasKeyPressedThisFrame(int keyCode) {
+        return isKeyPressed(keyCode) && !recording.isKeyPressed(frame - 1, keyCode);
+    }
+
+    @Override
+    public boolean wasKeyReleasedThisFrame(int keyCode) {
+        return !isKeyPressed(keyCode) && recording.isKeyPressed(frame - 1, keyCode);
+    }
+
+    @Override
+    public Set<Integer> pressedKeys() {
+        Set<Integer> keys = new HashSet<>();
+        for (int keyCode = 0; keyCode < MAX_KEY_CODE; keyCode++) {
+            if (isKeyPressed(keyCode)) {
+                keys.add(keyCode);
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public boolean isMouseButtonPressed(int button) {
+        return false;
+    }
+
+    @Override
+    public boolean wasMouseButtonPressedThisFrame(int button) {
+        return false;
+    }
+
+    @Override
+    public boolean wasMouseButtonReleasedThisFrame(int button) {
+        return false;
+    }
+
+    @Override
+    public Vector2 getMouseScreenPos() {
+        return Vector2.ZERO;
+    }
+}
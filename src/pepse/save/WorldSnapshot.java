@@ -0,0 +1,256 @@
+package pepse.save;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A compact binary snapshot of a running world: its seed, where the avatar was created and where it is, its
+ * velocity and energy, the time of the day/night cycle, the player's edits to the terrain and the trees, and
+ * the state of all live leaves. Everything else in the world is a function of the seed and is regenerated on
+ * restore. Snapshots are written asynchronously, so saving never blocks the game thread on I/O.
+ */
+public class WorldSnapshot {
+
+    /* Constants */
+    private static final int MAGIC = 0x50455053;  // "PEPS"
+    // 2: leaves save their life cycle number. 3: the player's edits are saved
+    private static final short VERSION = 3;
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + Integer.BYTES + 7 * Float.BYTES;
+
+    /* Private members */
+    private final int seed;
+    private final float spawnX;
+    private final float dayTime;
+    private final float avatarX;
+    private final float avatarY;
+    private final float avatarVelocityX;
+    private final float avatarVelocityY;
+    private final float avatarEnergy;
+    private final ByteBuffer terrainEdits;
+    private final ByteBuffer treeEdits;
+    private final ByteBuffer leafStates;
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param seed Seed of the world.
+     * @param spawnX The x value at which the avatar was first created, around which no trees grow.
+     * @param dayTime Time since the start of the current day/night cycle, in seconds.
+     * @param avatarX The x value of the avatar's top-left corner.
+     * @param avatarY The y value of the avatar's top-left corner.
+     * @param avatarVelocityX Horizontal velocity of the avatar.
+     * @param avatarVelocityY Vertical velocity of the avatar.
+     * @param avatarEnergy Energy left to the avatar for flying.
+     * @param terrainEdits The player's edits to the terrain, as saved by their ColumnEdits.
+     * @param treeEdits The player's edits to the trees, as saved by their ColumnEdits.
+     * @param leafStates States of all live leaves, as saved by the LeafSystem.
+     */
+    public WorldSnapshot(int seed, float spawnX, float dayTime, float avatarX, float avatarY,
+                         float avatarVelocityX, float avatarVelocityY, float avatarEnergy,
+                         ByteBuffer terrainEdits, ByteBuffer treeEdits, ByteBuffer leafStates) {
+        this.seed = seed;
+        this.spawnX = spawnX;
+        this.dayTime = dayTime;
+        this.avatarX = avatarX;
+        this.avatarY = avatarY;
+        this.avatarVelocityX = avatarVelocityX;
+        this.avatarVelocityY = avatarVelocityY;
+        this.avatarEnergy = avatarEnergy;
+        this.terrainEdits = terrainEdits;
+        this.treeEdits = treeEdits;
+        this.leafStates = leafStates;
+    }
+
+    /**
+     * Writes the snapshot to a file, replacing it if it exists. Returns as soon as the write has started.
+     * @param path Path of the file.
+     * @return A future completed once the snapshot is fully written and the file is closed, or completed
+     * exceptionally if writing failed.
+     */
+    public CompletableFuture<Void> write(Path path) {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        ByteBuffer buffer = encode();
+        AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            written.completeExceptionally(e);
+            return written;
+        }
+        channel.write(buffer, 0, 0L, new CompletionHandler<Integer, Long>() {
+            @Override
+            public void completed(Integer bytes, Long position) {
+                long next = position + bytes;
+                if (buffer.hasRemaining()) {
+                    // Partial write; continue from where it stopped
+                    channel.write(buffer, next, next, this);
+                    return;
+                }
+                close(channel, written, null);
+            }
+
+            @Override
+            public void failed(Throwable e, Long position) {
+                close(channel, written, e);
+            }
+        });
+        return written;
+    }
+
+    /**
+     * Reads a snapshot from a file.
+     * @param path Path of the file.
+     * @return The snapshot.
+     * @throws IOException If the file can't be read, or doesn't hold a snapshot of this version.
+     */
+    public static WorldSnapshot read(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the whole file is in the buffer
+            }
+        }
+        buffer.flip();
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+            throw new IOException("Not a version " + VERSION + " world snapshot: " + path);
+        }
+        return new WorldSnapshot(buffer.getInt(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(),
+                buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(),
+                readSection(buffer, path), readSection(buffer, path), buffer.slice());
+    }
+
+    /**
+     * @return Seed of the world.
+     */
+    public int getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return The x value at which the avatar was first created.
+     */
+    public float getSpawnX() {
+        return spawnX;
+    }
+
+    /**
+     * @return Time since the start of the current day/night cycle, in seconds.
+     */
+    public float getDayTime() {
+        return dayTime;
+    }
+
+    /**
+     * @return The x value of the avatar's top-left corner.
+     */
+    public float getAvatarX() {
+        return avatarX;
+    }
+
+    /**
+     * @return The y value of the avatar's top-left corner.
+     */
+    public float getAvatarY() {
+        return avatarY;
+    }
+
+    /**
+     * @return Horizontal velocity of the avatar.
+     */
+    public float getAvatarVelocityX() {
+        return avatarVelocityX;
+    }
+
+    /**
+     * @return Vertical velocity of the avatar.
+     */
+    public float getAvatarVelocityY() {
+        return avatarVelocityY;
+    }
+
+    /**
+     * @return Energy left to the avatar for flying.
+     */
+    public float getAvatarEnergy() {
+        return avatarEnergy;
+    }
+
+    /**
+     * @return A new buffer over the player's edits to the terrain, positioned at their start.
+     */
+    public ByteBuffer getTerrainEdits() {
+        return terrainEdits.duplicate();
+    }
+
+    /**
+     * @return A new buffer over the player's edits to the trees, positioned at their start.
+     */
+    public ByteBuffer getTreeEdits() {
+        return treeEdits.duplicate();
+    }
+
+    /**
+     * @return A new buffer over the states of all live leaves, positioned at their start.
+     */
+    public ByteBuffer getLeafStates() {
+        return leafStates.duplicate();
+    }
+
+    /* Private methods */
+
+    /* Encodes the snapshot into a buffer ready to be written. The edits are saved as sections prefixed by
+    their length, followed by the leaf states up to the end */
+    private ByteBuffer encode() {
+        ByteBuffer terrain = terrainEdits.duplicate();
+        ByteBuffer trees = treeEdits.duplicate();
+        ByteBuffer leaves = leafStates.duplicate();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 2 * Integer.BYTES + terrain.remaining() +
+                trees.remaining() + leaves.remaining());
+        buffer.putInt(MAGIC).putShort(VERSION).putInt(seed).putFloat(spawnX).putFloat(dayTime);
+        buffer.putFloat(avatarX).putFloat(avatarY).putFloat(avatarVelocityX).putFloat(avatarVelocityY);
+        buffer.putFloat(avatarEnergy);
+        buffer.putInt(terrain.remaining()).put(terrain);
+        buffer.putInt(trees.remaining()).put(trees);
+        buffer.put(leaves);
+        buffer.flip();
+        return buffer;
+    }
+
+    /* Reads a section prefixed by its length, returning a buffer over it and advancing past it */
+    private static ByteBuffer readSection(ByteBuffer buffer, Path path) throws IOException {
+        int length = buffer.remaining() < Integer.BYTES ? -1 : buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Truncated world snapshot: " + path);
+        }
+        ByteBuffer section = buffer.slice();
+        section.limit(length);
+        buffer.position(buffer.position() + length);
+        return section;
+    }
+
+    /* Closes the channel of a finished write and completes its future */
+    private static void close(AsynchronousFileChannel channel, CompletableFuture<Void> written,
+                              Throwable failure) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            written.completeExceptionally(failure);
+        } else {
+            written.complete(null);
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package pepse.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event spanning a frame of the game, with the time spent in every subsystem during it, so that
+ * slow frames can be lined up with garbage collections and allocations in a flight recording.
+ */
+@Name("pepse.Frame")
+@Label("Frame")
+@Category("Pepse")
+@Description("A frame of the game and the time spent in every subsystem during it")
+@StackTrace(false)
+class FrameEvent extends Event {
+
+    @Label("Bots")
+    @Timespan(Timespan.NANOSECONDS)
+    long bots;
+
+    @Label("Leaves")
+    @Timespan(Timespan.NANOSECONDS)
+    long leaves;
+
+    @Label("Objects")
+    @Description("Updates, physics and collisions of all GameObjects")
+    @Timespan(Timespan.NANOSECONDS)
+    long objects;
+
+    @Label("Streaming")
+    @Description("Generation and eviction of columns following the actors")
+    @Timespan(Timespan.NANOSECONDS)
+    long streaming;
+
+    @Label("Generation")
+    @Timespan(Timespan.NANOSECONDS)
+    long generation;
+
+    @Label("Eviction")
+    @Timespan(Timespan.NANOSECONDS)
+    long eviction;
+
+    @Label("Prefetch")
+    @Timespan(Timespan.NANOSECONDS)
+    long prefetch;
+
+    @Label("Stats")
+    @Timespan(Timespan.NANOSECONDS)
+    long stats;
+
+    @Label("Generated Columns")
+    int generatedColumns;
+
+    @Label("Evicted Columns")
+    int evictedColumns;
+}
@@ -0,0 +1,216 @@
+package pepse.stats;
+
+import jdk.jfr.EventType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Times the subsystems of every frame of the game into a LatencyHistogram per subsystem, and emits a JFR
+ * FrameEvent per frame. The game reads the clock once between consecutive subsystems and hands the
+ * profiler the previous reading, so each subsystem costs a single System.nanoTime call. Columns are timed
+ * one by one as they are generated and evicted, inside the frame's streaming.
+ */
+public class FrameProfiler {
+
+    /**
+     * The timed parts of the game.
+     */
+    public enum Subsystem {
+        /** Bots deciding on their input. */
+        BOTS,
+        /** The LeafSystem animating all leaves. */
+        LEAVES,
+        /** Updates, physics and collisions of all GameObjects. */
+        OBJECTS,
+        /** Following the actors with the created ranges, including generation and eviction. */
+        STREAMING,
+        /** Generating a single column. */
+        GENERATION,
+        /** Evicting a single column. */
+        EVICTION,
+        /** Scheduling the prefetching of upcoming columns. */
+        PREFETCH,
+        /** The world census and the debug overlay. */
+        STATS,
+        /** A whole frame. */
+        FRAME
+    }
+
+    /* Constants */
+    private static final Subsystem[] SUBSYSTEMS = Subsystem.values();
+    private static final double[] PERCENTILES = {0, 50, 75, 90, 95, 99, 99.9, 99.99, 100};
+    private static final String CSV_HEADER = "subsystem,percentile,value_ns,count,mean_ns";
+    private static final EventType FRAME_EVENT_TYPE = EventType.getEventType(FrameEvent.class);
+
+    /* Private members */
+    private final LatencyHistogram[] histograms = new LatencyHistogram[SUBSYSTEMS.length];
+    private final long[] frameNanos = new long[SUBSYSTEMS.length];  // time per subsystem in this frame
+    private int frameGeneratedColumns;
+    private int frameEvictedColumns;
+    private FrameEvent event;  // event of the current frame, or null if JFR isn't recording it
+
+    /* Public methods */
+    /**
+     * Constructor.
+     */
+    public FrameProfiler() {
+        for (int i = 0; i < SUBSYSTEMS.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Starts timing a frame.
+     */
+    public void beginFrame() {
+        Arrays.fill(frameNanos, 0);
+        this.frameGeneratedColumns = 0;
+        this.frameEvictedColumns = 0;
+        // Only allocate an event while JFR records it, so that frames create no garbage otherwise
+        this.event = FRAME_EVENT_TYPE.isEnabled() ? new FrameEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+    }
+
+    /**
+     * Records the time a subsystem took, from a previous reading of the clock until now.
+     * @param subsystem The subsystem.
+     * @param start Reading of System.nanoTime when the subsystem started.
+     * @return Reading of System.nanoTime now, when the next subsystem starts.
+     */
+    public long lap(Subsystem subsystem, long start) {
+        long now = System.nanoTime();
+        record(subsystem, now - start);
+        return now;
+    }
+
+    /**
+     * Records the time a column took to be generated or evicted, from a previous reading of the clock
+     * until now.
+     * @param subsystem GENERATION or EVICTION.
+     * @param start Reading of System.nanoTime when the column started.
+     */
+    public void lapColumn(Subsystem subsystem, long start) {
+        record(subsystem, System.nanoTime() - start);
+        if (subsystem == Subsystem.GENERATION) {
+            frameGeneratedColumns++;
+        } else {
+            frameEvictedColumns++;
+        }
+    }
+
+    /**
+     * Ends timing a frame, recording its whole duration and committing its JFR event.
+     * @param frameStart Reading of System.nanoTime when the frame started.
+     */
+    public void endFrame(long frameStart) {
+        lap(Subsystem.FRAME, frameStart);
+        if (event != null && event.shouldCommit()) {
+            event.bots = frameNanos[Subsystem.BOTS.ordinal()];
+            event.leaves = frameNanos[Subsystem.LEAVES.ordinal()];
+            event.objects = frameNanos[Subsystem.OBJECTS.ordinal()];
+            event.streaming = frameNanos[Subsystem.STREAMING.ordinal()];
+            event.generation = frameNanos[Subsystem.GENERATION.ordinal()];
+            event.eviction = frameNanos[Subsystem.EVICTION.ordinal()];
+            event.prefetch = frameNanos[Subsystem.PREFETCH.ordinal()];
+            event.stats = frameNanos[Subsystem.STATS.ordinal()];
+            event.generatedColumns = frameGeneratedColumns;
+            event.evictedColumns = frameEvictedColumns;
+            event.commit();
+        }
+        this.event = null;
+    }
+
+    /**
+     * @param subsystem A subsystem.
+     * @return The histogram of the times the subsystem took.
+     */
+    public LatencyHistogram getHistogram(Subsystem subsystem) {
+        return histograms[subsystem.ordinal()];
+    }
+
+    /**
+     * Forgets all recorded times.
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Writes the percentile distribution of every subsystem as CSV, replacing the file if it exists.
+     * @param path Path of the file.
+     * @throws IOException If the file can't be written.
+     */
+    public void writeCsv(Path path) throws IOException {
+        writeCsv(path, histograms);
+    }
+
+    /**
+     * Writes the percentile distribution of every subsystem as CSV in the background, from a copy of the
+     * histograms taken at once, so the game thread never waits for the file.
+     * @param path Path of the file.
+     * @return A future completed once the file is written.
+     */
+    public CompletableFuture<Void> writeCsvAsync(Path path) {
+        LatencyHistogram[] copies = new LatencyHistogram[histograms.length];
+        for (int i = 0; i < histograms.length; i++) {
+            copies[i] = new LatencyHistogram();
+            copies[i].add(histograms[i]);
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                writeCsv(path, copies);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * @return A line per subsystem with its count, mean, 99th percentile and maximum, in milliseconds.
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        for (Subsystem subsystem : SUBSYSTEMS) {
+            LatencyHistogram histogram = getHistogram(subsystem);
+            summary.append(String.format("%-10s %8d x  mean %7.3f  p99 %7.3f  max %7.3f ms%n", subsystem,
+                    histogram.getTotalCount(), histogram.getMean() / 1e6,
+                    histogram.valueAtPercentile(99) / 1e6, histogram.getMax() / 1e6));
+        }
+        return summary.toString();
+    }
+
+    /* Private methods */
+
+    /* Records a duration of a subsystem, adding it to the subsystem's time in this frame */
+    private void record(Subsystem subsystem, long nanos) {
+        histograms[subsystem.ordinal()].record(nanos);
+        frameNanos[subsystem.ordinal()] += nanos;
+    }
+
+    /* Writes the percentile distributions of histograms, one per subsystem, as CSV */
+    private static void writeCsv(Path path, LatencyHistogram[] histograms) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            for (Subsystem subsystem : SUBSYSTEMS) {
+                LatencyHistogram histogram = histograms[subsystem.ordinal()];
+                for (double percentile : PERCENTILES) {
+                    writer.write(subsystem + "," + percentile + "," +
+                            histogram.valueAtPercentile(percentile) + "," + histogram.getTotalCount() + "," +
+                            Math.round(histogram.getMean()));
+                    writer.newLine();
+                }
+            }
+        }
+    }
+}
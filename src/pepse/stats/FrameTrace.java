@@ -0,0 +1,77 @@
+package pepse.stats;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A trace of the time every frame of the game took to update, along with the time step it simulated. Used
+ * with replays, where runs are repeated exactly, to compare frame times of the same run before and after a
+ * change.
+ */
+public class FrameTrace {
+
+    /* Constants */
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final String CSV_HEADER = "frame,delta_time_s,update_ns";
+
+    /* Private members */
+    private float[] deltaTimes = new float[INITIAL_CAPACITY];
+    private long[] updateNanos = new long[INITIAL_CAPACITY];
+    private int frameCount;
+
+    /* Public methods */
+    /**
+     * Records a frame.
+     * @param deltaTime The time, in seconds, that the frame simulated.
+     * @param nanos The time, in nanoseconds, that updating the frame took.
+     */
+    public void record(float deltaTime, long nanos) {
+        if (frameCount == deltaTimes.length) {
+            this.deltaTimes = Arrays.copyOf(deltaTimes, 2 * frameCount);
+            this.updateNanos = Arrays.copyOf(updateNanos, 2 * frameCount);
+        }
+        deltaTimes[frameCount] = deltaTime;
+        updateNanos[frameCount] = nanos;
+        frameCount++;
+    }
+
+    /**
+     * Writes the trace as CSV, one line per frame, replacing the file if it exists.
+     * @param path Path of the file.
+     * @throws IOException If the file can't be written.
+     */
+    public void writeCsv(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            for (int frame = 0; frame < frameCount; frame++) {
+                writer.write(frame + "," + deltaTimes[frame] + "," + updateNanos[frame]);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * @return Number of recorded frames.
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return A single line summing up the trace.
+     */
+    public String summary() {
+        long total = 0;
+        long max = 0;
+        for (int frame = 0; frame < frameCount; frame++) {
+            total += updateNanos[frame];
+            max = Math.max(max, updateNanos[frame]);
+        }
+        double mean = frameCount == 0 ? 0 : (double) total / frameCount;
+        return String.format("%d frames, %.3f ms/frame mean, %.3f ms max", frameCount, mean / 1e6, max / 1e6);
+    }
+}
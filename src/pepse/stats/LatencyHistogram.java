@@ -0,0 +1,134 @@
+package pepse.stats;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of durations in nanoseconds, in the style of HdrHistogram: values are counted in buckets
+ * that are linear within every power of two, so any value from a nanosecond to hours is recorded with a
+ * relative error under 2%, in a fixed array and without allocating. Recording is a few arithmetic
+ * operations and an increment, cheap enough to time every frame and every column.
+ */
+public class LatencyHistogram {
+
+    /* Constants */
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;  // linear buckets per power of two
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT =
+            (Long.SIZE - SUB_BUCKET_BITS + 1) * HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+
+    /* Private members */
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long totalNanos;
+    private long max;
+
+    /* Public methods */
+    /**
+     * Records a duration.
+     * @param nanos The duration, in nanoseconds. Negative durations are recorded as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[indexOf(value)]++;
+        totalCount++;
+        totalNanos += value;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds all durations recorded by another histogram to this one.
+     * @param other The other histogram.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalNanos += other.totalNanos;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Forgets all recorded durations.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        this.totalCount = 0;
+        this.totalNanos = 0;
+        this.max = 0;
+    }
+
+    /**
+     * @param percentile A percentile, between 0 and 100.
+     * @return The highest duration, in nanoseconds, of the given percentile of recorded durations, up to
+     * the precision of the histogram; exact for 100.
+     */
+    public long valueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        if (percentile >= 100) {
+            return max;
+        }
+        long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += counts[i];
+            if (count >= countAtPercentile) {
+                return Math.min(max, highestValueAt(i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return Number of recorded durations.
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return Sum of all recorded durations, in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return Mean of the recorded durations, in nanoseconds.
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) totalNanos / totalCount;
+    }
+
+    /**
+     * @return Longest recorded duration, in nanoseconds.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /* Private methods */
+
+    /* Returns the bucket of a value: values under SUB_BUCKET_COUNT have buckets of their own, and every
+    following power of two is split into HALF_SUB_BUCKET_COUNT buckets */
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * HALF_SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    /* Returns the highest value counted in a bucket */
+    private static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - HALF_SUB_BUCKET_COUNT) / HALF_SUB_BUCKET_COUNT;
+        long subBucket = index - shift * HALF_SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,221 @@
+package pepse.stats;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import pepse.world.Block;
+import pepse.world.TileStore;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Census of the live world: GameObjects per layer, cached tiles, components attached to Blocks and
+ * generation/eviction rates. The census is taken on the game thread and published in volatile fields, so
+ * JMX clients and the debug overlay read a consistent view without touching the game objects.
+ */
+public class WorldStats implements WorldStatsMBean {
+
+    /* Constants */
+    private static final String OBJECT_NAME = "pepse:type=WorldStats";
+
+    /* Private members */
+    private final int skyLayer;
+    private final int topTerrainLayer;
+    private final int bottomTerrainLayer;
+    private final int trunkLayer;
+    private final int leafLayer;
+    private final int avatarLayer;
+    private long lastGeneratedColumns;
+    private long lastEvictedColumns;
+    // Last census
+    private volatile int skyObjects;
+    private volatile int topTerrainObjects;
+    private volatile int bottomTerrainObjects;
+    private volatile int trunkObjects;
+    private volatile int leafObjects;
+    private volatile int avatarObjects;
+    private volatile int totalObjects;
+    private volatile int cachedTiles;
+    private volatile int cachedObjects;
+    private volatile long totalComponents;
+    private volatile int maxComponents;
+    private volatile double generationRate;
+    private volatile double evictionRate;
+    private volatile int pendingColumns;
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param skyLayer Layer of the sky.
+     * @param topTerrainLayer Layer of the top terrain Blocks.
+     * @param bottomTerrainLayer Layer of the bottom terrain Blocks.
+     * @param trunkLayer Layer of the trunks.
+     * @param leafLayer Layer of the leaves.
+     * @param avatarLayer Layer of the avatar.
+     */
+    public WorldStats(int skyLayer, int topTerrainLayer, int bottomTerrainLayer, int trunkLayer,
+                      int leafLayer, int avatarLayer) {
+        this.skyLayer = skyLayer;
+        this.topTerrainLayer = topTerrainLayer;
+        this.bottomTerrainLayer = bottomTerrainLayer;
+        this.trunkLayer = trunkLayer;
+        this.leafLayer = leafLayer;
+        this.avatarLayer = avatarLayer;
+    }
+
+    /**
+     * Registers the census with the platform MBean server, replacing the census of a previous game.
+     * Failing to register only disables the JMX view; the game and the overlay are unaffected.
+     */
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            System.err.println("Could not register " + OBJECT_NAME + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Takes a census of the world. Must be called on the game thread.
+     * @param gameObjects The collection of GameObjects in the current world.
+     * @param cache Store recording all gameObjects created in every tile.
+     * @param generatedColumns Number of columns generated since the game started.
+     * @param evictedColumns Number of columns evicted since the game started.
+     * @param pendingColumns Number of columns that were due but still waited to be built.
+     * @param elapsedTime Time since the previous census, in seconds.
+     */
+    public void takeCensus(GameObjectCollection gameObjects, TileStore cache, long generatedColumns,
+                           long evictedColumns, int pendingColumns, float elapsedTime) {
+        this.skyObjects = countObjects(gameObjects, skyLayer);
+        this.topTerrainObjects = countObjects(gameObjects, topTerrainLayer);
+        this.bottomTerrainObjects = countObjects(gameObjects, bottomTerrainLayer);
+        this.trunkObjects = countObjects(gameObjects, trunkLayer);
+        this.leafObjects = countObjects(gameObjects, leafLayer);
+        this.avatarObjects = countObjects(gameObjects, avatarLayer);
+        // Count all objects, and the components attached to Blocks
+        int total = 0;
+        long components = 0;
+        int maxPerObject = 0;
+        for (GameObject gameObject : gameObjects) {
+            total++;
+            if (gameObject instanceof Block) {
+                int count = ((Block) gameObject).getComponentCount();
+                components += count;
+                maxPerObject = Math.max(maxPerObject, count);
+            }
+        }
+        this.totalObjects = total;
+        this.totalComponents = components;
+        this.maxComponents = maxPerObject;
+        this.cachedTiles = cache.getTileCount();
+        this.cachedObjects = cache.getObjectCount();
+        if (elapsedTime > 0) {
+            this.generationRate = (generatedColumns - lastGeneratedColumns) / elapsedTime;
+            this.evictionRate = (evictedColumns - lastEvictedColumns) / elapsedTime;
+        }
+        this.lastGeneratedColumns = generatedColumns;
+        this.lastEvictedColumns = evictedColumns;
+        this.pendingColumns = pendingColumns;
+    }
+
+    /**
+     * @return A one-line summary of the last census, for the debug overlay.
+     */
+    public String summary() {
+        return String.format("objects %d (sky %d, terrain %d/%d, trunk %d, leaf %d, avatar %d) | " +
+                        "tiles %d, cached objects %d, pending %d | components %d, max %d | " +
+                        "gen %.1f/s, evict %.1f/s",
+                totalObjects, skyObjects, topTerrainObjects, bottomTerrainObjects, trunkObjects, leafObjects,
+                avatarObjects, cachedTiles, cachedObjects, pendingColumns, totalComponents, maxComponents,
+                generationRate, evictionRate);
+    }
+
+    @Override
+    public int getSkyObjects() {
+        return skyObjects;
+    }
+
+    @Override
+    public int getTopTerrainObjects() {
+        return topTerrainObjects;
+    }
+
+    @Override
+    public int getBottomTerrainObjects() {
+        return bottomTerrainObjects;
+    }
+
+    @Override
+    public int getTrunkObjects() {
+        return trunkObjects;
+    }
+
+    @Override
+    public int getLeafObjects() {
+        return leafObjects;
+    }
+
+    @Override
+    public int getAvatarObjects() {
+        return avatarObjects;
+    }
+
+    @Override
+    public int getTotalObjects() {
+        return totalObjects;
+    }
+
+    @Override
+    public int getCachedTiles() {
+        return cachedTiles;
+    }
+
+    @Override
+    public int getCachedObjects() {
+        return cachedObjects;
+    }
+
+    @Override
+    public long getTotalComponents() {
+        return totalComponents;
+    }
+
+    @Override
+    public int getMaxComponents() {
+        return maxComponents;
+    }
+
+    @Override
+    public double getGenerationRate() {
+        return generationRate;
+    }
+
+    @Override
+    public double getEvictionRate() {
+        return evictionRate;
+    }
+
+    @Override
+    public int getPendingColumns() {
+        return pendingColumns;
+    }
+
+    /* Private methods */
+
+    /* Counts the GameObjects on a layer */
+    private static int countObjects(GameObjectCollection gameObjects, int layer) {
+        int count = 0;
+        for (GameObject ignored : gameObjects.objectsInLayer(layer)) {
+            count++;
+        }
+        return count;
+    }
+
+}
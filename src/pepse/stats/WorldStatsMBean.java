@@ -0,0 +1,78 @@
+package pepse.stats;
+
+/**
+ * Management interface of the live world census, exposed over JMX as pepse:type=WorldStats. All values
+ * are taken from the last census, which the game thread takes about once per second.
+ */
+public interface WorldStatsMBean {
+
+    /**
+     * @return Number of GameObjects on the sky layer.
+     */
+    int getSkyObjects();
+
+    /**
+     * @return Number of GameObjects on the top terrain layer.
+     */
+    int getTopTerrainObjects();
+
+    /**
+     * @return Number of GameObjects on the bottom terrain layer.
+     */
+    int getBottomTerrainObjects();
+
+    /**
+     * @return Number of GameObjects on the trunk layer.
+     */
+    int getTrunkObjects();
+
+    /**
+     * @return Number of GameObjects on the leaf layer.
+     */
+    int getLeafObjects();
+
+    /**
+     * @return Number of GameObjects on the avatar layer.
+     */
+    int getAvatarObjects();
+
+    /**
+     * @return Number of GameObjects on all layers.
+     */
+    int getTotalObjects();
+
+    /**
+     * @return Number of tiles in the tile cache.
+     */
+    int getCachedTiles();
+
+    /**
+     * @return Number of GameObjects recorded in the tile cache.
+     */
+    int getCachedObjects();
+
+    /**
+     * @return Number of components attached to Blocks after their construction, summed over all Blocks.
+     */
+    long getTotalComponents();
+
+    /**
+     * @return Largest number of components attached to a single Block after its construction.
+     */
+    int getMaxComponents();
+
+    /**
+     * @return Columns generated per second since the previous census.
+     */
+    double getGenerationRate();
+
+    /**
+     * @return Columns evicted per second since the previous census.
+     */
+    double getEvictionRate();
+
+    /**
+     * @return Number of columns that were due but still waited to be built.
+     */
+    int getPendingColumns();
+}
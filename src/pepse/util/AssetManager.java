@@ -0,0 +1,203 @@
+package pepse.util;
+
+import danogl.gui.ImageReader;
+import danogl.gui.rendering.ImageRenderable;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Loads and caches the assets of a game, so that every object using an asset shares a single copy of it.
+ * Groups of images, such as the frames of an animation, are decoded in parallel and packed side by side
+ * into a single atlas image, which every frame is a view of. Images that can't be decoded from disk are
+ * read through the game's ImageReader instead, as are all images when decoding is off, such as in headless
+ * games. Safe to share between games running on different threads.
+ */
+public class AssetManager {
+
+    /* Private members */
+    private final ImageReader imageReader;
+    private final boolean decodesImages;
+    private final Map<String, CompletableFuture<BufferedImage[]>> decodedAtlases = new ConcurrentHashMap<>();
+    private final Map<String, ImageRenderable[]> atlases = new ConcurrentHashMap<>();
+    private final Map<String, Object> assets = new ConcurrentHashMap<>();
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param imageReader Reader of images that aren't decoded from disk.
+     * @param decodesImages Whether images are decoded from disk into atlases. If false, every image is read
+     *                      through the ImageReader, and nothing is decoded in the background.
+     */
+    public AssetManager(ImageReader imageReader, boolean decodesImages) {
+        this.imageReader = imageReader;
+        this.decodesImages = decodesImages;
+    }
+
+    /**
+     * Constructor. Images are decoded from disk into atlases.
+     * @param imageReader Reader of images that can't be decoded from disk.
+     */
+    public AssetManager(ImageReader imageReader) {
+        this(imageReader, true);
+    }
+
+    /**
+     * Starts decoding a group of images in the background, if it hasn't started yet, so that a later call
+     * to loadAtlas with the same name finds it ready.
+     * @param name Name of the atlas.
+     * @param paths Paths of the images, in the order of the frames.
+     * @param isTopLeftPixelTransparent Whether pixels of the color of an image's top-left pixel are
+     *                                  transparent.
+     */
+    public void preloadAtlas(String name, String[] paths, boolean isTopLeftPixelTransparent) {
+        if (!decodesImages || atlases.containsKey(name)) {
+            return;
+        }
+        decodedAtlases.computeIfAbsent(name, key -> decodeAll(paths, isTopLeftPixelTransparent));
+    }
+
+    /**
+     * Loads a group of images as frames of a single atlas. Loaded once per name; later calls return the
+     * same frames.
+     * @param name Name of the atlas.
+     * @param paths Paths of the images, in the order of the frames.
+     * @param isTopLeftPixelTransparent Whether pixels of the color of an image's top-left pixel are
+     *                                  transparent.
+     * @return The frames, in the order of their paths.
+     */
+    public ImageRenderable[] loadAtlas(String name, String[] paths, boolean isTopLeftPixelTransparent) {
+        ImageRenderable[] frames = atlases.get(name);
+        if (frames != null) {
+            return frames;
+        }
+        BufferedImage[] images = null;
+        CompletableFuture<BufferedImage[]> decoding = null;
+        if (decodesImages) {
+            decoding = decodedAtlases.computeIfAbsent(name,
+                    key -> decodeAll(paths, isTopLeftPixelTransparent));
+            images = decoding.join();
+        }
+        if (images == null) {
+            // Decoding is off or some image isn't on disk; read all of them through the game
+            frames = new ImageRenderable[paths.length];
+            for (int i = 0; i < paths.length; i++) {
+                frames[i] = imageReader.readImage(paths[i], isTopLeftPixelTransparent);
+            }
+        } else {
+            frames = packAtlas(images);
+        }
+        // Another thread may have loaded the atlas meanwhile; keep the first, so that all share it
+        ImageRenderable[] loaded = atlases.putIfAbsent(name, frames);
+        if (decoding != null) {
+            decodedAtlases.remove(name, decoding);
+        }
+        return loaded != null ? loaded : frames;
+    }
+
+    /**
+     * Returns a cached asset, creating it on first use.
+     * @param name Name of the asset. Every name must always be used with the same type.
+     * @param factory Creates the asset.
+     * @param <T> Type of the asset.
+     * @return The asset.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String name, Supplier<T> factory) {
+        Object asset = assets.get(name);
+        if (asset == null) {
+            // Not created in computeIfAbsent, as the factory may load other assets. If another thread
+            // created the asset meanwhile, keep the first, so that all share it
+            asset = factory.get();
+            Object created = assets.putIfAbsent(name, asset);
+            if (created != null) {
+                asset = created;
+            }
+        }
+        return (T) asset;
+    }
+
+    /* Private methods */
+
+    /* Decodes images from disk in parallel. Completes with null if any image can't be decoded */
+    private static CompletableFuture<BufferedImage[]> decodeAll(String[] paths,
+                                                                boolean isTopLeftPixelTransparent) {
+        CompletableFuture<?>[] decoding = new CompletableFuture<?>[paths.length];
+        BufferedImage[] images = new BufferedImage[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            int frame = i;
+            decoding[i] = CompletableFuture.runAsync(
+                    () -> images[frame] = decode(paths[frame], isTopLeftPixelTransparent));
+        }
+        return CompletableFuture.allOf(decoding).handle((ignored, failure) -> {
+            if (failure != null) {
+                return null;
+            }
+            for (BufferedImage image : images) {
+                if (image == null) {
+                    return null;
+                }
+            }
+            return images;
+        });
+    }
+
+    /* Decodes a single image into ARGB, or returns null if it can't be decoded */
+    private static BufferedImage decode(String path, boolean isTopLeftPixelTransparent) {
+        BufferedImage decoded;
+        try {
+            decoded = ImageIO.read(new File(path));
+        } catch (IOException e) {
+            return null;
+        }
+        if (decoded == null) {
+            return null;
+        }
+        BufferedImage image = new BufferedImage(decoded.getWidth(), decoded.getHeight(),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.drawImage(decoded, 0, 0, null);
+        graphics.dispose();
+        if (isTopLeftPixelTransparent) {
+            int transparentColor = image.getRGB(0, 0);
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < image.getWidth(); x++) {
+                    if (image.getRGB(x, y) == transparentColor) {
+                        image.setRGB(x, y, 0);
+                    }
+                }
+            }
+        }
+        return image;
+    }
+
+    /* Packs images side by side into a single atlas, and returns views of the atlas for every image */
+    private static ImageRenderable[] packAtlas(BufferedImage[] images) {
+        int width = 0;
+        int height = 0;
+        for (BufferedImage image : images) {
+            width += image.getWidth();
+            height = Math.max(height, image.getHeight());
+        }
+        BufferedImage atlas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = atlas.createGraphics();
+        ImageRenderable[] frames = new ImageRenderable[images.length];
+        int x = 0;
+        for (int i = 0; i < images.length; i++) {
+            graphics.drawImage(images[i], x, 0, null);
+            frames[i] = new ImageRenderable(atlas.getSubimage(x, 0, images[i].getWidth(),
+                    images[i].getHeight()));
+            x += images[i].getWidth();
+        }
+        graphics.dispose();
+        return frames;
+    }
+
+}
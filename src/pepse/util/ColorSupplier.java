@@ -36,6 +36,34 @@ public final class ColorSupplier {
                 randomChannelInRange(baseColor.getBlue()-colorDelta, baseColor.getBlue()+colorDelta));
     }
 
+    /**
+     * Returns a color similar to baseColor, with a default delta, sampled from the given Random. Calls with
+     * identically seeded Randoms return identical colors.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param random The Random to sample the color from.
+     * @return A color similar to baseColor.
+     */
+    public static Color approximateColor(Color baseColor, Random random) {
+        return approximateColor(baseColor, DEFAULT_COLOR_DELTA, random);
+    }
+
+    /**
+     * Returns a color similar to baseColor, with a difference of at most colorDelta, sampled from the given
+     * Random.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param colorDelta The maximal difference (per channel) between the sampled color and the base color.
+     * @param random The Random to sample the color from.
+     * @return A color similar to baseColor.
+     */
+    public static Color approximateColor(Color baseColor, int colorDelta, Random random) {
+        return new Color(
+                randomChannelInRange(baseColor.getRed()-colorDelta, baseColor.getRed()+colorDelta, random),
+                randomChannelInRange(baseColor.getGreen()-colorDelta, baseColor.getGreen()+colorDelta, random),
+                randomChannelInRange(baseColor.getBlue()-colorDelta, baseColor.getBlue()+colorDelta, random));
+    }
+
     /**
      * This method generates a random value for a color channel within the given range [min, max].
      *
@@ -44,6 +72,19 @@ public final class ColorSupplier {
      * @return A random number in the range [min, max], clipped to [0,255].
      */
     private static int randomChannelInRange(int min, int max) {
+        return randomChannelInRange(min, max, random);
+    }
+
+    /**
+     * This method generates a random value for a color channel within the given range [min, max], sampled
+     * from the given Random.
+     *
+     * @param min The lower bound of the given range.
+     * @param max The upper bound of the given range.
+     * @param random The Random to sample the value from.
+     * @return A random number in the range [min, max], clipped to [0,255].
+     */
+    private static int randomChannelInRange(int min, int max, Random random) {
         int channel = random.nextInt(max-min+1) + min;
         return Math.min(255, Math.max(channel, 0));
     }
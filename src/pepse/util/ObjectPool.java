@@ -0,0 +1,83 @@
+package pepse.util;
+
+/**
+ * A bounded pool of reusable objects. Objects are released into the pool when they are no longer used, and
+ * polled from it instead of allocating new ones. Counts hits (polls served from the pool) and misses (polls
+ * that found the pool empty), so the pool size can be tuned.
+ * @param <T> Type of the pooled objects.
+ */
+public class ObjectPool<T> {
+
+    /* Private members */
+    private final Object[] pooled;
+    private int size;
+    private long hits;
+    private long misses;
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param capacity Maximal number of objects kept in the pool. Objects released into a full pool are
+     *                 dropped and left to the garbage collector.
+     */
+    public ObjectPool(int capacity) {
+        this.pooled = new Object[capacity];
+    }
+
+    /**
+     * Takes an object out of the pool.
+     * @return A pooled object, or null if the pool is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        if (size == 0) {
+            misses++;
+            return null;
+        }
+        hits++;
+        T object = (T) pooled[--size];
+        pooled[size] = null;
+        return object;
+    }
+
+    /**
+     * Returns an object to the pool.
+     * @param object The object, which must no longer be used by its previous owner.
+     * @return Whether the object was pooled; false if the pool is full.
+     */
+    public boolean release(T object) {
+        if (size == pooled.length) {
+            return false;
+        }
+        pooled[size++] = object;
+        return true;
+    }
+
+    /**
+     * @return Number of objects currently in the pool.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Maximal number of objects kept in the pool.
+     */
+    public int getCapacity() {
+        return pooled.length;
+    }
+
+    /**
+     * @return Number of polls served from the pool.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return Number of polls that found the pool empty.
+     */
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,79 @@
+package pepse.util;
+
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+import java.awt.*;
+import java.util.Random;
+
+/**
+ * A bounded set of shared renderables, all approximating a single base color. Blocks pick their renderable
+ * by a seeded hash of their position, so any number of Blocks share a handful of renderables, and a
+ * regenerated Block always looks exactly like it did before.
+ */
+public class RenderablePalette {
+
+    /* Private members */
+    private final Color[] colors;
+    private final Renderable[] renderables;
+    private final long seed;
+
+    /* Public methods */
+    /**
+     * Constructor. Pre-builds all colors and renderables of the palette.
+     * @param baseColor The color all colors of the palette approximate.
+     * @param size Number of distinct colors in the palette.
+     * @param seed Seed from which the colors of the palette, and the choice between them, are derived.
+     */
+    public RenderablePalette(Color baseColor, int size, long seed) {
+        this.colors = new Color[size];
+        this.renderables = new Renderable[size];
+        this.seed = seed;
+        Random random = new Random(seed);
+        for (int i = 0; i < size; i++) {
+            colors[i] = ColorSupplier.approximateColor(baseColor, random);
+            renderables[i] = new RectangleRenderable(colors[i]);
+        }
+    }
+
+    /**
+     * Returns the color of a cell of the Block grid.
+     * @param column Column of the cell, i.e. x / Block.SIZE.
+     * @param row Row of the cell, i.e. y / Block.SIZE.
+     * @return The color of the cell. Always the same for the same cell, and the color of the renderable at
+     * indexOf(column, row).
+     */
+    public Color colorAt(int column, int row) {
+        return colors[indexOf(column, row)];
+    }
+
+    /**
+     * Returns the shared renderable at an index of the palette.
+     * @param index An index returned by indexOf.
+     * @return The renderable at the index.
+     */
+    public Renderable renderableAt(int index) {
+        return renderables[index];
+    }
+
+    /**
+     * @return Number of distinct colors in the palette.
+     */
+    public int size() {
+        return colors.length;
+    }
+
+    /**
+     * Returns the index of the palette picked by a cell of the Block grid. Lets the choice of color be made
+     * ahead of time, on any thread.
+     * @param column Column of the cell, i.e. x / Block.SIZE.
+     * @param row Row of the cell, i.e. y / Block.SIZE.
+     * @return The index of the cell's renderable. Always the same for the same cell.
+     */
+    public int indexOf(int column, int row) {
+        long hash = seed ^ (((long) column << 32) | (row & 0xFFFFFFFFL));
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return (int) Math.floorMod(hash, (long) colors.length);
+    }
+}
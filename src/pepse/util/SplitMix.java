@@ -0,0 +1,56 @@
+package pepse.util;
+
+/**
+ * A stateless, counter-based random number generator in the style of SplitMix64. Every value is a pure
+ * function of a stream and a draw index, so draws need no allocation, are thread-safe, and any draw can be
+ * recomputed at any time, such as when an evicted column is created again. Streams are derived from a seed
+ * and a key, such as the world seed and a column's x value.
+ */
+public class SplitMix {
+
+    /* Constants */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /* Public methods */
+    /**
+     * Derives a stream of draws from a seed and a key.
+     * @param seed The seed.
+     * @param key The key, e.g. the x value of a column.
+     * @return The stream.
+     */
+    public static long stream(long seed, long key) {
+        return mix(mix(seed) + (key + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Draws a uniformly distributed long.
+     * @param stream The stream to draw from.
+     * @param index Index of the draw in the stream.
+     * @return The draw.
+     */
+    public static long nextLong(long stream, long index) {
+        return mix(stream + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Draws a uniformly distributed int in [0, bound).
+     * @param stream The stream to draw from.
+     * @param index Index of the draw in the stream.
+     * @param bound Upper bound of the draw, exclusive. Must be positive.
+     * @return The draw.
+     */
+    public static int nextInt(long stream, long index, int bound) {
+        // Multiply the upper 32 bits by the bound instead of taking a biased remainder
+        return (int) (((nextLong(stream, index) >>> Integer.SIZE) * bound) >>> Integer.SIZE);
+    }
+
+    /* Private methods */
+
+    /* The SplitMix64 finalizer: a bijective mix of all 64 bits */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
@@ -2,13 +2,12 @@ package pepse.world;
 
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
-import danogl.gui.ImageReader;
 import danogl.gui.UserInputListener;
 import danogl.gui.rendering.AnimationRenderable;
 import danogl.gui.rendering.ImageRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import java.awt.event.KeyEvent;
+import pepse.util.AssetManager;
 
 /**
  * Represents an avatar to be used as the main character in the Pepse simulator. Can run, jump and fly.
@@ -24,24 +23,31 @@ public class Avatar extends GameObject {
     private static final String WALKING2_IMG_PATH = "assets/walking2.png";
     private static final String WALKING3_IMG_PATH = "assets/walking3.png";
     private static final String JUMPING1_IMG_PATH = "assets/jumping1.png";
+    // All frames, packed into a single atlas in this order
+    private static final String[] FRAME_PATHS = {IDLE1_IMG_PATH, IDLE2_IMG_PATH, IDLE3_IMG_PATH,
+            WALKING1_IMG_PATH, WALKING2_IMG_PATH, WALKING3_IMG_PATH, JUMPING1_IMG_PATH};
+    private static final String ATLAS_NAME = "avatar";
+    private static final String ANIMATIONS_NAME = "avatar.animations";
     // Attributes
     public static final float HEIGHT = 60;
     private static final float WIDTH = 30;
     private static final float SPEED = 300;
     private static final float GRAVITY = 500;
-    private static final float FULL_ENERGY = 100;
-    private static final float ENERGY_UNIT = 0.5f;
+    public static final float FULL_ENERGY = AvatarController.FULL_ENERGY;
     private static final double TIME_BETWEEN_CLIPS = 0.2;
+    private static final float FLYING_ANGLE = 300;
 
 
     /* Private members */
-    private static UserInputListener inputListener;
-    private static ImageReader imageReader;
-    // Animations to be used to render the Avatar within the Pepse world
-    private static AnimationRenderable idle;
-    private static AnimationRenderable walkingRight;
-    private static AnimationRenderable jumping;
-    private float energy;
+    private final UserInputListener inputListener;
+    // Animations to be used to render the Avatar within the Pepse world, shared by all avatars
+    private final AnimationRenderable idle;
+    private final AnimationRenderable walkingRight;
+    private final AnimationRenderable jumping;
+    private final AvatarController controller = new AvatarController(SPEED);
+    private AvatarController.State renderedState = AvatarController.State.IDLE;
+    private boolean renderedFacingLeft;
+    private MovementResolver movementResolver;  // moves the Avatar through the world, if set
 
     /* Public methods */
     /**
@@ -49,11 +55,23 @@ public class Avatar extends GameObject {
      * @param topLeftCorner Position of the object, in window coordinates (pixels).
      *                      Note that (0,0) is the top-left corner of the window.
      * @param dimensions    Width and height in window coordinates.
-     * @param renderable    The renderable representing the object. Can be null, in which case
+     * @param inputListener Contains a single method: isKeyPressed, which returns whether a given key is
+     *                      currently pressed by the user or not.
+     * @param assets        The game's assets, from which the Avatar's animations are loaded once.
      */
-    public Avatar(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
-        super(topLeftCorner, dimensions, renderable);
-        this.energy = FULL_ENERGY;
+    public Avatar(Vector2 topLeftCorner, Vector2 dimensions, UserInputListener inputListener,
+                  AssetManager assets) {
+        this(topLeftCorner, dimensions, inputListener,
+                assets.get(ANIMATIONS_NAME, () -> loadAnimations(assets)));
+    }
+
+    /**
+     * Starts decoding the Avatar's images in the background, so that they are ready by the time the first
+     * Avatar is created.
+     * @param assets The game's assets.
+     */
+    public static void preloadAssets(AssetManager assets) {
+        assets.preloadAtlas(ATLAS_NAME, FRAME_PATHS, true);
     }
 
     /**
@@ -63,16 +81,13 @@ public class Avatar extends GameObject {
      * @param topLeftCorner The coordinates at which the avatar shall be placed within the simulator.
      * @param inputListener Contains a single method: isKeyPressed, which returns whether a given key is
      *                      currently pressed by the user or not.
-     * @param imageReader Contains a single method: readImage, which reads an image from disk.
+     * @param assets The game's assets, from which the avatar's animations are loaded once.
      * @return The Avatar created.
      */
     public static Avatar create(GameObjectCollection gameObjects, int layer,
                                 Vector2 topLeftCorner, UserInputListener inputListener,
-                                ImageReader imageReader) {
-        Avatar.inputListener = inputListener;
-        Avatar.imageReader = imageReader;
-        initAnimations();
-        Avatar avatar = new Avatar(topLeftCorner, new Vector2(WIDTH, HEIGHT), idle);
+                                AssetManager assets) {
+        Avatar avatar = new Avatar(topLeftCorner, new Vector2(WIDTH, HEIGHT), inputListener, assets);
         gameObjects.addGameObject(avatar, layer);
         avatar.physics().preventIntersectionsFromDirection(Vector2.ZERO);
         avatar.transform().setAccelerationY(GRAVITY);  // forces Avatar to abide by gravity
@@ -86,61 +101,100 @@ public class Avatar extends GameObject {
      */
     @Override
     public void update(float deltaTime) {
+        Vector2 previousTopLeft = getTopLeftCorner();
         super.update(deltaTime);
-
-        // Reset the avatar to idle position by default
-        this.renderer().setRenderable(idle);
-        this.renderer().setRenderableAngle(0);
-        float yVelocity = getVelocity().y();
-        // Gain energy while on the ground
-        if (yVelocity == 0 && energy < FULL_ENERGY) {
-            energy += ENERGY_UNIT;
+        // Stand on the ground, as decided by the world geometry or by collisions stopping the Avatar's fall
+        boolean grounded;
+        if (movementResolver != null) {
+            grounded = movementResolver.resolve(this, previousTopLeft);
+        } else {
+            grounded = getVelocity().y() == 0;
         }
-        // Halt lateral movement
-        setVelocity(new Vector2(0, yVelocity));
-
-        // Move the avatar based on user input
-        // Fly
-        if (inputListener.isKeyPressed((KeyEvent.VK_SPACE)) &&
-                inputListener.isKeyPressed((KeyEvent.VK_SHIFT)) && energy > 0) {
-            this.renderer().setRenderable(jumping);
-            this.renderer().setRenderableAngle(300f);
-            setVelocity(new Vector2(0, -SPEED));
-            energy -= ENERGY_UNIT;
+        // Move by the keys pressed this frame, read once
+        controller.update(AvatarController.readInput(inputListener), grounded, getVelocity().y(), deltaTime);
+        transform().setVelocityX(controller.getVelocityX());
+        transform().setVelocityY(controller.getVelocityY());
+        // Switch animations only when the Avatar starts doing something else
+        if (controller.getState() != renderedState) {
+            renderedState = controller.getState();
+            renderer().setRenderable(renderableOf(renderedState));
+            renderer().setRenderableAngle(renderedState == AvatarController.State.FLY ? FLYING_ANGLE : 0);
         }
-        // Walk left
-        if(inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
-            this.renderer().setRenderable(walkingRight);
-            this.renderer().setIsFlippedHorizontally(true);
-            setVelocity(new Vector2(-SPEED, yVelocity));
+        if (controller.isFacingLeft() != renderedFacingLeft) {
+            renderedFacingLeft = controller.isFacingLeft();
+            renderer().setIsFlippedHorizontally(renderedFacingLeft);
         }
-        // Walk right
-        if(inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) {
-            this.renderer().setRenderable(walkingRight);
-            this.renderer().setIsFlippedHorizontally(false);
-            setVelocity(new Vector2(SPEED, yVelocity));
-        }
-        // Jump
-        if (inputListener.isKeyPressed((KeyEvent.VK_SPACE)) && yVelocity == 0) {
-            setVelocity(new Vector2(0, -SPEED));
+    }
+
+    /**
+     * Sets a resolver moving the Avatar through the world by its geometry. The Avatar's layer should then
+     * not collide with the terrain and trunk layers.
+     * @param movementResolver The resolver, or null to move by collisions.
+     */
+    public void setMovementResolver(MovementResolver movementResolver) {
+        this.movementResolver = movementResolver;
+    }
+
+    /**
+     * @return Energy left for flying.
+     */
+    public float getEnergy() {
+        return controller.getEnergy();
+    }
+
+    /**
+     * Setter for the energy left for flying, such as when a saved world is restored.
+     * @param energy Energy left for flying.
+     */
+    public void setEnergy(float energy) {
+        controller.setEnergy(energy);
+    }
+
+    /* Private methods */
+
+    /* Constructs an Avatar rendered by the given animations, starting idle */
+    private Avatar(Vector2 topLeftCorner, Vector2 dimensions, UserInputListener inputListener,
+                   AnimationRenderable[] animations) {
+        super(topLeftCorner, dimensions, animations[0]);
+        this.inputListener = inputListener;
+        this.idle = animations[0];
+        this.walkingRight = animations[1];
+        this.jumping = animations[2];
+    }
+
+    /* Returns the animation rendering the Avatar in a given state */
+    private Renderable renderableOf(AvatarController.State state) {
+        switch (state) {
+            case WALK:
+                return walkingRight;
+            case JUMP:
+            case FLY:
+            case FALL:
+                return jumping;
+            default:
+                return idle;
         }
     }
 
-    /* Initializes animations to be used to render the Avatar within the Pepse world */
-    private static void initAnimations() {
-        // Read images into imageRenderables
-        ImageRenderable idle1 = imageReader.readImage(IDLE1_IMG_PATH, true);
-        ImageRenderable idle2 = imageReader.readImage(IDLE2_IMG_PATH, true);
-        ImageRenderable idle3 = imageReader.readImage(IDLE3_IMG_PATH, true);
-        ImageRenderable walking1 = imageReader.readImage(WALKING1_IMG_PATH, true);
-        ImageRenderable walking2 = imageReader.readImage(WALKING2_IMG_PATH, true);
-        ImageRenderable walking3 = imageReader.readImage(WALKING3_IMG_PATH, true);
-        ImageRenderable jumping1 = imageReader.readImage(JUMPING1_IMG_PATH, true);
+    /* Creates the animations to be used to render the Avatar: idle, walking right and jumping */
+    private static AnimationRenderable[] loadAnimations(AssetManager assets) {
+        // Images in the order of FRAME_PATHS
+        ImageRenderable[] frames = assets.loadAtlas(ATLAS_NAME, FRAME_PATHS, true);
+        ImageRenderable idle1 = frames[0];
+        ImageRenderable idle2 = frames[1];
+        ImageRenderable idle3 = frames[2];
+        ImageRenderable walking1 = frames[3];
+        ImageRenderable walking2 = frames[4];
+        ImageRenderable walking3 = frames[5];
+        ImageRenderable jumping1 = frames[6];
         // Create AnimationRenderables
-        idle = new AnimationRenderable( new ImageRenderable[]{ idle1, idle2, idle3 }, TIME_BETWEEN_CLIPS);
-        walkingRight = new AnimationRenderable(new ImageRenderable[]{walking1, walking2, walking3,
-                walking2}, TIME_BETWEEN_CLIPS);
-        jumping = new AnimationRenderable( new ImageRenderable[] { jumping1, idle1} , TIME_BETWEEN_CLIPS);
+        AnimationRenderable idle = new AnimationRenderable(new ImageRenderable[]{idle1, idle2, idle3},
+                TIME_BETWEEN_CLIPS);
+        AnimationRenderable walkingRight = new AnimationRenderable(new ImageRenderable[]{walking1, walking2,
+                walking3, walking2}, TIME_BETWEEN_CLIPS);
+        AnimationRenderable jumping = new AnimationRenderable(new ImageRenderable[]{jumping1, idle1},
+                TIME_BETWEEN_CLIPS);
+        return new AnimationRenderable[]{idle, walkingRight, jumping};
     }
 
 }
@@ -0,0 +1,159 @@
+package pepse.world;
+
+import danogl.gui.UserInputListener;
+import java.awt.event.KeyEvent;
+
+/**
+ * Decides how an Avatar moves, as a state machine over a snapshot of the input, read once per frame.
+ * Keeps the Avatar's energy for flying, gained and spent in units per second, so flying lasts as long at
+ * any frame rate. Holds no objects of its own; the resulting velocity is read from plain fields.
+ */
+public class AvatarController {
+
+    /**
+     * What the Avatar is doing.
+     */
+    public enum State {
+        /** Standing on the ground. */
+        IDLE,
+        /** Walking on the ground. */
+        WALK,
+        /** In the air, rising. */
+        JUMP,
+        /** Flying, spending energy. */
+        FLY,
+        /** In the air, falling. */
+        FALL
+    }
+
+    /* Constants */
+    // Bits of the input snapshot
+    public static final int LEFT = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int UP = 1 << 2;  // jump, or fly along with BOOST
+    public static final int BOOST = 1 << 3;
+    public static final float FULL_ENERGY = 100;
+    private static final float ENERGY_PER_SECOND = 30;  // gained on the ground and spent flying
+
+    /* Private members */
+    private final float speed;
+    private State state = State.IDLE;
+    private boolean facingLeft;
+    private float energy = FULL_ENERGY;
+    private float velocityX;
+    private float velocityY;
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param speed Speed of walking, jumping and flying, in pixels per second.
+     */
+    public AvatarController(float speed) {
+        this.speed = speed;
+    }
+
+    /**
+     * Takes a snapshot of the keys moving an Avatar.
+     * @param inputListener The input.
+     * @return The pressed keys, as bits of LEFT, RIGHT, UP and BOOST.
+     */
+    public static int readInput(UserInputListener inputListener) {
+        int input = 0;
+        if (inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
+            input |= LEFT;
+        }
+        if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) {
+            input |= RIGHT;
+        }
+        if (inputListener.isKeyPressed(KeyEvent.VK_SPACE)) {
+            input |= UP;
+        }
+        if (inputListener.isKeyPressed(KeyEvent.VK_SHIFT)) {
+            input |= BOOST;
+        }
+        return input;
+    }
+
+    /**
+     * Moves to the state of this frame and decides the velocity. Called once per frame.
+     * @param input The pressed keys, as returned by readInput.
+     * @param grounded Whether the Avatar stands on the ground.
+     * @param verticalVelocity The Avatar's vertical velocity after this frame's physics.
+     * @param deltaTime The time, in seconds, that passed since the last frame.
+     */
+    public void update(int input, boolean grounded, float verticalVelocity, float deltaTime) {
+        if (grounded) {
+            energy = Math.min(FULL_ENERGY, energy + ENERGY_PER_SECOND * deltaTime);
+        }
+        // Right wins when both directions are pressed
+        int direction = (input & RIGHT) != 0 ? 1 : (input & LEFT) != 0 ? -1 : 0;
+        if (direction != 0) {
+            facingLeft = direction < 0;
+        }
+        velocityX = direction * speed;
+        velocityY = verticalVelocity;
+        boolean flying = (input & (UP | BOOST)) == (UP | BOOST) && energy > 0;
+        if (flying) {
+            // Spent even when jumping off the ground instead
+            energy = Math.max(0, energy - ENERGY_PER_SECOND * deltaTime);
+        }
+        if (grounded && (input & UP) != 0) {
+            state = State.JUMP;
+            velocityX = 0;
+            velocityY = -speed;
+        } else if (flying) {
+            state = State.FLY;
+            // Only lifts when flying straight up; sideways keeps the vertical velocity
+            if (direction == 0) {
+                velocityY = -speed;
+            }
+        } else if (grounded) {
+            state = direction == 0 ? State.IDLE : State.WALK;
+        } else {
+            state = verticalVelocity < 0 ? State.JUMP : State.FALL;
+        }
+    }
+
+    /**
+     * @return What the Avatar is doing since the last update.
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return Whether the Avatar last moved to the left.
+     */
+    public boolean isFacingLeft() {
+        return facingLeft;
+    }
+
+    /**
+     * @return Horizontal velocity decided by the last update, in pixels per second.
+     */
+    public float getVelocityX() {
+        return velocityX;
+    }
+
+    /**
+     * @return Vertical velocity decided by the last update, in pixels per second.
+     */
+    public float getVelocityY() {
+        return velocityY;
+    }
+
+    /**
+     * @return Energy left for flying.
+     */
+    public float getEnergy() {
+        return energy;
+    }
+
+    /**
+     * Setter for the energy left for flying.
+     * @param energy Energy left for flying.
+     */
+    public void setEnergy(float energy) {
+        this.energy = energy;
+    }
+}
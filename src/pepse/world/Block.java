@@ -1,23 +1,132 @@
 package pepse.world;
 
 import danogl.GameObject;
+import danogl.components.Component;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.ObjectPool;
+import java.util.ArrayList;
 
 public class Block extends GameObject {
 
     /* Constants */
     public static final int SIZE = 30;
 
+    /* Private members */
+    private ArrayList<Component> attachedComponents;  // components added after construction
+    private boolean constructed;
+
     /* Public methods */
     /**
      * Construct a new Block instance.
      *
      * @param topLeftCorner Position of the object, in window coordinates (pixels).
      *                      Note that (0,0) is the top-left corner of the window.
-     * @param renderable    The renderable representing the object. Can be null, in which case
+     * @param renderable    The renderable representing the object. Can be null, in which case the
+     *                      Block is not rendered.
      */
     public Block(Vector2 topLeftCorner, Renderable renderable) {
-        super(topLeftCorner, Vector2.ONES.mult(SIZE), renderable);
+        this(topLeftCorner, 1, renderable);
+    }
+
+    /**
+     * Construct a new Block instance spanning several rows of the Block grid. Used to merge a column of
+     * contiguous Blocks into a single object.
+     *
+     * @param topLeftCorner Position of the object, in window coordinates (pixels).
+     *                      Note that (0,0) is the top-left corner of the window.
+     * @param rows          Number of Block rows the Block spans.
+     * @param renderable    The renderable representing the object. Can be null, in which case the
+     *                      Block is not rendered.
+     */
+    public Block(Vector2 topLeftCorner, int rows, Renderable renderable) {
+        super(topLeftCorner, new Vector2(SIZE, rows * SIZE), renderable);
+        this.constructed = true;
+    }
+
+    /**
+     * Takes a Block out of the pool and resets it, or creates a new Block if the pool is empty.
+     * @param pool Pool of recycled Blocks.
+     * @param topLeftCorner Position of the Block, in window coordinates (pixels).
+     * @param rows Number of Block rows the Block spans.
+     * @param renderable The renderable representing the Block.
+     * @return A Block in the given state, with no velocity, acceleration or attached components.
+     */
+    public static Block obtain(ObjectPool<Block> pool, Vector2 topLeftCorner, int rows,
+                               Renderable renderable) {
+        Block block = pool.poll();
+        if (block == null) {
+            return new Block(topLeftCorner, rows, renderable);
+        }
+        block.reset(topLeftCorner, rows, renderable);
+        return block;
+    }
+
+    /**
+     * Returns the index of the cell of the Block grid containing a coordinate, along either axis.
+     * @param coordinate An x or y coordinate, in window coordinates (pixels).
+     * @return The index of the column (for x) or row (for y) of the Block grid containing the coordinate.
+     */
+    public static int gridIndexOf(float coordinate) {
+        return (int) Math.floor(coordinate / SIZE);
+    }
+
+    /**
+     * Adds a component to the Block. Components added after construction are recorded, so they can be
+     * removed once the Block is recycled.
+     * @param component The component to add.
+     */
+    @Override
+    public void addComponent(Component component) {
+        super.addComponent(component);
+        if (constructed) {
+            if (attachedComponents == null) {
+                attachedComponents = new ArrayList<>();
+            }
+            attachedComponents.add(component);
+        }
+    }
+
+    /**
+     * Removes a component from the Block.
+     * @param component The component to remove.
+     */
+    @Override
+    public void removeComponent(Component component) {
+        super.removeComponent(component);
+        if (attachedComponents != null) {
+            attachedComponents.remove(component);
+        }
+    }
+
+    /**
+     * @return Number of components currently attached to the Block after its construction, such as
+     * Transitions and ScheduledTasks.
+     */
+    public int getComponentCount() {
+        return attachedComponents == null ? 0 : attachedComponents.size();
+    }
+
+    /**
+     * Resets a recycled Block to the state of a newly created one.
+     * @param topLeftCorner Position of the Block, in window coordinates (pixels).
+     * @param rows Number of Block rows the Block spans.
+     * @param renderable The renderable representing the Block.
+     */
+    public void reset(Vector2 topLeftCorner, int rows, Renderable renderable) {
+        // Detach all Transitions and ScheduledTasks of the Block's previous life
+        if (attachedComponents != null) {
+            for (Component component : attachedComponents) {
+                super.removeComponent(component);
+            }
+            attachedComponents.clear();
+        }
+        setDimensions(new Vector2(SIZE, rows * SIZE));
+        setTopLeftCorner(topLeftCorner);
+        transform().setVelocity(Vector2.ZERO);
+        transform().setAcceleration(Vector2.ZERO);
+        renderer().setRenderable(renderable);
+        renderer().setRenderableAngle(0);
+        renderer().setOpaqueness(1);
     }
-}
\ No newline at end of file
+}
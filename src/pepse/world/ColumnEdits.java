@@ -0,0 +1,235 @@
+package pepse.world;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Records the differences a player made to the procedurally generated world, so that they survive the
+ * eviction and regeneration of their columns. Only edited cells are recorded: every edit is a cell of a
+ * column, such as a grid row, and an int value, packed into a single long and kept in a primitive array per
+ * edited column, sorted by cell. Edited columns are found through a TileIndex keyed by column, so looking up
+ * the edits of a column takes constant time, and memory grows with the number of edits rather than with the
+ * distance explored.
+ */
+public class ColumnEdits {
+
+    /* Constants */
+    public static final int NONE = Integer.MIN_VALUE;  // returned for cells that were not edited
+    public static final int REMOVED = -1;  // the generated object at the cell was removed
+    private static final int INITIAL_COLUMN_SIZE = 2;
+    private static final int SAVED_EDIT_BYTES = 3 * Integer.BYTES;  // column, cell and value
+
+    /* Private members */
+    private final TileIndex index;  // slot of every edited column
+    // Edits of every slot, each packing its cell (high bits) and value (low bits), ascending by cell
+    private long[][] edits;
+    private int[] sizes;  // number of edits in each slot
+    private int[] columns;  // x value of the column of each slot, while the slot has edits
+    private int editCount;
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param capacity Number of edited columns recorded before the store first grows.
+     */
+    public ColumnEdits(int capacity) {
+        this.index = new TileIndex(capacity);
+        this.edits = new long[index.getCapacity()][];
+        this.sizes = new int[index.getCapacity()];
+        this.columns = new int[index.getCapacity()];
+    }
+
+    /**
+     * Records an edit, replacing any previous edit of the same cell.
+     * @param x The x value of the column.
+     * @param cell The edited cell of the column.
+     * @param value The value of the edit: REMOVED, or a non-negative value defined by the edited producer.
+     */
+    public void set(int x, int cell, int value) {
+        long key = keyOf(x);
+        int slot = index.find(key);
+        if (slot < 0) {
+            slot = index.insert(key);
+            if (slot >= sizes.length) {
+                growSlots();
+            }
+            if (edits[slot] == null) {
+                edits[slot] = new long[INITIAL_COLUMN_SIZE];
+            }
+            columns[slot] = x;
+        }
+        int size = sizes[slot];
+        int i = firstEditAtOrAfter(slot, cell);
+        if (i < size && cellAt(slot, i) == cell) {
+            edits[slot][i] = pack(cell, value);
+            return;
+        }
+        if (size == edits[slot].length) {
+            edits[slot] = Arrays.copyOf(edits[slot], 2 * size);
+        }
+        System.arraycopy(edits[slot], i, edits[slot], i + 1, size - i);
+        edits[slot][i] = pack(cell, value);
+        sizes[slot] = size + 1;
+        editCount++;
+    }
+
+    /**
+     * Forgets the edit of a cell, so that it is generated again. Does nothing if the cell wasn't edited.
+     * @param x The x value of the column.
+     * @param cell The cell of the column.
+     */
+    public void clear(int x, int cell) {
+        long key = keyOf(x);
+        int slot = index.find(key);
+        if (slot < 0) {
+            return;
+        }
+        int size = sizes[slot];
+        int i = firstEditAtOrAfter(slot, cell);
+        if (i == size || cellAt(slot, i) != cell) {
+            return;
+        }
+        System.arraycopy(edits[slot], i + 1, edits[slot], i, size - i - 1);
+        sizes[slot] = size - 1;
+        editCount--;
+        if (size == 1) {
+            // The column is as generated again; let go of its array, which may have grown large
+            index.remove(key);
+            edits[slot] = null;
+        }
+    }
+
+    /**
+     * @param x The x value of a column.
+     * @param cell A cell of the column.
+     * @return The value of the cell's edit, or NONE if it wasn't edited.
+     */
+    public int get(int x, int cell) {
+        int slot = slotOf(x);
+        if (slot < 0) {
+            return NONE;
+        }
+        int i = firstEditAtOrAfter(slot, cell);
+        return i < sizes[slot] && cellAt(slot, i) == cell ? valueAt(slot, i) : NONE;
+    }
+
+    /**
+     * Looks up the edits of a column, which are then read through cellAt and valueAt, in ascending order
+     * of cells. The slot is valid until the store is next modified.
+     * @param x The x value of a column.
+     * @return The slot of the column's edits, or -1 if the column wasn't edited.
+     */
+    public int slotOf(int x) {
+        return index.find(keyOf(x));
+    }
+
+    /**
+     * @param slot Slot of an edited column, as returned by slotOf.
+     * @return Number of edits of the column.
+     */
+    public int sizeOf(int slot) {
+        return sizes[slot];
+    }
+
+    /**
+     * @param slot Slot of an edited column, as returned by slotOf.
+     * @param cell A cell of the column.
+     * @return Position of the column's first edit at or after the cell, which is sizeOf(slot) if none is.
+     */
+    public int firstEditAtOrAfter(int slot, int cell) {
+        // Binary search for the smallest edit packed with the cell
+        long packed = pack(cell, 0);
+        int low = 0;
+        int high = sizes[slot];
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (edits[slot][middle] < packed) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param slot Slot of an edited column, as returned by slotOf.
+     * @param i Position of an edit of the column, below sizeOf(slot).
+     * @return The edited cell.
+     */
+    public int cellAt(int slot, int i) {
+        return (int) (edits[slot][i] >> Integer.SIZE);
+    }
+
+    /**
+     * @param slot Slot of an edited column, as returned by slotOf.
+     * @param i Position of an edit of the column, below sizeOf(slot).
+     * @return The value of the edit.
+     */
+    public int valueAt(int slot, int i) {
+        return (int) edits[slot][i];
+    }
+
+    /**
+     * Saves all edits, to be restored into another store, such as that of a restored world.
+     * @return A buffer holding the number of edits followed by the column, cell and value of each, ready to
+     * be read.
+     */
+    public ByteBuffer saveEdits() {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + editCount * SAVED_EDIT_BYTES);
+        buffer.putInt(editCount);
+        for (int slot = 0; slot < sizes.length; slot++) {
+            for (int i = 0; i < sizes[slot]; i++) {
+                buffer.putInt(columns[slot]).putInt(cellAt(slot, i)).putInt(valueAt(slot, i));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Records saved edits, replacing any previous edits of the same cells.
+     * @param buffer Buffer positioned at the edits, as written by saveEdits. Its position is advanced past
+     *               them.
+     */
+    public void restoreEdits(ByteBuffer buffer) {
+        int saved = buffer.getInt();
+        for (int i = 0; i < saved; i++) {
+            set(buffer.getInt(), buffer.getInt(), buffer.getInt());
+        }
+    }
+
+    /**
+     * @return Number of edits recorded, over all columns.
+     */
+    public int getEditCount() {
+        return editCount;
+    }
+
+    /**
+     * @return Number of columns with at least one edit.
+     */
+    public int getColumnCount() {
+        return index.size();
+    }
+
+    /* Private methods */
+
+    /* Returns the key of the column at x in the index */
+    private static long keyOf(int x) {
+        return Math.floorDiv(x, Block.SIZE);
+    }
+
+    /* Packs an edit into a long, ordered by cell first */
+    private static long pack(int cell, int value) {
+        return ((long) cell << Integer.SIZE) | (value & 0xFFFFFFFFL);
+    }
+
+    /* Adds slots up to the capacity of the index, after it grew. Their arrays are created once used */
+    private void growSlots() {
+        int capacity = index.getCapacity();
+        this.edits = Arrays.copyOf(edits, capacity);
+        this.sizes = Arrays.copyOf(sizes, capacity);
+        this.columns = Arrays.copyOf(columns, capacity);
+    }
+}
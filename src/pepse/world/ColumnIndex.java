@@ -0,0 +1,156 @@
+package pepse.world;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Assigns every column of a set of columns a slot, unique among the columns of the set, through which
+ * per-column data can be kept in plain arrays. Unlike slots taken from x modulo the capacity, which only
+ * suit a single window of the world sliding a column at a time, columns may be anywhere in the world, as
+ * when several actors are far apart. Columns are found through an open addressing hash table; slots are
+ * never moved while their column is in the set.
+ */
+public class ColumnIndex {
+
+    /* Constants */
+    private static final int EMPTY = -1;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;  // spreads neighbouring columns over the table
+
+    /* Private members */
+    private final int capacity;
+    private final int mask;
+    private final int shift;
+    // Hash table from the column number to its slot
+    private final int[] tableColumns;
+    private final int[] tableSlots;
+    // Stack of free slots
+    private final int[] freeSlots;
+    private int freeCount;
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param capacity Maximal number of columns in the set at once.
+     */
+    public ColumnIndex(int capacity) {
+        this.capacity = capacity;
+        // Keep the table at most half full, for short probe sequences
+        int tableSize = Integer.highestOneBit(Math.max(1, 2 * capacity - 1)) << 1;
+        this.mask = tableSize - 1;
+        this.shift = Integer.SIZE - Integer.numberOfTrailingZeros(tableSize);
+        this.tableColumns = new int[tableSize];
+        this.tableSlots = new int[tableSize];
+        Arrays.fill(tableSlots, EMPTY);
+        this.freeSlots = new int[capacity];
+        for (int slot = 0; slot < capacity; slot++) {
+            freeSlots[slot] = capacity - 1 - slot;
+        }
+        this.freeCount = capacity;
+    }
+
+    /**
+     * @param x The x value of a column.
+     * @return The slot of the column, or -1 if it isn't in the set.
+     */
+    public int find(int x) {
+        int column = Math.floorDiv(x, Block.SIZE);
+        for (int i = hash(column); ; i = (i + 1) & mask) {
+            if (tableSlots[i] == EMPTY) {
+                return EMPTY;
+            }
+            if (tableColumns[i] == column) {
+                return tableSlots[i];
+            }
+        }
+    }
+
+    /**
+     * Adds a column to the set, unless it is already in it.
+     * @param x The x value of the column.
+     * @return The slot of the column.
+     * @throws IllegalStateException If the set is full.
+     */
+    public int insert(int x) {
+        int column = Math.floorDiv(x, Block.SIZE);
+        int i = hash(column);
+        for (; tableSlots[i] != EMPTY; i = (i + 1) & mask) {
+            if (tableColumns[i] == column) {
+                return tableSlots[i];
+            }
+        }
+        if (freeCount == 0) {
+            throw new IllegalStateException("Column " + x + " does not fit; all " + capacity +
+                    " column slots are taken");
+        }
+        int slot = freeSlots[--freeCount];
+        tableColumns[i] = column;
+        tableSlots[i] = slot;
+        return slot;
+    }
+
+    /**
+     * Removes a column from the set, freeing its slot.
+     * @param x The x value of the column.
+     * @return The slot the column had, or -1 if it wasn't in the set.
+     */
+    public int remove(int x) {
+        int column = Math.floorDiv(x, Block.SIZE);
+        int i = hash(column);
+        for (; tableColumns[i] != column; i = (i + 1) & mask) {
+            if (tableSlots[i] == EMPTY) {
+                return EMPTY;
+            }
+        }
+        if (tableSlots[i] == EMPTY) {
+            return EMPTY;
+        }
+        int slot = tableSlots[i];
+        freeSlots[freeCount++] = slot;
+        // Shift later entries of the probe sequence back into the hole, so no lookup stops at it
+        int hole = i;
+        for (int j = (i + 1) & mask; tableSlots[j] != EMPTY; j = (j + 1) & mask) {
+            int home = hash(tableColumns[j]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                tableColumns[hole] = tableColumns[j];
+                tableSlots[hole] = tableSlots[j];
+                hole = j;
+            }
+        }
+        tableSlots[hole] = EMPTY;
+        return slot;
+    }
+
+    /**
+     * Visits every column of the set, in no particular order. Columns must not be inserted or removed
+     * while visiting.
+     * @param visitor Called with the x value of every column.
+     */
+    public void forEach(IntConsumer visitor) {
+        for (int i = 0; i < tableSlots.length; i++) {
+            if (tableSlots[i] != EMPTY) {
+                visitor.accept(tableColumns[i] * Block.SIZE);
+            }
+        }
+    }
+
+    /**
+     * @return Maximal number of columns in the set at once, which is also the number of slots.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Number of columns currently in the set.
+     */
+    public int size() {
+        return capacity - freeCount;
+    }
+
+    /* Private methods */
+
+    /* Returns the home position of a column in the table */
+    private int hash(int column) {
+        return (column * HASH_MULTIPLIER) >>> shift & mask;
+    }
+}
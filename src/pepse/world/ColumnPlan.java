@@ -0,0 +1,63 @@
+package pepse.world;
+
+import pepse.world.trees.TreePlan;
+
+/**
+ * An immutable plan of everything procedurally generated at a single column of the world: the height of
+ * the terrain, the colors of its Blocks and the tree growing at the column, if any. Plans are pure
+ * functions of the seed and the column, so they may be computed ahead of time on any thread, and the game
+ * thread only has to materialize them into GameObjects.
+ */
+public final class ColumnPlan {
+
+    /* Private members */
+    private final int x;
+    private final float groundHeight;
+    private final int[] groundColors;  // palette indices of the terrain Blocks, top to bottom
+    private final TreePlan tree;
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param x The x value of the column.
+     * @param groundHeight Terrain height at the column.
+     * @param groundColors Palette indices of the terrain Blocks of the column, top to bottom. Not copied;
+     *                     must not be modified afterwards.
+     * @param tree Plan of the tree growing at the column, or null if there is none.
+     */
+    public ColumnPlan(int x, float groundHeight, int[] groundColors, TreePlan tree) {
+        this.x = x;
+        this.groundHeight = groundHeight;
+        this.groundColors = groundColors;
+        this.tree = tree;
+    }
+
+    /**
+     * @return The x value of the column.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return Terrain height at the column.
+     */
+    public float getGroundHeight() {
+        return groundHeight;
+    }
+
+    /**
+     * @param row Index of a terrain Block of the column, counting from the top Block.
+     * @return Palette index of the Block's color.
+     */
+    public int getGroundColor(int row) {
+        return groundColors[row];
+    }
+
+    /**
+     * @return Plan of the tree growing at the column, or null if there is none.
+     */
+    public TreePlan getTree() {
+        return tree;
+    }
+}
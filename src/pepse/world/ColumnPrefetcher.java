@@ -0,0 +1,145 @@
+package pepse.world;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Plans upcoming columns of the world on a background worker, ahead of the avatar. The number of columns
+ * planned ahead grows with the avatar's speed, in its direction of movement, so that the game thread only
+ * has to materialize plans that are already computed. Plans are kept in a ring of slots indexed by
+ * (x / Block.SIZE) mod capacity, and stay there until overwritten, so columns revisited shortly are not
+ * planned again.
+ */
+public class ColumnPrefetcher {
+
+    /* Constants */
+    private static final int MIN_PREFETCH_COLUMNS = 4;  // columns planned ahead on each side when still
+    private static final float LOOKAHEAD_TIME = 1f;  // seconds of movement planned ahead
+
+    /* Private members */
+    private final WorldPlanner planner;
+    private final int capacity;
+    private final AtomicReferenceArray<ColumnPlan> plans;
+    private final ExecutorService worker;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Runnable fillTask = this::fill;
+    // Columns the worker should plan, published by the game thread
+    private volatile int nextRightX;
+    private volatile int nextLeftX;
+    private volatile int rightColumns;
+    private volatile int leftColumns;
+    // Statistics, accessed by the game thread only
+    private long hits;
+    private long misses;
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param planner Planner of the world's columns.
+     * @param capacity Maximal number of plans kept at once.
+     */
+    public ColumnPrefetcher(WorldPlanner planner, int capacity) {
+        this.planner = planner;
+        this.capacity = capacity;
+        this.plans = new AtomicReferenceArray<>(capacity);
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pepse-column-prefetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Requests columns beyond both edges of the materialized window to be planned in the background. Should
+     * be called once per frame.
+     * @param leftRange Left-most x value at which objects have been created.
+     * @param rightRange Right-most x value at which objects have been created.
+     * @param velocityX The avatar's horizontal velocity.
+     */
+    public void prefetch(int leftRange, int rightRange, float velocityX) {
+        int aheadColumns = Math.min(capacity / 2,
+                MIN_PREFETCH_COLUMNS + (int) Math.ceil(Math.abs(velocityX) * LOOKAHEAD_TIME / Block.SIZE));
+        this.nextRightX = rightRange;
+        this.nextLeftX = leftRange - Block.SIZE;
+        this.rightColumns = velocityX > 0 ? aheadColumns : MIN_PREFETCH_COLUMNS;
+        this.leftColumns = velocityX < 0 ? aheadColumns : MIN_PREFETCH_COLUMNS;
+        if (scheduled.compareAndSet(false, true)) {
+            worker.execute(fillTask);
+        }
+    }
+
+    /**
+     * Returns the plan of a column, planning it on the calling thread if it was not prefetched in time.
+     * @param x The x value of the column.
+     * @return Plan of the column.
+     */
+    public ColumnPlan planOf(int x) {
+        int slot = slotOf(x);
+        ColumnPlan plan = plans.get(slot);
+        if (plan != null && plan.getX() == x) {
+            hits++;
+            return plan;
+        }
+        misses++;
+        plan = planner.plan(x);
+        plans.set(slot, plan);
+        return plan;
+    }
+
+    /**
+     * @return Number of plans that were prefetched in time.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return Number of plans that had to be planned by the game thread.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Stops the background worker.
+     */
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /* Private methods */
+
+    /* Plans all requested columns not planned yet. Runs on the worker */
+    private void fill() {
+        scheduled.set(false);
+        int rightX = nextRightX;
+        int leftX = nextLeftX;
+        int right = rightColumns;
+        int left = leftColumns;
+        // Plan the columns closest to the edges first
+        for (int i = 0; i < Math.max(right, left); i++) {
+            if (i < right) {
+                planIfMissing(rightX + i * Block.SIZE);
+            }
+            if (i < left) {
+                planIfMissing(leftX - i * Block.SIZE);
+            }
+        }
+    }
+
+    /* Plans a column, unless its plan is already kept */
+    private void planIfMissing(int x) {
+        int slot = slotOf(x);
+        ColumnPlan plan = plans.get(slot);
+        if (plan == null || plan.getX() != x) {
+            plans.set(slot, planner.plan(x));
+        }
+    }
+
+    /* Returns the slot of the column at x */
+    private int slotOf(int x) {
+        return Math.floorMod(Math.floorDiv(x, Block.SIZE), capacity);
+    }
+}
@@ -0,0 +1,83 @@
+package pepse.world;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Counts, for every column of the world, how many actors need the column to exist. A column needs to be
+ * created when its count rises from zero, and may be evicted once it drops back to zero, so columns shared
+ * by the neighbourhoods of several actors are created and evicted only once.
+ */
+public class ColumnRefCounts {
+
+    /* Private members */
+    private final ColumnIndex index;  // slot of every counted column
+    private final int[] counts;
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param capacity Maximal number of columns counted at once.
+     */
+    public ColumnRefCounts(int capacity) {
+        this.index = new ColumnIndex(capacity);
+        this.counts = new int[capacity];
+    }
+
+    /**
+     * Records one more actor needing a column.
+     * @param x The x value of the column.
+     * @return The number of actors needing the column, which is 1 if the column should be created.
+     * @throws IllegalStateException If the column wasn't counted yet and all columns are taken.
+     */
+    public int retain(int x) {
+        int slot = index.find(x);
+        if (slot < 0) {
+            slot = index.insert(x);
+            counts[slot] = 0;
+        }
+        return ++counts[slot];
+    }
+
+    /**
+     * Records one less actor needing a column.
+     * @param x The x value of the column.
+     * @return The number of actors still needing the column, which is 0 if the column should be evicted.
+     * @throws IllegalStateException If the column isn't needed by any actor.
+     */
+    public int release(int x) {
+        int slot = index.find(x);
+        if (slot < 0) {
+            throw new IllegalStateException("Column " + x + " was released more times than retained");
+        }
+        int count = --counts[slot];
+        if (count == 0) {
+            index.remove(x);
+        }
+        return count;
+    }
+
+    /**
+     * @param x The x value of a column.
+     * @return The number of actors needing the column.
+     */
+    public int countOf(int x) {
+        int slot = index.find(x);
+        return slot < 0 ? 0 : counts[slot];
+    }
+
+    /**
+     * Visits every column needed by any actor, in no particular order. Columns must not be retained or
+     * released while visiting.
+     * @param visitor Called with the x value of every column.
+     */
+    public void forEach(IntConsumer visitor) {
+        index.forEach(visitor);
+    }
+
+    /**
+     * @return Number of columns needed by any actor.
+     */
+    public int size() {
+        return index.size();
+    }
+}
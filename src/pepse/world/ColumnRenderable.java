@@ -0,0 +1,59 @@
+package pepse.world;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.util.RenderablePalette;
+import java.awt.*;
+
+/**
+ * Renders a vertical stack of Block sized cells, colored by a palette. Lets a single tall GameObject look
+ * exactly like a column of individual Blocks picking their renderables from the same palette.
+ */
+public class ColumnRenderable implements Renderable {
+
+    /* Private members */
+    private final RenderablePalette palette;
+    private final int column;  // column of the Block grid the cells reside in
+    private final int firstRow;  // row of the Block grid of the top cell
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param palette The palette from which the colors of the cells are picked.
+     * @param column Column of the Block grid the cells reside in.
+     * @param firstRow Row of the Block grid of the top cell.
+     */
+    public ColumnRenderable(RenderablePalette palette, int column, int firstRow) {
+        this.palette = palette;
+        this.column = column;
+        this.firstRow = firstRow;
+    }
+
+    /**
+     * Renders the column. Rotation and flipping are ignored, as columns are never rotated or flipped.
+     */
+    @Override
+    public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+                       double degreesCounterClockwise, boolean isFlippedHorizontally,
+                       boolean isFlippedVertically, double opaqueness) {
+        int rows = Math.max(1, Math.round(dimensions.y() / Block.SIZE));
+        float cellHeight = dimensions.y() / rows;
+        int x = Math.round(topLeftCorner.x());
+        int width = Math.round(dimensions.x());
+        for (int i = 0; i < rows; i++) {
+            int top = Math.round(topLeftCorner.y() + i * cellHeight);
+            int bottom = Math.round(topLeftCorner.y() + (i + 1) * cellHeight);
+            g.setColor(withOpaqueness(palette.colorAt(column, firstRow + i), opaqueness));
+            g.fillRect(x, top, width, bottom - top);
+        }
+    }
+
+    /* Applies the given opaqueness to a color */
+    private static Color withOpaqueness(Color color, double opaqueness) {
+        if (opaqueness >= 1) {
+            return color;
+        }
+        return new Color(color.getRed(), color.getGreen(), color.getBlue(),
+                (int) (color.getAlpha() * Math.max(0, opaqueness)));
+    }
+}
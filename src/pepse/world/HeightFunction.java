@@ -0,0 +1,15 @@
+package pepse.world;
+
+/**
+ * A function mapping an x value to the height of some surface at x, e.g. the terrain. Primitive
+ * counterpart of Function&lt;Float, Float&gt;, so that heights are queried without boxing.
+ */
+@FunctionalInterface
+public interface HeightFunction {
+
+    /**
+     * @param x An x value, in window coordinates (pixels).
+     * @return The height of the surface at x.
+     */
+    float heightAt(float x);
+}
@@ -0,0 +1,129 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.world.trees.Tree;
+
+/**
+ * Moves bodies through the world without physics collisions. The solid world is described per column, as the
+ * terrain heightfield topped by the tree trunk of the column if there is one, with the player's edits applied
+ * to both; everything below the top of a column is solid. A body is swept horizontally through every column
+ * it enters, blocked by columns higher than its feet, and then stands on the highest column under it. Since
+ * the sweep covers the whole movement of a frame, the result doesn't depend on the frame rate.
+ */
+public class MovementResolver {
+
+    /* Constants */
+    private static final float EDGE_EPSILON = 0.001f;  // keeps a body's right edge out of the next column
+    private static final float STEP_TOLERANCE = 0.5f;  // columns this little above the feet don't block
+    private static final float GROUND_TOLERANCE = 1;  // bodies this close above a column stand on it
+
+    /* Private members */
+    private final HeightFunction ground;
+    private final Terrain terrain;
+    private final Tree trees;
+    // Edited terrain tops and trunk tops of all created columns
+    private final ColumnIndex columns;
+    private final float[] terrainTops;
+    private final float[] trunkTops;
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param ground Terrain height at a given x.
+     * @param terrain Terrain of the world, by which edits to the terrain of created columns are applied.
+     * @param trees Trees of the world, by which edits to the trunks of created columns are applied.
+     * @param capacity Maximal number of created columns at once.
+     */
+    public MovementResolver(HeightFunction ground, Terrain terrain, Tree trees, int capacity) {
+        this.ground = ground;
+        this.terrain = terrain;
+        this.trees = trees;
+        this.columns = new ColumnIndex(capacity);
+        this.terrainTops = new float[capacity];
+        this.trunkTops = new float[capacity];
+    }
+
+    /**
+     * Records the extent of a column that was just created, or whose terrain or trunk was just edited.
+     * @param plan Plan of the column.
+     */
+    public void recordColumn(ColumnPlan plan) {
+        int slot = columns.insert(plan.getX());
+        terrainTops[slot] = terrain.editedTopOf(plan);
+        trunkTops[slot] = trees.trunkTopOf(plan);
+    }
+
+    /**
+     * Forgets the extent of a column that was just evicted; bodies are then blocked only by its generated
+     * terrain.
+     * @param x The x value of the column.
+     */
+    public void forgetColumn(int x) {
+        columns.remove(x);
+    }
+
+    /**
+     * Resolves the movement a body made in the last frame against the solid world, moving it out of any
+     * column it may not enter and onto the ground, and stopping its fall once it lands.
+     * @param body The body, after its position was updated for the frame.
+     * @param previousTopLeft Top-left corner of the body before the frame.
+     * @return Whether the body stands on the ground, or on a trunk.
+     */
+    public boolean resolve(GameObject body, Vector2 previousTopLeft) {
+        Vector2 dimensions = body.getDimensions();
+        float width = dimensions.x();
+        float height = dimensions.y();
+        float x = body.getTopLeftCorner().x();
+        float y = body.getTopLeftCorner().y();
+        float previousX = previousTopLeft.x();
+        float previousBottom = previousTopLeft.y() + height;
+        // Sweep horizontally through every column entered, stopping before the first one above the feet
+        if (x > previousX) {
+            int first = Block.gridIndexOf(previousX + width - EDGE_EPSILON) + 1;
+            int last = Block.gridIndexOf(x + width - EDGE_EPSILON);
+            for (int column = first; column <= last; column++) {
+                if (solidTop(column) < previousBottom - STEP_TOLERANCE) {
+                    x = column * Block.SIZE - width;
+                    break;
+                }
+            }
+        } else if (x < previousX) {
+            int first = Block.gridIndexOf(previousX) - 1;
+            int last = Block.gridIndexOf(x);
+            for (int column = first; column >= last; column--) {
+                if (solidTop(column) < previousBottom - STEP_TOLERANCE) {
+                    x = (column + 1) * Block.SIZE;
+                    break;
+                }
+            }
+        }
+        // Stand on the highest column under the body, never sinking into it
+        float support = Math.min(solidTop(Block.gridIndexOf(x)),
+                solidTop(Block.gridIndexOf(x + width - EDGE_EPSILON)));
+        float bottom = y + height;
+        float yVelocity = body.getVelocity().y();
+        boolean grounded = false;
+        if (bottom > support || (bottom >= support - GROUND_TOLERANCE && yVelocity >= 0)) {
+            y = support - height;
+            grounded = yVelocity >= 0;
+            if (yVelocity > 0) {
+                body.transform().setVelocityY(0);
+            }
+        }
+        body.transform().setTopLeftCorner(x, y);
+        return grounded;
+    }
+
+    /* Private methods */
+
+    /* Returns the y value of the top of a column: its trunk if it has one, or else its terrain */
+    private float solidTop(int column) {
+        int slot = columns.find(column * Block.SIZE);
+        if (slot < 0) {
+            return ground.heightAt(column * Block.SIZE);
+        }
+        return Math.min(terrainTops[slot], trunkTops[slot]);
+    }
+
+}
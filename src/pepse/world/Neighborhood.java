@@ -0,0 +1,115 @@
+package pepse.world;
+
+/**
+ * The range of columns kept created around an actor of the world, such as the camera or an avatar. The
+ * range follows a visible window around the actor, inset on both sides by a buffer, but may lag behind
+ * it while columns are created and evicted over several frames. Ranges of different actors may overlap.
+ */
+public class Neighborhood {
+
+    /* Private members */
+    private final int buffer;
+    private int left;  // left-most x value of the created range
+    private int right;  // x value right after the created range
+    private float visibleLeft;
+    private float visibleRight;
+    private int wantedLeft;
+    private int wantedRight;
+
+    /* Public methods */
+    /**
+     * Constructor. The created range starts empty.
+     * @param buffer Inset of the wanted range from the visible window on each side. Negative insets extend
+     *               the wanted range beyond the window.
+     */
+    public Neighborhood(int buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Sets the window visible from the actor, which sets the wanted range around it.
+     * @param visibleLeft Left-most visible x value.
+     * @param visibleRight Right-most visible x value.
+     */
+    public void setVisible(float visibleLeft, float visibleRight) {
+        this.visibleLeft = visibleLeft;
+        this.visibleRight = visibleRight;
+        // Rounded outwards to whole columns
+        this.wantedLeft = Block.gridIndexOf(visibleLeft + buffer) * Block.SIZE;
+        this.wantedRight = -Block.gridIndexOf(buffer - visibleRight) * Block.SIZE;
+    }
+
+    /**
+     * Sets the created range.
+     * @param left Left-most x value of the range.
+     * @param right X value right after the range.
+     */
+    public void setRange(int left, int right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * @return Whether the created range lies entirely outside the wanted range.
+     */
+    public boolean isDisjointFromWanted() {
+        return right <= wantedLeft || left >= wantedRight;
+    }
+
+    /**
+     * @return Number of wanted columns not created yet.
+     */
+    public int getPendingColumns() {
+        return Math.max(0, (wantedRight - right) / Block.SIZE) +
+                Math.max(0, (left - wantedLeft) / Block.SIZE);
+    }
+
+    /**
+     * @return Number of created columns.
+     */
+    public int getColumnCount() {
+        return (right - left) / Block.SIZE;
+    }
+
+    /**
+     * @return Left-most x value of the created range.
+     */
+    public int getLeft() {
+        return left;
+    }
+
+    /**
+     * @return X value right after the created range.
+     */
+    public int getRight() {
+        return right;
+    }
+
+    /**
+     * @return Left-most visible x value.
+     */
+    public float getVisibleLeft() {
+        return visibleLeft;
+    }
+
+    /**
+     * @return Right-most visible x value.
+     */
+    public float getVisibleRight() {
+        return visibleRight;
+    }
+
+    /**
+     * @return Left-most x value of the wanted range.
+     */
+    public int getWantedLeft() {
+        return wantedLeft;
+    }
+
+    /**
+     * @return X value right after the wanted range.
+     */
+    public int getWantedRight() {
+        return wantedRight;
+    }
+}
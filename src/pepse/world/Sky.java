@@ -14,7 +14,7 @@ import java.awt.*;
 public class Sky {
 
     /* Constants */
-    private static final Color BASIC_SKY_COLOR = Color.decode("#80C6E5");
+    public static final Color BASIC_SKY_COLOR = Color.decode("#80C6E5");
     private static final String SKY_TAG = "sky";
 
     /* Public methods */
@@ -1,22 +1,24 @@
 package pepse.world;
 
-import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.components.GameObjectPhysics;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
-import pepse.util.ColorSupplier;
+import pepse.util.ObjectPool;
+import pepse.util.RenderablePalette;
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicLongArray;
 
-public class Terrain {
+public class Terrain implements TileProducer {
 
     /* Constants */
     private static final Color BASE_GROUND_COLOR = new Color(212, 123, 74);
     private static final float DEFAULT_GROUND_HEIGHT_AT_X0 = (float) 2/3;
-    private static final int TERRAIN_DEPTH = 20;
+    public static final int TERRAIN_DEPTH = 20;  // rows planned, and created unless the depth is unbounded
+    private static final int TOP_TERRAIN_DEPTH = 2;
+    private static final int PALETTE_SIZE = 32;  // number of distinct ground colors
+    private static final int HEIGHTFIELD_CACHE_SIZE = 1024;  // must be a power of 2
+    private static final long EMPTY_HEIGHTFIELD_ENTRY = (long) Integer.MIN_VALUE << 32;
     private static final String TOP_TERRAIN_TAG = "top-terrain";
     private static final String BOTTOM_TERRAIN_TAG = "bottom-terrain";
 
@@ -28,7 +30,15 @@ public class Terrain {
     private final float a;
     private final float b;
     private final float c;
-    private HashMap<Integer, ArrayList<GameObject>> cache;
+    private final RenderablePalette groundPalette;
+    // Direct-mapped cache of column heights. Each entry packs a column (high bits) and its height (low bits)
+    // into a single long, so entries are read and written atomically by any thread
+    private final AtomicLongArray heightfield = new AtomicLongArray(HEIGHTFIELD_CACHE_SIZE);
+    private TileStore cache;
+    private ColumnEdits edits;  // player edits, applied over the generated terrain
+    private ObjectPool<Block> blockPool;  // recycled Blocks to create terrain from
+    private boolean mergedColumns;  // whether every terrain run of a column is created as a single object
+    private boolean unboundedDepth;  // whether terrain goes all the way down, rather than TERRAIN_DEPTH rows
 
     public Terrain(GameObjectCollection gameObjects, int groundLayer, Vector2 windowDimensions, int seed) {
         this.gameObjects = gameObjects;
@@ -40,46 +50,208 @@ public class Terrain {
         this.a = (float) (randIntGenerator.nextInt(200) - 100) / 10;
         this.b = (float) (randIntGenerator.nextInt(200) - 100) / 10;
         this.c = (float) (randIntGenerator.nextInt(200) - 100) / 10;
+        this.groundPalette = new RenderablePalette(BASE_GROUND_COLOR, PALETTE_SIZE, seed);
+        for (int i = 0; i < HEIGHTFIELD_CACHE_SIZE; i++) {
+            heightfield.set(i, EMPTY_HEIGHTFIELD_ENTRY);
+        }
     }
 
     /**
-     * Creates terrain in the given range.
-     * @param minX The left-most x value of the range.
-     * @param maxX The right-most x value of the range.
+     * @param plan Plan of a column.
+     * @return The tile row of the column's ground, or of its top-most placed Block if higher.
      */
-    public void createInRange(int minX, int maxX) {
-        for (int x = minX; x < maxX; x += Block.SIZE) {
-            float smallestY = groundHeightAt(x);
-            for (float y = smallestY; y < smallestY + (TERRAIN_DEPTH * Block.SIZE); y += Block.SIZE) {
-                Block block = new Block(new Vector2(x,y),
-                        new RectangleRenderable(ColorSupplier.approximateColor(BASE_GROUND_COLOR)));
-                // Record all created Blocks in the cache
-                if (!(cache.containsKey(x))) {
-                    cache.put(x, new ArrayList<GameObject>());
+    @Override
+    public int firstTileRowOf(ColumnPlan plan) {
+        int tileRow = TileStore.tileRowOf(plan.getGroundHeight());
+        int slot = edits == null ? -1 : edits.slotOf(plan.getX());
+        if (slot >= 0) {
+            for (int i = 0; i < edits.sizeOf(slot); i++) {
+                if (edits.valueAt(slot, i) != ColumnEdits.REMOVED) {
+                    return Math.min(tileRow, Math.floorDiv(edits.cellAt(slot, i), TileStore.ROWS));
                 }
-                cache.get(x).add(block);
-                // Differentiate between top terrain Blocks and less substantial Blocks of terrain
-                int layer = bottomGroundLayer;
-                String tag = BOTTOM_TERRAIN_TAG;
-                if (y < smallestY + 2*Block.SIZE) {
-                    layer -= 1;
-                    tag = TOP_TERRAIN_TAG;
+            }
+        }
+        return tileRow;
+    }
+
+    /**
+     * @param plan Plan of a column.
+     * @return The tile row below the column's deepest terrain, or below its bottom-most placed Block if
+     * deeper, or Integer.MAX_VALUE if the depth is unbounded.
+     */
+    @Override
+    public int endTileRowOf(ColumnPlan plan) {
+        if (unboundedDepth) {
+            return Integer.MAX_VALUE;
+        }
+        int endTileRow = TileStore.tileRowOf(plan.getGroundHeight() + (TERRAIN_DEPTH - 1) * Block.SIZE) + 1;
+        // Placed Blocks below the planned depth extend the column
+        int slot = edits == null ? -1 : edits.slotOf(plan.getX());
+        if (slot >= 0) {
+            for (int i = edits.sizeOf(slot) - 1; i >= 0; i--) {
+                if (edits.valueAt(slot, i) != ColumnEdits.REMOVED) {
+                    return Math.max(endTileRow, Math.floorDiv(edits.cellAt(slot, i), TileStore.ROWS) + 1);
                 }
-                block.setTag(tag);
-                gameObjects.addGameObject(block, layer);
-                block.physics().preventIntersectionsFromDirection(Vector2.ZERO);
-                block.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
             }
         }
+        return endTileRow;
+    }
+
+    /**
+     * @return 0, as terrain runs are cut at the boundaries of tiles.
+     */
+    @Override
+    public int getReachBelowTile() {
+        return 0;
     }
 
     /**
-     * Calculates the terrain height at the given x. Uses Fourier transformation with irrational
-     * parameters to ensure a random-like topology for the terrain.
+     * @param layer A layer of the game.
+     * @return Whether the layer is that of the top or of the bottom terrain.
+     */
+    @Override
+    public boolean createsOnLayer(int layer) {
+        return layer == bottomGroundLayer || layer == bottomGroundLayer - 1;
+    }
+
+    /**
+     * Creates the terrain of a planned column within a single tile.
+     * @param plan Plan of the column.
+     * @param tileRow The tile row.
+     */
+    @Override
+    public void createTile(ColumnPlan plan, int tileRow) {
+        int endRow = unboundedDepth ? Integer.MAX_VALUE :
+                Block.gridIndexOf(plan.getGroundHeight()) + TERRAIN_DEPTH;
+        createRows(plan, tileRow, endRow);
+    }
+
+    /**
+     * Returns the grid row of the terrain at a position, by which terrain edits are recorded. Rows are
+     * counted as the column's terrain is laid out from its ground height.
+     * @param x The x value of a column. Must be a multiple of Block.SIZE.
+     * @param y A y value, in window coordinates (pixels).
+     * @return The row of the column's terrain containing y.
+     */
+    public int rowAt(int x, float y) {
+        float groundHeight = groundHeightAt(x);
+        return Block.gridIndexOf(groundHeight) + (int) Math.floor((y - groundHeight) / Block.SIZE);
+    }
+
+    /**
+     * Returns the y value of the top of a column's terrain with the player edits applied, i.e. of its
+     * highest Block, whether placed or generated and not removed.
+     * @param plan Plan of the column.
+     * @return The top of the column's terrain, or Float.POSITIVE_INFINITY if all of its Blocks were removed.
+     */
+    public float editedTopOf(ColumnPlan plan) {
+        float groundHeight = plan.getGroundHeight();
+        int slot = edits == null ? -1 : edits.slotOf(plan.getX());
+        if (slot < 0) {
+            return groundHeight;
+        }
+        int groundRow = Block.gridIndexOf(groundHeight);
+        int endRow = unboundedDepth ? Integer.MAX_VALUE : groundRow + TERRAIN_DEPTH;
+        // Edits ascend by row, i.e. go down the column, so the first placed Block is the top, unless a
+        // generated row above it was left
+        int row = groundRow;  // highest generated row not known to be removed
+        for (int i = 0; i < edits.sizeOf(slot); i++) {
+            int editedRow = edits.cellAt(slot, i);
+            if (editedRow > row && row < endRow) {
+                break;
+            }
+            if (edits.valueAt(slot, i) != ColumnEdits.REMOVED) {
+                return groundHeight + (editedRow - groundRow) * Block.SIZE;
+            }
+            if (editedRow == row) {
+                row++;
+            }
+        }
+        return row < endRow ? groundHeight + (row - groundRow) * Block.SIZE : Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the color a terrain Block is generated with, to place a Block that blends in.
+     * @param x The x value of a column. Must be a multiple of Block.SIZE.
+     * @param row A grid row.
+     * @return Palette index of the color of the Block at the row.
+     */
+    public int colorAt(int x, int row) {
+        return groundPalette.indexOf(x / Block.SIZE, row);
+    }
+
+    /**
+     * Plans the colors of the terrain Blocks of a column. Pure and thread-safe.
+     * @param x The x value of the column.
+     * @param groundHeight Terrain height at the column.
+     * @return Palette indices of the colors of the terrain Blocks of the column, top to bottom.
+     */
+    public int[] planGroundColors(int x, float groundHeight) {
+        int[] colors = new int[TERRAIN_DEPTH];
+        int topRow = Block.gridIndexOf(groundHeight);
+        for (int row = 0; row < TERRAIN_DEPTH; row++) {
+            colors[row] = groundPalette.indexOf(x / Block.SIZE, topRow + row);
+        }
+        return colors;
+    }
+
+    /**
+     * Returns the terrain height at the given x. Heights of x values at which columns start are cached, so
+     * the terrain function is computed once per column.
      * @param x Value to compute height at.
      * @return Terrain height at the given x.
      */
     public float groundHeightAt(float x) {
+        int column = (int) x / Block.SIZE;
+        if (column * Block.SIZE != x) {
+            return computeGroundHeightAt(x);
+        }
+        return columnHeight(column);
+    }
+
+    /**
+     * Fills an array with the terrain heights of all columns in the given range.
+     * @param minX The left-most x value of the range. Must be a multiple of Block.SIZE.
+     * @param maxX The right-most x value of the range (exclusive).
+     * @param heights Array to fill; heights[i] is set to the height of the column at minX + i * Block.SIZE.
+     *                Must be large enough to hold all columns of the range.
+     */
+    public void groundHeightsInRange(int minX, int maxX, float[] heights) {
+        int firstColumn = minX / Block.SIZE;
+        for (int i = 0; minX + i * Block.SIZE < maxX; i++) {
+            heights[i] = columnHeight(firstColumn + i);
+        }
+    }
+
+    /**
+     * @return The smallest terrain height of any column, i.e. the y value of the highest ground.
+     */
+    public float getMinGroundHeight() {
+        return groundHeightAtx0 - amplitude();
+    }
+
+    /**
+     * @return The largest terrain height of any column, i.e. the y value of the lowest ground.
+     */
+    public float getMaxGroundHeight() {
+        return groundHeightAtx0 + amplitude();
+    }
+
+    /* Returns the cached height of a column, computing and caching it on a miss */
+    private float columnHeight(int column) {
+        int index = column & (HEIGHTFIELD_CACHE_SIZE - 1);
+        long entry = heightfield.get(index);
+        if ((int) (entry >>> 32) == column) {
+            return Float.intBitsToFloat((int) entry);
+        }
+        float height = computeGroundHeightAt(column * Block.SIZE);
+        heightfield.set(index, ((long) column << 32) | (Float.floatToRawIntBits(height) & 0xFFFFFFFFL));
+        return height;
+    }
+
+    /* Calculates the terrain height at the given x. Uses Fourier transformation with irrational
+    parameters to ensure a random-like topology for the terrain. */
+    private float computeGroundHeightAt(float x) {
         float functionVal =
                 (float) (10 * (a * Math.sin(0.1 * 0.04 * x) +
                                b * Math.sin(0.1 * Math.E * 0.04 * x) +
@@ -90,8 +262,143 @@ public class Terrain {
 
     /**
      * Sets the Cache.
+     * @param cache Store recording all gameObjects created in every tile.
      */
-    public void setCache(HashMap<Integer, ArrayList<GameObject>> cache) {
+    public void setCache(TileStore cache) {
         this.cache = cache;
     }
+
+    /**
+     * Sets the edits applied over the generated terrain. Edits are keyed by the grid rows returned by rowAt;
+     * their value is either ColumnEdits.REMOVED, for no Block at the row, or the palette index of the color
+     * of a Block placed at the row, as returned by colorAt.
+     * @param edits Player edits to the terrain.
+     */
+    public void setEdits(ColumnEdits edits) {
+        this.edits = edits;
+    }
+
+    /**
+     * Sets the pool of recycled Blocks from which terrain is created.
+     * @param blockPool Pool of recycled Blocks.
+     */
+    public void setBlockPool(ObjectPool<Block> blockPool) {
+        this.blockPool = blockPool;
+    }
+
+    /**
+     * Sets whether columns are created as merged runs. When set, the top and bottom terrain of every
+     * column are each created as a single tall Block instead of one Block per row. Collisions are unchanged,
+     * as every run covers exactly the area of the Blocks it replaces.
+     * @param mergedColumns Whether to create merged columns.
+     */
+    public void setMergedColumns(boolean mergedColumns) {
+        this.mergedColumns = mergedColumns;
+    }
+
+    /**
+     * Sets whether terrain goes down without end, for the world to be created only in the tiles in view,
+     * or only TERRAIN_DEPTH rows below the ground.
+     * @param unboundedDepth Whether the depth of the terrain is unbounded.
+     */
+    public void setUnboundedDepth(boolean unboundedDepth) {
+        this.unboundedDepth = unboundedDepth;
+    }
+
+    /* Private methods */
+
+    /* Creates the terrain of a column within a single tile, from the ground down to endRow, with the
+    column's edits applied: the generated terrain is created between edited rows, and Blocks are placed at
+    edited rows, even above the ground or below endRow */
+    private void createRows(ColumnPlan plan, int tileRow, int endRow) {
+        int tileTop = tileRow * TileStore.ROWS;
+        int tileBottom = tileTop + TileStore.ROWS;
+        int fromRow = Math.max(tileTop, Block.gridIndexOf(plan.getGroundHeight()));
+        int toRow = Math.min(tileBottom, endRow);
+        int slot = edits == null ? -1 : edits.slotOf(plan.getX());
+        if (slot < 0) {
+            createGeneratedRows(plan, tileRow, fromRow, toRow);
+            return;
+        }
+        int row = fromRow;  // first generated row not created yet
+        for (int i = edits.firstEditAtOrAfter(slot, tileTop);
+             i < edits.sizeOf(slot) && edits.cellAt(slot, i) < tileBottom; i++) {
+            int editedRow = edits.cellAt(slot, i);
+            if (editedRow >= row) {
+                createGeneratedRows(plan, tileRow, row, Math.min(editedRow, toRow));
+                row = editedRow + 1;
+            }
+            int color = edits.valueAt(slot, i);
+            if (color != ColumnEdits.REMOVED) {
+                createBlock(plan, tileRow, editedRow, color);
+            }
+        }
+        createGeneratedRows(plan, tileRow, row, toRow);
+    }
+
+    /* Creates the generated terrain of a column in the given range of grid rows, all within a single tile:
+    a Block per row, or a run for each of the top and bottom terrain within the range */
+    private void createGeneratedRows(ColumnPlan plan, int tileRow, int fromRow, int toRow) {
+        int x = plan.getX();
+        float smallestY = plan.getGroundHeight();
+        int topRow = Block.gridIndexOf(smallestY);
+        if (mergedColumns) {
+            int topTerrainEnd = Math.min(toRow, topRow + TOP_TERRAIN_DEPTH);
+            if (fromRow < topTerrainEnd) {
+                createRun(x, smallestY + (fromRow - topRow) * Block.SIZE, topTerrainEnd - fromRow,
+                        bottomGroundLayer - 1, TOP_TERRAIN_TAG, tileRow);
+            }
+            int bottomTerrainStart = Math.max(fromRow, topRow + TOP_TERRAIN_DEPTH);
+            if (bottomTerrainStart < toRow) {
+                createRun(x, smallestY + (bottomTerrainStart - topRow) * Block.SIZE,
+                        toRow - bottomTerrainStart, bottomGroundLayer, BOTTOM_TERRAIN_TAG, tileRow);
+            }
+            return;
+        }
+        for (int row = fromRow; row < toRow; row++) {
+            int depth = row - topRow;
+            // Colors of rows deeper than planned are taken from the palette as the plan would have
+            int color = depth < TERRAIN_DEPTH ? plan.getGroundColor(depth) :
+                    groundPalette.indexOf(x / Block.SIZE, row);
+            createBlock(plan, tileRow, row, color);
+        }
+    }
+
+    /* Creates a single terrain Block of a column at the given grid row */
+    private void createBlock(ColumnPlan plan, int tileRow, int row, int color) {
+        int x = plan.getX();
+        int depth = row - Block.gridIndexOf(plan.getGroundHeight());
+        float y = plan.getGroundHeight() + depth * Block.SIZE;
+        Block block = Block.obtain(blockPool, new Vector2(x,y), 1, groundPalette.renderableAt(color));
+        // Differentiate between top terrain Blocks and less substantial Blocks of terrain
+        int layer = bottomGroundLayer;
+        String tag = BOTTOM_TERRAIN_TAG;
+        if (depth < TOP_TERRAIN_DEPTH) {
+            layer -= 1;
+            tag = TOP_TERRAIN_TAG;
+        }
+        block.setTag(tag);
+        gameObjects.addGameObject(block, layer);
+        // Record all created Blocks in the cache
+        cache.add(x, tileRow, block, layer);
+        block.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+        block.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+    }
+
+    /* Returns the largest distance of the terrain function from the height at x = 0 */
+    private float amplitude() {
+        return 10 * (Math.abs(a) + Math.abs(b) + Math.abs(c));
+    }
+
+    /* Creates a single Block spanning a contiguous run of terrain rows */
+    private void createRun(int x, float topY, int rows, int layer, String tag, int tileRow) {
+        Block run = Block.obtain(blockPool, new Vector2(x, topY), rows,
+                new ColumnRenderable(groundPalette, x / Block.SIZE, Block.gridIndexOf(topY)));
+        run.setTag(tag);
+        gameObjects.addGameObject(run, layer);
+        // Record the run in the cache
+        cache.add(x, tileRow, run, layer);
+        run.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+        run.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+    }
 }
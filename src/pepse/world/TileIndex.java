@@ -0,0 +1,164 @@
+package pepse.world;
+
+import java.util.Arrays;
+
+/**
+ * Assigns every tile of a set of tiles a slot, unique among the tiles of the set, through which per-tile
+ * data can be kept in plain arrays. Tiles are keyed by their packed coordinates and found through an open
+ * addressing hash table of primitive longs, so lookups neither box nor allocate. Slots are never moved
+ * while their tile is in the set; once every slot is taken, the set grows, adding slots after the
+ * existing ones.
+ */
+public class TileIndex {
+
+    /* Constants */
+    private static final int EMPTY = -1;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;  // spreads neighbouring tiles apart
+
+    /* Private members */
+    private int capacity;
+    private int mask;
+    private int shift;
+    // Hash table from the key of a tile to its slot
+    private long[] tableKeys;
+    private int[] tableSlots;
+    // Stack of free slots
+    private int[] freeSlots;
+    private int freeCount;
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param capacity Number of tiles in the set before it first grows.
+     */
+    public TileIndex(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.freeSlots = new int[this.capacity];
+        for (int slot = 0; slot < this.capacity; slot++) {
+            freeSlots[slot] = this.capacity - 1 - slot;
+        }
+        this.freeCount = this.capacity;
+        createTable();
+    }
+
+    /**
+     * @param key The key of a tile.
+     * @return The slot of the tile, or -1 if it isn't in the set.
+     */
+    public int find(long key) {
+        for (int i = hash(key); ; i = (i + 1) & mask) {
+            if (tableSlots[i] == EMPTY) {
+                return EMPTY;
+            }
+            if (tableKeys[i] == key) {
+                return tableSlots[i];
+            }
+        }
+    }
+
+    /**
+     * Adds a tile to the set, unless it is already in it. Grows the set if every slot is taken.
+     * @param key The key of the tile.
+     * @return The slot of the tile. May be beyond the capacity the set had before the call.
+     */
+    public int insert(long key) {
+        int slot = find(key);
+        if (slot != EMPTY) {
+            return slot;
+        }
+        if (freeCount == 0) {
+            grow();
+        }
+        int i = hash(key);
+        while (tableSlots[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        slot = freeSlots[--freeCount];
+        tableKeys[i] = key;
+        tableSlots[i] = slot;
+        return slot;
+    }
+
+    /**
+     * Removes a tile from the set, freeing its slot.
+     * @param key The key of the tile.
+     * @return The slot the tile had, or -1 if it wasn't in the set.
+     */
+    public int remove(long key) {
+        int i = hash(key);
+        for (; tableSlots[i] == EMPTY || tableKeys[i] != key; i = (i + 1) & mask) {
+            if (tableSlots[i] == EMPTY) {
+                return EMPTY;
+            }
+        }
+        int slot = tableSlots[i];
+        freeSlots[freeCount++] = slot;
+        // Shift later entries of the probe sequence back into the hole, so no lookup stops at it
+        int hole = i;
+        for (int j = (i + 1) & mask; tableSlots[j] != EMPTY; j = (j + 1) & mask) {
+            int home = hash(tableKeys[j]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                tableKeys[hole] = tableKeys[j];
+                tableSlots[hole] = tableSlots[j];
+                hole = j;
+            }
+        }
+        tableSlots[hole] = EMPTY;
+        return slot;
+    }
+
+    /**
+     * @return Number of slots, which is the number of tiles the set holds before it grows again.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Number of tiles currently in the set.
+     */
+    public int size() {
+        return capacity - freeCount;
+    }
+
+    /* Private methods */
+
+    /* Creates an empty table for the capacity, kept at most half full for short probe sequences */
+    private void createTable() {
+        int tableSize = Integer.highestOneBit(2 * capacity - 1) << 1;
+        this.mask = tableSize - 1;
+        this.shift = Long.SIZE - Integer.numberOfTrailingZeros(tableSize);
+        this.tableKeys = new long[tableSize];
+        this.tableSlots = new int[tableSize];
+        Arrays.fill(tableSlots, EMPTY);
+    }
+
+    /* Doubles the number of slots, keeping the slots of all tiles in the set */
+    private void grow() {
+        long[] keys = tableKeys;
+        int[] slots = tableSlots;
+        int oldCapacity = capacity;
+        this.capacity = 2 * oldCapacity;
+        createTable();
+        for (int i = 0; i < keys.length; i++) {
+            if (slots[i] != EMPTY) {
+                int j = hash(keys[i]);
+                while (tableSlots[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                tableKeys[j] = keys[i];
+                tableSlots[j] = slots[i];
+            }
+        }
+        // Every old slot is taken, so the free slots are exactly the new ones
+        this.freeSlots = new int[capacity];
+        for (int slot = oldCapacity; slot < capacity; slot++) {
+            freeSlots[freeCount++] = capacity - 1 - (slot - oldCapacity);
+        }
+    }
+
+    /* Returns the home position of a key in the table */
+    private int hash(long key) {
+        return (int) ((key * HASH_MULTIPLIER) >>> shift) & mask;
+    }
+}
@@ -0,0 +1,42 @@
+package pepse.world;
+
+/**
+ * Creates a part of the world, such as its terrain or its trees, a tile at a time, so that a column is
+ * only materialized in the tiles around what is in view. Every object created for a tile is recorded in
+ * that tile of the TileStore, and evicted along with it.
+ */
+public interface TileProducer {
+
+    /**
+     * @param plan Plan of a column.
+     * @return The top-most tile row at which objects are created for the column.
+     */
+    int firstTileRowOf(ColumnPlan plan);
+
+    /**
+     * @param plan Plan of a column.
+     * @return The tile row below the bottom-most one at which objects are created for the column, or
+     * Integer.MAX_VALUE if objects are created all the way down.
+     */
+    int endTileRowOf(ColumnPlan plan);
+
+    /**
+     * @return Number of Block rows below its tile that an object created for a tile may reach. Tiles are
+     * kept that much further above the view, so that no such object is missing from it.
+     */
+    int getReachBelowTile();
+
+    /**
+     * @param layer A layer of the game.
+     * @return Whether the producer adds objects to the layer, so that its objects can be told apart from
+     * those of other producers in the same tile.
+     */
+    boolean createsOnLayer(int layer);
+
+    /**
+     * Creates the objects of a planned column within a single tile.
+     * @param plan Plan of the column.
+     * @param tileRow The tile row.
+     */
+    void createTile(ColumnPlan plan, int tileRow);
+}
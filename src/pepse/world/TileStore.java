@@ -0,0 +1,207 @@
+package pepse.world;
+
+import danogl.GameObject;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Records all GameObjects created in the world, grouped by tile: a column of the world cut vertically
+ * into runs of ROWS Block rows. The world streams along both axes a tile at a time, so tiles are kept only
+ * around what is in view, and deep or tall parts of the world cost nothing while off-screen. Tiles are
+ * keyed by their column and tile row packed into a single long, and kept in slots assigned by a
+ * TileIndex, which grows as needed. Every entry records the layer of its object, so a tile can be evicted
+ * without inspecting the objects themselves.
+ */
+public class TileStore {
+
+    /* Constants */
+    public static final int ROWS = 16;  // Block rows per tile
+    private static final int INITIAL_TILE_SIZE = 16;
+
+    /* Private members */
+    private final TileIndex index;  // slot of every stored tile
+    private GameObject[][] objects;
+    private int[][] layers;
+    private int[] sizes;  // number of objects in each slot
+    private int tileCount;
+    private int objectCount;
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param capacity Number of tiles stored before the store first grows.
+     */
+    public TileStore(int capacity) {
+        this.index = new TileIndex(capacity);
+        this.objects = new GameObject[index.getCapacity()][INITIAL_TILE_SIZE];
+        this.layers = new int[index.getCapacity()][INITIAL_TILE_SIZE];
+        this.sizes = new int[index.getCapacity()];
+    }
+
+    /**
+     * Packs the coordinates of a tile into a single key.
+     * @param x The x value of the tile's column.
+     * @param tileRow The tile row, counting tiles downwards from y = 0.
+     * @return The key of the tile.
+     */
+    public static long keyOf(int x, int tileRow) {
+        return ((long) Math.floorDiv(x, Block.SIZE) << Integer.SIZE) | (tileRow & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param y A y value, in window coordinates (pixels).
+     * @return The tile row containing y.
+     */
+    public static int tileRowOf(float y) {
+        return Math.floorDiv(Block.gridIndexOf(y), ROWS);
+    }
+
+    /**
+     * Records a GameObject as residing in a tile.
+     * @param x The x value of the tile's column. Must be a multiple of Block.SIZE.
+     * @param tileRow The tile row.
+     * @param gameObject The GameObject to record.
+     * @param layer The layer the GameObject was added to.
+     */
+    public void add(int x, int tileRow, GameObject gameObject, int layer) {
+        long key = keyOf(x, tileRow);
+        int slot = index.find(key);
+        if (slot < 0) {
+            slot = index.insert(key);
+            if (slot >= sizes.length) {
+                growSlots();
+            }
+            tileCount++;
+        }
+        int size = sizes[slot];
+        if (size == objects[slot].length) {
+            objects[slot] = Arrays.copyOf(objects[slot], 2 * size);
+            layers[slot] = Arrays.copyOf(layers[slot], 2 * size);
+        }
+        objects[slot][size] = gameObject;
+        layers[slot][size] = layer;
+        sizes[slot] = size + 1;
+        objectCount++;
+    }
+
+    /**
+     * @param x The x value of a tile's column.
+     * @param tileRow The tile row.
+     * @return Whether any GameObject is recorded in the tile.
+     */
+    public boolean contains(int x, int tileRow) {
+        return index.find(keyOf(x, tileRow)) >= 0;
+    }
+
+    /**
+     * Evicts a tile, handing every GameObject recorded in it, along with its layer, to remover. Does nothing
+     * if the tile is not stored.
+     * @param x The x value of the tile's column.
+     * @param tileRow The tile row.
+     * @param remover Called for every GameObject of the tile with the layer it was recorded with.
+     * @return Whether the tile was stored.
+     */
+    public boolean evict(int x, int tileRow, ObjIntConsumer<GameObject> remover) {
+        int slot = index.remove(keyOf(x, tileRow));
+        if (slot < 0) {
+            return false;
+        }
+        GameObject[] tile = objects[slot];
+        int[] tileLayers = layers[slot];
+        int size = sizes[slot];
+        for (int i = 0; i < size; i++) {
+            remover.accept(tile[i], tileLayers[i]);
+            tile[i] = null;
+        }
+        sizes[slot] = 0;
+        tileCount--;
+        objectCount -= size;
+        return true;
+    }
+
+    /**
+     * Evicts the GameObjects of a tile recorded with the given layers, handing every one of them, along with
+     * its layer, to remover, and keeps the others in the tile, in the order they were added. Evicts the whole
+     * tile if no other GameObject is left in it. Does nothing if the tile is not stored.
+     * @param x The x value of the tile's column.
+     * @param tileRow The tile row.
+     * @param evictedLayers Whether the GameObjects of a layer are evicted.
+     * @param remover Called for every evicted GameObject with the layer it was recorded with.
+     * @return Whether any GameObject was evicted.
+     */
+    public boolean evict(int x, int tileRow, IntPredicate evictedLayers, ObjIntConsumer<GameObject> remover) {
+        long key = keyOf(x, tileRow);
+        int slot = index.find(key);
+        if (slot < 0) {
+            return false;
+        }
+        GameObject[] tile = objects[slot];
+        int[] tileLayers = layers[slot];
+        int size = sizes[slot];
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (evictedLayers.test(tileLayers[i])) {
+                remover.accept(tile[i], tileLayers[i]);
+            } else {
+                tile[kept] = tile[i];
+                tileLayers[kept] = tileLayers[i];
+                kept++;
+            }
+        }
+        Arrays.fill(tile, kept, size, null);
+        sizes[slot] = kept;
+        objectCount -= size - kept;
+        if (kept == 0) {
+            index.remove(key);
+            tileCount--;
+        }
+        return kept < size;
+    }
+
+    /**
+     * Visits all GameObjects recorded in a tile, in the order they were added, without removing them. Does
+     * nothing if the tile isn't stored.
+     * @param x The x value of the tile's column.
+     * @param tileRow The tile row.
+     * @param visitor Called with every GameObject and the layer it was added to.
+     */
+    public void forEach(int x, int tileRow, ObjIntConsumer<GameObject> visitor) {
+        int slot = index.find(keyOf(x, tileRow));
+        if (slot < 0) {
+            return;
+        }
+        for (int i = 0; i < sizes[slot]; i++) {
+            visitor.accept(objects[slot][i], layers[slot][i]);
+        }
+    }
+
+    /**
+     * @return Number of tiles currently stored.
+     */
+    public int getTileCount() {
+        return tileCount;
+    }
+
+    /**
+     * @return Number of GameObjects currently stored, over all tiles.
+     */
+    public int getObjectCount() {
+        return objectCount;
+    }
+
+    /* Private methods */
+
+    /* Adds empty slots up to the capacity of the index, after it grew */
+    private void growSlots() {
+        int capacity = index.getCapacity();
+        int oldCapacity = sizes.length;
+        this.objects = Arrays.copyOf(objects, capacity);
+        this.layers = Arrays.copyOf(layers, capacity);
+        this.sizes = Arrays.copyOf(sizes, capacity);
+        for (int slot = oldCapacity; slot < capacity; slot++) {
+            objects[slot] = new GameObject[INITIAL_TILE_SIZE];
+            layers[slot] = new int[INITIAL_TILE_SIZE];
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package pepse.world;
+
+import pepse.world.trees.Tree;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Plans columns of the world: computes everything procedurally generated at a column without creating any
+ * GameObjects. Pure and thread-safe, so columns may be planned on any thread.
+ */
+public class WorldPlanner {
+
+    /* Constants */
+    private static final int COLUMNS_PER_TASK = 16;  // ranges this small are planned by a single task
+
+    /* Private members */
+    private final Terrain terrain;
+    private final Tree trees;
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param terrain The terrain of the world.
+     * @param trees The trees of the world.
+     */
+    public WorldPlanner(Terrain terrain, Tree trees) {
+        this.terrain = terrain;
+        this.trees = trees;
+    }
+
+    /**
+     * Plans a single column.
+     * @param x The x value of the column. Must be a multiple of Block.SIZE.
+     * @return Plan of the column. Always equal for equal x values.
+     */
+    public ColumnPlan plan(int x) {
+        return plan(x, terrain.groundHeightAt(x));
+    }
+
+    /**
+     * Plans a range of columns in parallel on the common ForkJoin pool. Every task reads the terrain heights
+     * of its columns in a single batch. Since planning is pure, the plans are equal to the plans of the same
+     * columns planned one by one.
+     * @param minX The left-most x value of the range. Must be a multiple of Block.SIZE.
+     * @param maxX The right-most x value of the range, exclusive. Must be a multiple of Block.SIZE.
+     * @return Plans of all columns in the range, from left to right.
+     */
+    public ColumnPlan[] planRange(int minX, int maxX) {
+        ColumnPlan[] plans = new ColumnPlan[Math.max(0, (maxX - minX) / Block.SIZE)];
+        ForkJoinPool.commonPool().invoke(new PlanTask(minX, plans, 0, plans.length));
+        return plans;
+    }
+
+    /* Private methods */
+
+    /* Plans a single column at a known terrain height */
+    private ColumnPlan plan(int x, float groundHeight) {
+        return new ColumnPlan(x, groundHeight, terrain.planGroundColors(x, groundHeight),
+                trees.planTree(x, groundHeight));
+    }
+
+    /* Plans a part of a range, splitting it in halves until parts are small enough */
+    private class PlanTask extends RecursiveAction {
+
+        /* Constants */
+        private static final long serialVersionUID = 1L;
+
+        /* Private members */
+        private final int minX;  // x value of the first column of the whole range
+        private final ColumnPlan[] plans;
+        private final int from;
+        private final int to;
+
+        /* Constructor */
+        PlanTask(int minX, ColumnPlan[] plans, int from, int to) {
+            this.minX = minX;
+            this.plans = plans;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= COLUMNS_PER_TASK) {
+                int partMinX = minX + from * Block.SIZE;
+                float[] heights = new float[to - from];
+                terrain.groundHeightsInRange(partMinX, minX + to * Block.SIZE, heights);
+                for (int i = from; i < to; i++) {
+                    plans[i] = plan(minX + i * Block.SIZE, heights[i - from]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PlanTask(minX, plans, from, middle), new PlanTask(minX, plans, middle, to));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package pepse.world.daynight;
+
+import danogl.GameObject;
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.util.Vector2;
+import pepse.world.Sky;
+import java.awt.*;
+
+/**
+ * The single clock of the day/night cycle. Moves the Sun and its halo along their oval through the sky,
+ * darkens the Night and tints the Sky, all from a table computed once for a fixed number of steps per
+ * cycle. Positions are kept as shared Vector2s and tints as shared renderables, so advancing the cycle
+ * only looks up the current step, and does nothing at all until the step changes.
+ */
+public class DayNightCycle {
+
+    /* Constants */
+    private static final int STEPS = 4096;  // steps per cycle; the Sun moves about a pixel per step
+    private static final int SKY_TINTS = 64;
+    // The Sun's oval, starting at noon at the top of the window
+    private static final float A = 600;
+    private static final float B = 300;
+    private static final float INITIAL_SUN_ANGLE_FACTOR = 1.5f;
+    private static final float FINAL_SUN_ANGLE_FACTOR = 3.5f;
+    private static final float NOON_OPACITY = 0f;
+    private static final float MIDNIGHT_OPACITY = 0.5f;
+    private static final Color MIDNIGHT_SKY_COLOR = Color.decode("#0B1A33");
+
+    /* Private members */
+    private final GameObject sun;
+    private final GameObject sunHalo;
+    private final GameObject night;
+    private final GameObject sky;
+    private final float cycleLength;
+    // Table of every step of the cycle
+    private final Vector2[] sunTopLefts = new Vector2[STEPS];
+    private final Vector2[] sunHaloTopLefts = new Vector2[STEPS];
+    private final float[] nightOpacities = new float[STEPS];
+    private final int[] skyTintIndices = new int[STEPS];
+    private final RectangleRenderable[] skyTints = new RectangleRenderable[SKY_TINTS];
+    private float time;  // time since the start of the cycle, in seconds
+    private int step = -1;  // step applied to the objects
+    private int skyTint = -1;  // sky tint applied to the Sky
+
+    /* Public methods */
+    /**
+     * Constructor. Builds the table of the cycle and sets the objects to the start of the cycle, at noon.
+     * @param sun The Sun.
+     * @param sunHalo The halo around the Sun.
+     * @param night The Night.
+     * @param sky The Sky.
+     * @param windowDimensions The dimensions of the game window.
+     * @param cycleLength Length of a complete day/night cycle, in seconds.
+     */
+    public DayNightCycle(GameObject sun, GameObject sunHalo, GameObject night, GameObject sky,
+                         Vector2 windowDimensions, float cycleLength) {
+        this.sun = sun;
+        this.sunHalo = sunHalo;
+        this.night = night;
+        this.sky = sky;
+        this.cycleLength = cycleLength;
+        buildTable(windowDimensions);
+        setTime(0);
+    }
+
+    /**
+     * Advances the cycle. Called once per frame.
+     * @param deltaTime The time, in seconds, that passed since the last invocation of this method.
+     */
+    public void update(float deltaTime) {
+        setTime(time + deltaTime);
+    }
+
+    /**
+     * Jumps to a time of the cycle, at once.
+     * @param time Time since the start of the cycle, at noon, in seconds. Wrapped into a single cycle.
+     */
+    public void setTime(float time) {
+        this.time = time % cycleLength;
+        if (this.time < 0) {
+            this.time += cycleLength;
+        }
+        int step = Math.min(STEPS - 1, (int) (this.time / cycleLength * STEPS));
+        if (step == this.step) {
+            return;
+        }
+        this.step = step;
+        sun.setTopLeftCorner(sunTopLefts[step]);
+        sunHalo.setTopLeftCorner(sunHaloTopLefts[step]);
+        night.renderer().setOpaqueness(nightOpacities[step]);
+        if (skyTintIndices[step] != skyTint) {
+            this.skyTint = skyTintIndices[step];
+            sky.renderer().setRenderable(skyTints[skyTint]);
+        }
+    }
+
+    /**
+     * @return Time since the start of the cycle, at noon, in seconds.
+     */
+    public float getTime() {
+        return time;
+    }
+
+    /**
+     * @return Length of a complete day/night cycle, in seconds.
+     */
+    public float getCycleLength() {
+        return cycleLength;
+    }
+
+    /* Private methods */
+
+    /* Computes the positions, opacity and sky tint of every step of the cycle */
+    private void buildTable(Vector2 windowDimensions) {
+        Vector2 sunHalf = sun.getDimensions().mult(0.5f);
+        Vector2 sunHaloHalf = sunHalo.getDimensions().mult(0.5f);
+        for (int tint = 0; tint < SKY_TINTS; tint++) {
+            skyTints[tint] = new RectangleRenderable(mix(Sky.BASIC_SKY_COLOR, MIDNIGHT_SKY_COLOR,
+                    (float) tint / (SKY_TINTS - 1)));
+        }
+        for (int step = 0; step < STEPS; step++) {
+            float progress = (float) step / STEPS;
+            // Set Sun at [a*cos(angle), b*sin(angle)]
+            double angle = Math.PI * (INITIAL_SUN_ANGLE_FACTOR +
+                    (FINAL_SUN_ANGLE_FACTOR - INITIAL_SUN_ANGLE_FACTOR) * progress);
+            Vector2 sunCenter = new Vector2(windowDimensions.x() / 2 + A * (float) Math.cos(angle),
+                    windowDimensions.y() / 2 + B * (float) Math.sin(angle));
+            sunTopLefts[step] = sunCenter.subtract(sunHalf);
+            sunHaloTopLefts[step] = sunCenter.subtract(sunHaloHalf);
+            // Darken towards midnight, half way through the cycle, and back, easing in and out cubically
+            float darkness = 1 - Math.abs(1 - 2 * progress);
+            darkness = darkness * darkness * (3 - 2 * darkness);
+            nightOpacities[step] = NOON_OPACITY + (MIDNIGHT_OPACITY - NOON_OPACITY) * darkness;
+            skyTintIndices[step] = Math.round(darkness * (SKY_TINTS - 1));
+        }
+    }
+
+    /* Returns the color a given fraction of the way from one color to another */
+    private static Color mix(Color from, Color to, float fraction) {
+        return new Color(
+                Math.round(from.getRed() + (to.getRed() - from.getRed()) * fraction),
+                Math.round(from.getGreen() + (to.getGreen() - from.getGreen()) * fraction),
+                Math.round(from.getBlue() + (to.getBlue() - from.getBlue()) * fraction));
+    }
+}
@@ -8,7 +8,7 @@ import danogl.util.Vector2;
 import java.awt.*;
 
 /**
- * Halo around the Sun in the sky of the Pepse simulator.
+ * Halo around the Sun in the sky of the Pepse simulator. Kept around the Sun by the DayNightCycle.
  */
 public class SunHalo {
 
@@ -19,20 +19,16 @@ public class SunHalo {
     /* Public methods */
 
     /**
-     * Creates SunHalo object.
+     * Creates SunHalo object. It is placed around the Sun by the DayNightCycle.
      * @param gameObjects The collection of GameObjects in the current world.
-     * @param sun Sun around which the SunHalo should be created
      * @param color Color of the halo.
      * @param layer Layer on which the SanHalo object should be placed.
      * @return The newly created SunHalo.
      */
-    public static GameObject create(GameObjectCollection gameObjects, int layer, GameObject sun,
-                                    Color color) {
+    public static GameObject create(GameObjectCollection gameObjects, int layer, Color color) {
         GameObject sunHalo = new GameObject(Vector2.ZERO, new Vector2(SUN_HALO_DIMENSIONS,
                 SUN_HALO_DIMENSIONS), new OvalRenderable(color));
         sunHalo.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-        // Follow sun's cycle
-        sunHalo.addComponent(deltaTime -> sunHalo.setCenter(sun.getCenter()));
         gameObjects.addGameObject(sunHalo, layer);
         sunHalo.setTag(SUN_HALO_TAG);
 
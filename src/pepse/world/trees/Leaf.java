@@ -2,27 +2,58 @@ package pepse.world.trees;
 
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.components.Transition;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.ObjectPool;
 import pepse.world.Block;
 
 public class Leaf extends Block {
 
     /* Private members */
-    private Transition transition;  // set after construction using a setter; turns off on collision
+    private LeafSystem leafSystem;  // system animating the leaf, if any
+    private int slot = -1;  // slot of the leaf in its system
 
     /**
-     * Construct a new Block instance.
+     * Construct a new Leaf instance.
      *
      * @param topLeftCorner Position of the object, in window coordinates (pixels).
      *                      Note that (0,0) is the top-left corner of the window.
-     * @param renderable    The renderable representing the object. Can be null, in which case
+     * @param renderable    The renderable representing the object. Can be null, in which case the
+     *                      Leaf is not rendered.
      */
     public Leaf(Vector2 topLeftCorner, Renderable renderable) {
         super(topLeftCorner, renderable);
     }
 
+    /**
+     * Takes a Leaf out of the pool and resets it, or creates a new Leaf if the pool is empty.
+     * @param pool Pool of recycled Leaves.
+     * @param topLeftCorner Position of the Leaf, in window coordinates (pixels).
+     * @param renderable The renderable representing the Leaf.
+     * @return A Leaf in the given state, with no velocity, acceleration or attached components.
+     */
+    public static Leaf obtain(ObjectPool<Leaf> pool, Vector2 topLeftCorner, Renderable renderable) {
+        Leaf leaf = pool.poll();
+        if (leaf == null) {
+            return new Leaf(topLeftCorner, renderable);
+        }
+        leaf.reset(topLeftCorner, 1, renderable);
+        return leaf;
+    }
+
+    /**
+     * Resets a recycled Leaf to the state of a newly created one.
+     * @param topLeftCorner Position of the Leaf, in window coordinates (pixels).
+     * @param rows Number of Block rows the Leaf spans.
+     * @param renderable The renderable representing the Leaf.
+     */
+    @Override
+    public void reset(Vector2 topLeftCorner, int rows, Renderable renderable) {
+        super.reset(topLeftCorner, rows, renderable);
+        this.leafSystem = null;
+        this.slot = -1;
+    }
+
     /**
      * Called upon colliding with another GameObject.
      *
@@ -33,15 +64,26 @@ public class Leaf extends Block {
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
         // Cancel lateral movement of leaves
-        this.removeComponent(transition);
+        if (leafSystem != null) {
+            leafSystem.land(slot);
+        }
         this.transform().setVelocity(Vector2.ZERO);
     }
 
+    /* Setter for the system animating the leaf, and the slot of the leaf in it */
+    void setLeafSystem(LeafSystem leafSystem, int slot) {
+        this.leafSystem = leafSystem;
+        this.slot = slot;
+    }
+
+    /* Getter for the system animating the leaf */
+    LeafSystem getLeafSystem() {
+        return leafSystem;
+    }
 
-    /* Setter for the strategy.
-    This Transition will be that responsible for the lateral movement of leaves */
-    public void setTransition(Transition transition) {
-        this.transition = transition;
+    /* Getter for the slot of the leaf in its system */
+    int getSlot() {
+        return slot;
     }
 
 }
@@ -0,0 +1,554 @@
+package pepse.world.trees;
+
+import danogl.util.Vector2;
+import pepse.util.SplitMix;
+import pepse.world.Block;
+import pepse.world.HeightFunction;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Animates all live leaves in a single loop per frame. The state of every leaf is kept in primitive arrays
+ * indexed by the leaf's slot, so no leaf carries Transitions or ScheduledTasks of its own. The life cycle of
+ * a leaf is: sway on the tree -> fall with lateral movement while fading out -> wait -> back on the tree.
+ * Leaves are updated at a level of detail: off-screen leaves are frozen, physics included, and fast-forwarded
+ * once they are back in view, and leaves far from the avatar are updated at a reduced rate.
+ */
+public class LeafSystem {
+
+    /* Constants */
+    static final int MAX_LEAF_LIFETIME = 50;
+    static final int MIN_LEAF_LIFETIME = 3;
+    static final int MAX_LEAF_FADE_IN_TIME = 15;
+    static final int MIN_LEAF_FADE_IN_TIME = 5;
+    private static final float FADEOUT_TIME = 5;
+    private static final float LEAF_GRAVITY = 50;
+    private static final float LEAF_WIND_SENSITIVITY = 50f;
+    private static final float LEAF_HORIZONTAL_MOVEMENT_TRANSITION_TIME = 1;
+    private static final float LEAF_SIZE_DEVIATION = 0.9f;
+    private static final float LEAF_SIZE_TRANSITION_TIME = 1;
+    private static final float LEAF_SHAKE = 15f;
+    private static final float LEAF_SHAKE_TRANSITION_TIME = 2;
+    private static final int LEAF_SIZE_STEPS = 32;  // distinct leaf dimensions along a size transition
+    private static final float MAX_ANIMATION_DELAY = 1;  // bound of the delays of swaying and changing size
+    private static final float ANIMATION_PERIOD = 4;  // after which leaves sway and change size alike again
+    // Level of detail
+    private static final float VIEW_MARGIN = 2 * Block.SIZE;  // leaves this close to the view are updated
+    private static final float FULL_RATE_DISTANCE = 400;  // leaves this close to the avatar update every frame
+    private static final float HALF_RATE_DISTANCE = 800;  // farther leaves update every fourth frame
+    // Life cycle states
+    private static final byte ON_TREE = 0;
+    private static final byte FALLING = 1;
+    private static final byte FADED = 2;
+    // Saved leaf state: tree center, age, pending time, timer, fade in time, position, velocity (floats),
+    // then life cycle number (int), state and landing (bytes)
+    private static final int SAVED_FLOATS = 10;
+    private static final int SAVED_LEAF_BYTES = SAVED_FLOATS * Float.BYTES + Integer.BYTES + 2;
+
+    /* Private members */
+    // Leaf dimensions along a size transition, shared by all leaves so that none is allocated per frame
+    private static final Vector2[] LEAF_SIZES = createLeafSizes();
+    private int count;  // number of live leaves, occupying slots [0, count)
+    private Leaf[] leaves;
+    private Vector2[] treeCenters;  // center of every leaf on its tree
+    private long[] cycleStreams;  // stream of every leaf, drawing its life cycles
+    private int[] cycles;  // number of the current life cycle of every leaf
+    private float[] ages;  // time since every leaf was added
+    private float[] angleDelays;
+    private float[] sizeDelays;
+    private byte[] states;
+    private float[] timers;  // time left in the current state, or time spent falling
+    private float[] fadeInTimes;
+    private boolean[] landed;  // whether a falling leaf has reached the ground
+    private float[] pendingTimes;  // time not yet applied to every leaf, while frozen or skipped
+    private boolean[] frozen;  // whether every leaf is off-screen, with its physics suspended
+    private float[] frozenVelocities;  // vertical velocity of every leaf when it was frozen
+    private float[] frozenTimes;  // time every frozen leaf has been frozen, up to FADEOUT_TIME
+    private HeightFunction ground;  // terrain height that leaves land on, or null if they collide with it
+    // Saved states of leaves not yet added since a restore, by the leaves' centers on their trees
+    private Map<Long, ByteBuffer> restoredStates;
+    private int frame;  // number of updates so far, staggering the updates of reduced-rate leaves
+    private int updatedLeaves;  // number of leaves updated in the last frame
+
+    /* Public methods */
+    /**
+     * Constructor.
+     * @param initialCapacity Number of leaves to allocate room for. Grows as needed.
+     */
+    public LeafSystem(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.leaves = new Leaf[capacity];
+        this.treeCenters = new Vector2[capacity];
+        this.cycleStreams = new long[capacity];
+        this.cycles = new int[capacity];
+        this.ages = new float[capacity];
+        this.angleDelays = new float[capacity];
+        this.sizeDelays = new float[capacity];
+        this.states = new byte[capacity];
+        this.timers = new float[capacity];
+        this.fadeInTimes = new float[capacity];
+        this.landed = new boolean[capacity];
+        this.pendingTimes = new float[capacity];
+        this.frozen = new boolean[capacity];
+        this.frozenVelocities = new float[capacity];
+        this.frozenTimes = new float[capacity];
+    }
+
+    /**
+     * Starts animating a leaf that was just placed on its tree.
+     * @param leaf The leaf.
+     * @param angleDelay Time before the leaf starts to sway.
+     * @param sizeDelay Time before the leaf starts to change its size.
+     * @param lifetime Time the leaf stays on the tree before its first fall.
+     * @param fadeInTime Time the leaf waits after its first fall before it's back on the tree.
+     * @param cycleStream SplitMix stream of the leaf, drawing the lifetimes and fade in times of its
+     *                    following life cycles.
+     */
+    public void add(Leaf leaf, float angleDelay, float sizeDelay, int lifetime, int fadeInTime,
+                    long cycleStream) {
+        if (count == leaves.length) {
+            grow();
+        }
+        int slot = count++;
+        leaves[slot] = leaf;
+        treeCenters[slot] = leaf.getCenter();
+        cycleStreams[slot] = cycleStream;
+        cycles[slot] = 0;
+        ages[slot] = 0;
+        angleDelays[slot] = angleDelay;
+        sizeDelays[slot] = sizeDelay;
+        states[slot] = ON_TREE;
+        timers[slot] = lifetime;
+        fadeInTimes[slot] = fadeInTime;
+        landed[slot] = false;
+        pendingTimes[slot] = 0;
+        frozen[slot] = false;
+        frozenVelocities[slot] = 0;
+        frozenTimes[slot] = 0;
+        leaf.setLeafSystem(this, slot);
+        if (restoredStates != null) {
+            ByteBuffer state = restoredStates.remove(centerKey(treeCenters[slot]));
+            if (state != null) {
+                loadState(slot, state);
+            }
+        }
+    }
+
+    /**
+     * Stops animating a leaf. Does nothing if the leaf isn't animated by this system.
+     * @param leaf The leaf.
+     */
+    public void remove(Leaf leaf) {
+        int slot = leaf.getSlot();
+        if (leaf.getLeafSystem() != this || slot < 0 || slot >= count || leaves[slot] != leaf) {
+            return;
+        }
+        // Move the last leaf into the freed slot to keep the live leaves contiguous
+        int last = --count;
+        if (slot != last) {
+            leaves[slot] = leaves[last];
+            treeCenters[slot] = treeCenters[last];
+            cycleStreams[slot] = cycleStreams[last];
+            cycles[slot] = cycles[last];
+            ages[slot] = ages[last];
+            angleDelays[slot] = angleDelays[last];
+            sizeDelays[slot] = sizeDelays[last];
+            states[slot] = states[last];
+            timers[slot] = timers[last];
+            fadeInTimes[slot] = fadeInTimes[last];
+            landed[slot] = landed[last];
+            pendingTimes[slot] = pendingTimes[last];
+            frozen[slot] = frozen[last];
+            frozenVelocities[slot] = frozenVelocities[last];
+            frozenTimes[slot] = frozenTimes[last];
+            leaves[slot].setLeafSystem(this, slot);
+        }
+        leaves[last] = null;
+        treeCenters[last] = null;
+        leaf.setLeafSystem(null, -1);
+    }
+
+    /**
+     * Advances the animation of all live leaves at full detail, wherever they are.
+     * @param deltaTime Time since the last update.
+     */
+    public void update(float deltaTime) {
+        update(deltaTime, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY, 0);
+    }
+
+    /**
+     * Advances the animation of all live leaves, at a level of detail set by the view and the avatar.
+     * Leaves outside the view are frozen; leaves far from the avatar are updated every second or fourth
+     * frame. Skipped time is applied once a leaf is updated again, so leaves catch up smoothly; a leaf that
+     * fell while frozen is moved along its fall once it is back in view.
+     * @param deltaTime Time since the last update.
+     * @param viewMinX Left-most x value in view.
+     * @param viewMaxX Right-most x value in view.
+     * @param focusX The x value of the avatar.
+     */
+    public void update(float deltaTime, float viewMinX, float viewMaxX, float focusX) {
+        frame++;
+        int updated = 0;
+        for (int i = 0; i < count; i++) {
+            float pendingTime = pendingTimes[i] + deltaTime;
+            float x = treeCenters[i].x();
+            if (x < viewMinX - VIEW_MARGIN || x > viewMaxX + VIEW_MARGIN) {
+                if (!frozen[i]) {
+                    freeze(i);
+                }
+                frozenTimes[i] = Math.min(FADEOUT_TIME, frozenTimes[i] + deltaTime);
+                pendingTimes[i] = pendingTime;
+                continue;
+            }
+            if (frozen[i]) {
+                thaw(i);
+                pendingTime = deltaTime;
+            }
+            // Every falling leaf in view checks for landing each frame, whatever its rate
+            if (ground != null && states[i] == FALLING && !landed[i]) {
+                landOnGround(i);
+            }
+            float distance = Math.abs(x - focusX);
+            int stride = distance <= FULL_RATE_DISTANCE ? 1 : distance <= HALF_RATE_DISTANCE ? 2 : 4;
+            if ((frame + i) % stride != 0) {
+                pendingTimes[i] = pendingTime;
+                continue;
+            }
+            pendingTimes[i] = 0;
+            advance(i, pendingTime);
+            updated++;
+        }
+        this.updatedLeaves = updated;
+    }
+
+    /**
+     * Makes falling leaves land by comparing their position with the terrain height, instead of by
+     * colliding with the terrain. The leaf layer should then not collide with the terrain layers.
+     * @param ground Terrain height at a given x, or null to land by collisions.
+     */
+    public void setGround(HeightFunction ground) {
+        this.ground = ground;
+    }
+
+    /**
+     * Makes every leaf on its tree start to fall in the next update. Used to drive many leaves to fall at
+     * once in benchmarks and soak runs.
+     */
+    public void dropAll() {
+        for (int i = 0; i < count; i++) {
+            if (states[i] == ON_TREE) {
+                timers[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Saves the state of all live leaves, to be restored once the same leaves are created again.
+     * @return A buffer holding the number of leaves followed by their states, ready to be read.
+     */
+    public ByteBuffer saveStates() {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + count * SAVED_LEAF_BYTES);
+        buffer.putInt(count);
+        for (int i = 0; i < count; i++) {
+            Leaf leaf = leaves[i];
+            Vector2 topLeft = leaf.getTopLeftCorner();
+            buffer.putFloat(treeCenters[i].x()).putFloat(treeCenters[i].y());
+            buffer.putFloat(ages[i]).putFloat(pendingTimes[i]).putFloat(timers[i]).putFloat(fadeInTimes[i]);
+            buffer.putFloat(topLeft.x()).putFloat(topLeft.y());
+            buffer.putFloat(leaf.getVelocity().x());
+            buffer.putFloat(frozen[i] ? frozenVelocities[i] : leaf.getVelocity().y());
+            buffer.putInt(cycles[i]).put(states[i]).put((byte) (landed[i] ? 1 : 0));
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Reads saved leaf states. Each state is applied to its leaf once the leaf is added again, and
+     * discarded by clearRestoredStates if the leaf isn't added by then.
+     * @param buffer Buffer positioned at the states, as written by saveStates. Its position is advanced
+     *               past them.
+     */
+    public void restoreStates(ByteBuffer buffer) {
+        int saved = buffer.getInt();
+        this.restoredStates = new HashMap<>(2 * saved);
+        for (int i = 0; i < saved; i++) {
+            ByteBuffer state = buffer.slice();
+            state.limit(SAVED_LEAF_BYTES);
+            buffer.position(buffer.position() + SAVED_LEAF_BYTES);
+            restoredStates.put(centerKey(state.getFloat(0), state.getFloat(Float.BYTES)), state);
+        }
+    }
+
+    /**
+     * Discards saved leaf states that weren't applied, once the restored world has been created.
+     */
+    public void clearRestoredStates() {
+        this.restoredStates = null;
+    }
+
+    /**
+     * @return Number of live leaves.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return Number of leaves that were updated in the last frame.
+     */
+    public int getUpdatedLeaves() {
+        return updatedLeaves;
+    }
+
+    /* Package-private methods */
+
+    /* Stops the lateral movement of a leaf that has reached the ground */
+    void land(int slot) {
+        if (slot >= 0 && slot < count) {
+            landed[slot] = true;
+        }
+    }
+
+    /* Draws the time a leaf stays on its tree in a life cycle */
+    static int nextLifetime(long cycleStream, int cycle) {
+        return SplitMix.nextInt(cycleStream, 2L * cycle, MAX_LEAF_LIFETIME) + MIN_LEAF_LIFETIME;
+    }
+
+    /* Draws the time a faded leaf waits before it's back on its tree in a life cycle */
+    static int nextFadeInTime(long cycleStream, int cycle) {
+        return SplitMix.nextInt(cycleStream, 2L * cycle + 1, MAX_LEAF_FADE_IN_TIME) + MIN_LEAF_FADE_IN_TIME;
+    }
+
+    /* Private methods */
+
+    /* Advances the animation of a single leaf by any amount of time, going through as many life cycle
+    states as the time covers */
+    private void advance(int i, float deltaTime) {
+        Leaf leaf = leaves[i];
+        float age = ages[i] + deltaTime;
+        // Keep the age within a period past the delays, so it neither grows without bound nor loses precision
+        if (age >= MAX_ANIMATION_DELAY + ANIMATION_PERIOD) {
+            age = MAX_ANIMATION_DELAY + (age - MAX_ANIMATION_DELAY) % ANIMATION_PERIOD;
+        }
+        ages[i] = age;
+        // Sway and change size in place
+        if (age >= angleDelays[i]) {
+            float phase = backAndForth((age - angleDelays[i]) / LEAF_SHAKE_TRANSITION_TIME);
+            leaf.renderer().setRenderableAngle(-LEAF_SHAKE + 2 * LEAF_SHAKE * phase);
+        }
+        if (age >= sizeDelays[i]) {
+            float phase = backAndForth((age - sizeDelays[i]) / LEAF_SIZE_TRANSITION_TIME);
+            leaf.setDimensions(LEAF_SIZES[Math.round(phase * (LEAF_SIZE_STEPS - 1))]);
+        }
+        // Advance the life cycle
+        float remaining = deltaTime;
+        while (true) {
+            switch (states[i]) {
+                case ON_TREE:
+                    if (timers[i] > remaining) {
+                        timers[i] -= remaining;
+                        return;
+                    }
+                    // Starts to fall
+                    remaining -= timers[i];
+                    states[i] = FALLING;
+                    timers[i] = 0;
+                    landed[i] = false;
+                    leaf.transform().setAccelerationY(LEAF_GRAVITY);
+                    break;
+                case FALLING:
+                    float fallTime = timers[i] + remaining;
+                    if (fallTime < FADEOUT_TIME) {
+                        timers[i] = fallTime;
+                        if (!landed[i]) {
+                            // Lateral movement upon falling
+                            float phase = backAndForth(fallTime / LEAF_HORIZONTAL_MOVEMENT_TRANSITION_TIME);
+                            leaf.transform().setVelocityX(-LEAF_WIND_SENSITIVITY +
+                                    2 * LEAF_WIND_SENSITIVITY * cubic(phase));
+                        }
+                        // Fade out
+                        leaf.renderer().setOpaqueness(1 - fallTime / FADEOUT_TIME);
+                        return;
+                    }
+                    remaining = fallTime - FADEOUT_TIME;
+                    leaf.renderer().setOpaqueness(0);
+                    states[i] = FADED;
+                    timers[i] = fadeInTimes[i];
+                    break;
+                default:
+                    if (timers[i] > remaining) {
+                        timers[i] -= remaining;
+                        return;
+                    }
+                    // Reestablish the leaf with a new life cycle
+                    remaining -= timers[i];
+                    leaf.setCenter(treeCenters[i]);
+                    leaf.transform().setVelocity(Vector2.ZERO);
+                    leaf.transform().setAccelerationY(0);
+                    leaf.renderer().setOpaqueness(1);
+                    states[i] = ON_TREE;
+                    int cycle = ++cycles[i];
+                    timers[i] = nextLifetime(cycleStreams[i], cycle);
+                    fadeInTimes[i] = nextFadeInTime(cycleStreams[i], cycle);
+                    break;
+            }
+        }
+    }
+
+    /* Lands a falling leaf once its bottom reaches the terrain under it. Leaves may overlap two columns, and
+    land on the higher of the two, as they would by collision */
+    private void landOnGround(int i) {
+        Leaf leaf = leaves[i];
+        float left = leaf.getTopLeftCorner().x();
+        float width = leaf.getDimensions().x();
+        float height = leaf.getDimensions().y();
+        float groundHeight = Math.min(
+                ground.heightAt(Block.gridIndexOf(left) * Block.SIZE),
+                ground.heightAt(Block.gridIndexOf(left + width - 1) * Block.SIZE));
+        float top = leaf.getTopLeftCorner().y();
+        if (top + height < groundHeight) {
+            return;
+        }
+        landed[i] = true;
+        leaf.transform().setTopLeftCornerY(groundHeight - height);
+        leaf.transform().setVelocity(Vector2.ZERO);
+        leaf.transform().setAccelerationY(0);
+    }
+
+    /* Applies a saved state to a newly added leaf */
+    private void loadState(int i, ByteBuffer state) {
+        Leaf leaf = leaves[i];
+        state.position(2 * Float.BYTES);  // skip the tree center
+        ages[i] = state.getFloat();
+        pendingTimes[i] = state.getFloat();
+        timers[i] = state.getFloat();
+        fadeInTimes[i] = state.getFloat();
+        leaf.transform().setTopLeftCorner(state.getFloat(), state.getFloat());
+        float xVelocity = state.getFloat();
+        float yVelocity = state.getFloat();
+        cycles[i] = state.getInt();
+        states[i] = state.get();
+        landed[i] = state.get() != 0;
+        if (states[i] == FALLING) {
+            leaf.renderer().setOpaqueness(Math.max(0, 1 - timers[i] / FADEOUT_TIME));
+            if (!landed[i]) {
+                leaf.transform().setVelocity(new Vector2(xVelocity, yVelocity));
+                leaf.transform().setAccelerationY(LEAF_GRAVITY);
+            }
+        } else if (states[i] == FADED) {
+            leaf.renderer().setOpaqueness(0);
+        }
+    }
+
+    /* Returns the key of a leaf by its center on its tree */
+    private static long centerKey(Vector2 center) {
+        return centerKey(center.x(), center.y());
+    }
+
+    /* Returns the key of a leaf by the coordinates of its center on its tree */
+    private static long centerKey(float x, float y) {
+        return ((long) Float.floatToIntBits(x) << Integer.SIZE) | (Float.floatToIntBits(y) & 0xFFFFFFFFL);
+    }
+
+    /* Suspends the physics of a leaf that left the view */
+    private void freeze(int i) {
+        Leaf leaf = leaves[i];
+        frozen[i] = true;
+        frozenTimes[i] = 0;
+        frozenVelocities[i] = leaf.getVelocity().y();
+        leaf.transform().setVelocity(Vector2.ZERO);
+        leaf.transform().setAccelerationY(0);
+    }
+
+    /* Resumes the physics of a leaf that is back in view. Its life cycle is first brought up to date. If it
+    is falling, it resumes its fall where it would have been: when leaves land on the terrain height, the part
+    of the fall spent frozen is applied analytically, after which the leaf lands like in landOnGround */
+    private void thaw(int i) {
+        Leaf leaf = leaves[i];
+        frozen[i] = false;
+        boolean fellBeforeFreezing = states[i] == FALLING;
+        advance(i, pendingTimes[i]);
+        pendingTimes[i] = 0;
+        if (states[i] != FALLING || landed[i]) {
+            return;
+        }
+        float fallTime = timers[i];
+        // Whether the fall is the one frozen, rather than one that started while frozen, at rest on the tree
+        boolean sameFall = fellBeforeFreezing && fallTime > frozenTimes[i];
+        float velocityY = sameFall ? frozenVelocities[i] : 0;
+        if (ground != null) {
+            float frozenFall = Math.min(fallTime, frozenTimes[i]);
+            Vector2 topLeft = leaf.getTopLeftCorner();
+            leaf.transform().setTopLeftCorner(
+                    topLeft.x() + windDrift(fallTime) - windDrift(fallTime - frozenFall),
+                    topLeft.y() + velocityY * frozenFall + LEAF_GRAVITY * frozenFall * frozenFall / 2);
+            velocityY += LEAF_GRAVITY * frozenFall;
+        }
+        leaf.transform().setAccelerationY(LEAF_GRAVITY);
+        leaf.transform().setVelocityY(velocityY);
+    }
+
+    /* Returns the horizontal distance a leaf drifts in the wind within the given time since it started to
+    fall, by integrating its lateral velocity as set in advance */
+    private static float windDrift(float fallTime) {
+        float t = fallTime / LEAF_HORIZONTAL_MOVEMENT_TRANSITION_TIME;
+        // The integral of the cubic ease over a whole back-and-forth transition is 1, over two time units
+        float periods = (float) Math.floor(t / 2);
+        float phase = t - 2 * periods;
+        float eased = periods + (phase <= 1 ? easedIntegral(phase) : 1 - easedIntegral(2 - phase));
+        return LEAF_WIND_SENSITIVITY * LEAF_HORIZONTAL_MOVEMENT_TRANSITION_TIME * (2 * eased - t);
+    }
+
+    /* Integral of the cubic ease from 0 to a progress between 0 and 1 */
+    private static float easedIntegral(float t) {
+        return t * t * t * (1 - t / 2);
+    }
+
+    /* Doubles the capacity of all arrays */
+    private void grow() {
+        int capacity = leaves.length * 2;
+        leaves = Arrays.copyOf(leaves, capacity);
+        treeCenters = Arrays.copyOf(treeCenters, capacity);
+        cycleStreams = Arrays.copyOf(cycleStreams, capacity);
+        cycles = Arrays.copyOf(cycles, capacity);
+        ages = Arrays.copyOf(ages, capacity);
+        angleDelays = Arrays.copyOf(angleDelays, capacity);
+        sizeDelays = Arrays.copyOf(sizeDelays, capacity);
+        states = Arrays.copyOf(states, capacity);
+        timers = Arrays.copyOf(timers, capacity);
+        fadeInTimes = Arrays.copyOf(fadeInTimes, capacity);
+        landed = Arrays.copyOf(landed, capacity);
+        pendingTimes = Arrays.copyOf(pendingTimes, capacity);
+        frozen = Arrays.copyOf(frozen, capacity);
+        frozenVelocities = Arrays.copyOf(frozenVelocities, capacity);
+        frozenTimes = Arrays.copyOf(frozenTimes, capacity);
+    }
+
+    /* Maps time, in transition lengths, to the progress of a back-and-forth transition, between 0 and 1 */
+    private static float backAndForth(float time) {
+        float phase = time % 2;
+        return phase <= 1 ? phase : 2 - phase;
+    }
+
+    /* Cubic ease in and out of a progress between 0 and 1 */
+    private static float cubic(float t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    /* Creates the leaf dimensions along a size transition */
+    private static Vector2[] createLeafSizes() {
+        Vector2 from = new Vector2(LEAF_SIZE_DEVIATION * Block.SIZE, Block.SIZE);
+        Vector2 to = new Vector2(Block.SIZE, LEAF_SIZE_DEVIATION * Block.SIZE);
+        Vector2[] sizes = new Vector2[LEAF_SIZE_STEPS];
+        for (int i = 0; i < LEAF_SIZE_STEPS; i++) {
+            float t = (float) i / (LEAF_SIZE_STEPS - 1);
+            sizes[i] = from.add(to.subtract(from).mult(t));
+        }
+        return sizes;
+    }
+
+}
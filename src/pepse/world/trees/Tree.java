@@ -1,48 +1,41 @@
 package pepse.world.trees;
 
-import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.components.GameObjectPhysics;
-import danogl.components.ScheduledTask;
-import danogl.components.Transition;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
-import pepse.util.ColorSupplier;
+import pepse.util.ObjectPool;
+import pepse.util.RenderablePalette;
+import pepse.util.SplitMix;
 import pepse.world.Block;
+import pepse.world.ColumnEdits;
+import pepse.world.ColumnPlan;
+import pepse.world.ColumnRenderable;
+import pepse.world.TileProducer;
+import pepse.world.TileStore;
 
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Objects;
-import java.util.Random;
-import java.util.function.Function;
+import java.util.Arrays;
 
 /**
- * Responsible for creating trees in the Pepse simulator.
+ * Responsible for creating trees in the Pepse simulator. Every tree is created along with the tile of its
+ * top-most leaves.
  */
-public class Tree {
+public class Tree implements TileProducer {
 
     /* Constants */
     private static final int MAX_TREE_HEIGHT = 13;
     private static final int MIN_TREE_HEIGHT = 6;
     private static final int TREES_DENSITY_IN_WORLD = 8;
     private static final int LEAVES_DENSITY = 5;
-    private static final int FADEOUT_TIME = 5;
-    private static final int MAX_LEAF_LIFETIME = 50;
-    private static final int MAX_LEAF_FADE_IN_TIME = 15;
     private static final int LEAF_PROPERTIES_TRANSITION_TIME = 25;
-    private static final int MIN_LEAF_FADE_IN_TIME = 5;
-    private static final int MIN_LEAF_LIFETIME = 3;
     private static final float TRUNK_TO_TREE_RATIO = (float) 2 / 3;
-    private static final float LEAF_GRAVITY = 50;
-    private static final float LEAF_WIND_SENSITIVITY = 50f;
-    private static final float LEAF_HORIZONTAL_MOVEMENT_TRANSITION_TIME = 1;
-    private static final float LEAF_SIZE_DEVIATION = 0.9f;
-    private static final float LEAF_SHAKE = 15f;
     private static final Color TRUNK_COLOR = new Color(100, 50, 20);
     private static final Color LEAVES_COLOR = new Color(50, 200, 30);
     private static final String LEAF_TAG = "leaf";
     private static final String TRUNK_TAG = "trunk";
+    private static final int PALETTE_SIZE = 32;  // number of distinct trunk colors, and of leaf colors
+    private static final long TRUNK_PALETTE_SALT = 0x7472756E6BL;
+    private static final long LEAVES_PALETTE_SALT = 0x6C65617665L;
 
 
     /* Private members */
@@ -50,8 +43,15 @@ public class Tree {
     private final int trunkLayer;
     private final int leafLayer;
     private final long seed;
-    private final Function<Float, Float> getTerrainHeightAtX;
-    private HashMap<Integer, ArrayList<GameObject>> cache;
+    private final RenderablePalette trunkPalette;
+    private final RenderablePalette leavesPalette;
+    private TileStore cache;
+    private ColumnEdits edits;  // player edits, applied over the generated trees
+    private ObjectPool<Block> blockPool;  // recycled Blocks to create trunks from
+    private ObjectPool<Leaf> leafPool;  // recycled Leaves to create leaves from
+    private LeafSystem leafSystem;  // animates all created leaves
+    private boolean mergedTrunks;  // whether every trunk is created as a single object
+    private int clearingX = Integer.MIN_VALUE / 2;  // column around which no trees grow
 
     /* Public methods */
     /**
@@ -59,161 +59,327 @@ public class Tree {
      * @param gameObjects The collection of GameObjects in the current world.
      * @param leafLayer Layer on which the leaves of the trees should be placed.
      * @param seed Seed for all random generation.
-     * @param getTerrainHeightAtX Function to compute the terrain height at a given x.
      */
-    public Tree(GameObjectCollection gameObjects, int leafLayer, long seed,
-                Function<Float, Float> getTerrainHeightAtX) {
+    public Tree(GameObjectCollection gameObjects, int leafLayer, long seed) {
         this.gameObjects = gameObjects;
         this.trunkLayer = leafLayer - 1;  // save trunks and leaves on different layers
         this.leafLayer = leafLayer;
-        this.getTerrainHeightAtX = getTerrainHeightAtX;
         this.seed = seed;
+        this.trunkPalette = new RenderablePalette(TRUNK_COLOR, PALETTE_SIZE, seed ^ TRUNK_PALETTE_SALT);
+        this.leavesPalette = new RenderablePalette(LEAVES_COLOR, PALETTE_SIZE, seed ^ LEAVES_PALETTE_SALT);
     }
 
     /**
-     * Creates trees on the terrain in the given range.
-     * @param minX The left-most x value of the range.
-     * @param maxX The right-most x value of the range.
+     * @param plan Plan of a column.
+     * @return The tile row of the top-most leaves of the column's tree, or 0 if no tree grows there.
      */
-    public void createInRange(int minX, int maxX) {
-        int middleX = (((minX - maxX) / 2) / Block.SIZE) * Block.SIZE;
-        for (int x = minX; x < maxX; x += Block.SIZE) {
-            // Create a new Random object at every x seeded by hash function to ensure a consistent world
-            Random treeRandom = new Random(Objects.hash(x, seed));
-            // Prevent tree generation where an avatar may be created
-            if (x == middleX - Block.SIZE || x == middleX || x == middleX + Block.SIZE) { continue; }
-            if (treeRandom.nextInt(TREES_DENSITY_IN_WORLD) == 0) {
-                createTree(x, treeRandom);
+    @Override
+    public int firstTileRowOf(ColumnPlan plan) {
+        return plan.getTree() == null ? 0 : TileStore.tileRowOf(plan.getTree().getLeavesTopY());
+    }
+
+    /**
+     * @param plan Plan of a column.
+     * @return The tile row below that of the top-most leaves of the column's tree, or 0 if no tree grows
+     * there.
+     */
+    @Override
+    public int endTileRowOf(ColumnPlan plan) {
+        return plan.getTree() == null ? 0 : firstTileRowOf(plan) + 1;
+    }
+
+    /**
+     * @return Height of the tallest tree, in Block rows, as trees reach down from their top-most leaves to
+     * the ground.
+     */
+    @Override
+    public int getReachBelowTile() {
+        return MIN_TREE_HEIGHT + MAX_TREE_HEIGHT - 1;
+    }
+
+    /**
+     * @param layer A layer of the game.
+     * @return Whether the layer is that of the trunks or of the leaves.
+     */
+    @Override
+    public boolean createsOnLayer(int layer) {
+        return layer == trunkLayer || layer == leafLayer;
+    }
+
+    /**
+     * Creates the tree of a planned column, if it grows within the tile.
+     * @param plan Plan of the column.
+     * @param tileRow The tile row.
+     */
+    @Override
+    public void createTile(ColumnPlan plan, int tileRow) {
+        if (plan.getTree() != null && tileRow == firstTileRowOf(plan)) {
+            createTree(plan.getX(), plan.getTree(), tileRow);
+        }
+    }
+
+    /**
+     * Plans the tree growing at a column. Pure and thread-safe: the plan only depends on the seed and the
+     * column, so a column is planned identically every time it is regenerated, on any thread.
+     * @param x The x value of the column.
+     * @param groundHeight Terrain height at the column.
+     * @return Plan of the tree growing at the column, or null if no tree grows there.
+     */
+    public TreePlan planTree(int x, float groundHeight) {
+        // Prevent tree generation where the avatar is created
+        if (Math.abs(x - clearingX) <= Block.SIZE) {
+            return null;
+        }
+        // Derive every decision from the seed, the column and the index of the draw, for a consistent world
+        long treeStream = SplitMix.stream(seed, x);
+        int draw = 0;
+        if (SplitMix.nextInt(treeStream, draw++, TREES_DENSITY_IN_WORLD) != 0) {
+            return null;
+        }
+        // Every leaf draws its life cycles from its own stream, derived from the tree's cycle seed
+        long cycleSeed = SplitMix.nextLong(treeStream, draw++);
+        // Calculate random height, then plan trunk and proportional leaves
+        int height = MIN_TREE_HEIGHT + SplitMix.nextInt(treeStream, draw++, MAX_TREE_HEIGHT);
+        int bushSize = (int) Math.floor(0.5f * height);
+        int trunkHeight = (int) Math.floor(TRUNK_TO_TREE_RATIO * height);
+        // Init variables for creating symmetrical-looking trees
+        float leavesLeftX = x + getBushOffset(bushSize) - ((float) Math.floor(0.5f * bushSize) * Block.SIZE);
+        float leavesTopY = groundHeight - (height * Block.SIZE);
+        int cells = bushSize * bushSize;
+        long[] leafMask = new long[(cells + Long.SIZE - 1) / Long.SIZE];
+        int[] leafColors = new int[cells];
+        float[] angleDelays = new float[cells];
+        float[] sizeDelays = new float[cells];
+        int[] lifetimes = new int[cells];
+        int[] fadeInTimes = new int[cells];
+        int leafCount = 0;
+        for (int i = 0; i < bushSize; i++) {
+            for (int j = 0; j < bushSize; j++) {
+                if (SplitMix.nextInt(treeStream, draw++, LEAVES_DENSITY) == 0) {
+                    continue;
+                }
+                int cell = i * bushSize + j;
+                leafMask[cell / Long.SIZE] |= 1L << cell;
+                leafColors[leafCount] = leavesPalette.indexOf(
+                        Block.gridIndexOf(leavesLeftX + j * Block.SIZE),
+                        Block.gridIndexOf(leavesTopY + i * Block.SIZE));
+                // Draw leaf dynamics
+                angleDelays[leafCount] = (float) SplitMix.nextInt(treeStream, draw++,
+                        LEAF_PROPERTIES_TRANSITION_TIME) / LEAF_PROPERTIES_TRANSITION_TIME;
+                sizeDelays[leafCount] = (float) SplitMix.nextInt(treeStream, draw++,
+                        LEAF_PROPERTIES_TRANSITION_TIME) / LEAF_PROPERTIES_TRANSITION_TIME;
+                long cycleStream = SplitMix.stream(cycleSeed, leafCount);
+                lifetimes[leafCount] = LeafSystem.nextLifetime(cycleStream, 0);
+                fadeInTimes[leafCount] = LeafSystem.nextFadeInTime(cycleStream, 0);
+                leafCount++;
             }
         }
+        int[] trunkColors = new int[trunkHeight];
+        for (int i = 0; i < trunkHeight; i++) {
+            trunkColors[i] = trunkPalette.indexOf(x / Block.SIZE,
+                    Block.gridIndexOf(groundHeight - (i + 1) * Block.SIZE));
+        }
+        return new TreePlan(groundHeight, trunkHeight, bushSize, leavesLeftX, leavesTopY, leafMask,
+                trunkColors, Arrays.copyOf(leafColors, leafCount), Arrays.copyOf(angleDelays, leafCount),
+                Arrays.copyOf(sizeDelays, leafCount), Arrays.copyOf(lifetimes, leafCount),
+                Arrays.copyOf(fadeInTimes, leafCount), cycleSeed);
+    }
+
+    /**
+     * Returns the cell by which an edit to a leaf of a tree is recorded, in the column of the tree.
+     * @param leafIndex Index of the leaf among the leaves of the tree, in the order they are created.
+     * @return The cell of the leaf.
+     */
+    public static int leafCell(int leafIndex) {
+        return leafIndex;
+    }
+
+    /**
+     * Returns the cell by which an edit to a trunk Block of a tree is recorded, in the column of the tree.
+     * @param trunkRow Row of the trunk Block, counting up from 0 right above the ground.
+     * @return The cell of the trunk Block.
+     */
+    public static int trunkCell(int trunkRow) {
+        return -1 - trunkRow;
+    }
+
+    /**
+     * Returns the y value of the top of a column's tree trunk with the player edits applied, i.e. of its
+     * highest trunk Block that wasn't removed.
+     * @param plan Plan of the column.
+     * @return The top of the trunk, or Float.POSITIVE_INFINITY if the column has no tree, or all of its trunk
+     *         Blocks were removed.
+     */
+    public float trunkTopOf(ColumnPlan plan) {
+        TreePlan tree = plan.getTree();
+        if (tree == null) {
+            return Float.POSITIVE_INFINITY;
+        }
+        int trunkRow = tree.getTrunkHeight() - 1;
+        int slot = edits == null ? -1 : edits.slotOf(plan.getX());
+        if (slot >= 0) {
+            // Trunk cells descend as the trunk rises, so the edits of the top rows come first
+            int i = edits.firstEditAtOrAfter(slot, trunkCell(trunkRow));
+            while (trunkRow >= 0 && i < edits.sizeOf(slot) && edits.cellAt(slot, i) == trunkCell(trunkRow)) {
+                trunkRow--;
+                i++;
+            }
+        }
+        return trunkRow < 0 ? Float.POSITIVE_INFINITY : tree.getGroundHeight() - (trunkRow + 1) * Block.SIZE;
     }
 
     /**
      * Setter for the cache.
-     * @param cache Hash table mapping x values to a list of all gameObjects created at x
+     * @param cache Store recording all gameObjects created in every tile.
      */
-    public void setCache(HashMap<Integer, ArrayList<GameObject>> cache) {
+    public void setCache(TileStore cache) {
         this.cache = cache;
     }
 
+    /**
+     * Sets the edits applied over the generated trees. Edits are keyed by the cells returned by leafCell and
+     * trunkCell, in the column of the tree; any edit removes the leaf or trunk Block.
+     * @param edits Player edits to the trees.
+     */
+    public void setEdits(ColumnEdits edits) {
+        this.edits = edits;
+    }
+
+    /**
+     * Sets the pools of recycled objects from which trees are created.
+     * @param blockPool Pool of recycled Blocks, for trunks.
+     * @param leafPool Pool of recycled Leaves.
+     */
+    public void setPools(ObjectPool<Block> blockPool, ObjectPool<Leaf> leafPool) {
+        this.blockPool = blockPool;
+        this.leafPool = leafPool;
+    }
+
+    /**
+     * Setter for the leaf system.
+     * @param leafSystem System animating all created leaves.
+     */
+    public void setLeafSystem(LeafSystem leafSystem) {
+        this.leafSystem = leafSystem;
+    }
+
+    /**
+     * Sets whether trunks are created as a single tall Block instead of one Block per row. Collisions are
+     * unchanged, as the merged trunk covers exactly the area of the Blocks it replaces.
+     * @param mergedTrunks Whether to create merged trunks.
+     */
+    public void setMergedTrunks(boolean mergedTrunks) {
+        this.mergedTrunks = mergedTrunks;
+    }
+
+    /**
+     * Sets the x value around which no trees grow, so that the avatar isn't created inside a tree. Must be
+     * set before any tree is planned.
+     * @param clearingX The x value at which the avatar is created.
+     */
+    public void setClearing(float clearingX) {
+        this.clearingX = Block.gridIndexOf(clearingX) * Block.SIZE;
+    }
+
     /* Private methods */
 
-    /* Creates a single tree at x */
-    private void createTree(int x, Random treeRandom) {
-        // Calculate random height, then create trunk and proportional leaves
-        int height = MIN_TREE_HEIGHT + treeRandom.nextInt(MAX_TREE_HEIGHT);
-        createLeaves(x, (int) Math.floor(0.5f * height), height, treeRandom);
-        createTrunk(x, (int)Math.floor(TRUNK_TO_TREE_RATIO * height));
-    }
-
-    /* Creates a tree trunk */
-    private void createTrunk(int x, int trunkHeight) {
-        Vector2 heightVector = new Vector2(0, Block.SIZE);
-        Vector2 currentBlockVector = new Vector2(x, getTerrainHeightAtX.apply((float)x) - Block.SIZE);
-        for (int y = 0; y < trunkHeight; y++) {
-            Block trunkBlock = new Block(currentBlockVector,
-                    new RectangleRenderable(ColorSupplier.approximateColor(TRUNK_COLOR)));
-            trunkBlock.setTag(TRUNK_TAG);
-            // Record all created Blocks in the cache
-            if (!(cache.containsKey(x))) {
-                cache.put(x, new ArrayList<GameObject>());
+    /* Creates a single planned tree at x, recording it in the given tile */
+    private void createTree(int x, TreePlan plan, int tileRow) {
+        createLeaves(x, plan, tileRow);
+        createTrunk(x, plan, tileRow);
+    }
+
+    /* Creates a tree trunk, leaving out removed trunk Blocks */
+    private void createTrunk(int x, TreePlan plan, int tileRow) {
+        int trunkHeight = plan.getTrunkHeight();
+        int slot = edits == null ? -1 : edits.slotOf(x);
+        // Trunk cells descend as the trunk rises, so their edits are read backwards from the last one
+        int edit = slot < 0 ? -1 : edits.firstEditAtOrAfter(slot, leafCell(0)) - 1;
+        int fromRow = 0;
+        for (int y = 0; y < trunkHeight && edit >= 0; y++) {
+            if (edits.cellAt(slot, edit) == trunkCell(y)) {
+                createTrunkRows(x, plan, fromRow, y, tileRow);
+                fromRow = y + 1;
+                edit--;
             }
-            cache.get(x).add(trunkBlock);
+        }
+        createTrunkRows(x, plan, fromRow, trunkHeight, tileRow);
+    }
+
+    /* Creates the trunk rows in the given range, counting up from the ground: a Block per row, or a single
+    Block for the whole range */
+    private void createTrunkRows(int x, TreePlan plan, int fromRow, int toRow, int tileRow) {
+        if (fromRow >= toRow) {
+            return;
+        }
+        if (mergedTrunks) {
+            createMergedTrunk(x, plan.getGroundHeight() - fromRow * Block.SIZE, toRow - fromRow, tileRow);
+            return;
+        }
+        for (int y = fromRow; y < toRow; y++) {
+            Block trunkBlock = Block.obtain(blockPool,
+                    new Vector2(x, plan.getGroundHeight() - (y + 1) * Block.SIZE), 1,
+                    trunkPalette.renderableAt(plan.getTrunkColor(y)));
+            trunkBlock.setTag(TRUNK_TAG);
             gameObjects.addGameObject(trunkBlock, trunkLayer);
+            // Record all created Blocks in the cache
+            cache.add(x, tileRow, trunkBlock, trunkLayer);
             trunkBlock.physics().preventIntersectionsFromDirection(Vector2.ZERO);
             trunkBlock.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
-            currentBlockVector = currentBlockVector.subtract(heightVector);
         }
     }
 
-    /* Creates the leaves for a tree */
-    private void createLeaves(int x, int bushHeight, int treeHeight, Random treeRandom) {
-        // Init variables for creating symmetrical-looking trees
-        float initialX = x + getBushOffset(bushHeight) - ((float) Math.floor(0.5f * bushHeight) * Block.SIZE);
-        float initialY = getTerrainHeightAtX.apply((float)x) - (treeHeight * Block.SIZE);
-        Vector2 widthVector = new Vector2(Block.SIZE, 0);
-        for (int i = 0; i < bushHeight; i++) {
-            Vector2 currentBlockVector = new Vector2(initialX, initialY + (i*Block.SIZE));
-            for (int j = 0; j < bushHeight; j++) {
-                if (treeRandom.nextInt(LEAVES_DENSITY) != 0) {
-                    createLeaf(x, currentBlockVector, treeRandom);
+    /* Creates a tree trunk, or a part of it, as a single Block standing at bottomY */
+    private void createMergedTrunk(int x, float bottomY, int trunkHeight, int tileRow) {
+        float topY = bottomY - trunkHeight * Block.SIZE;
+        Block trunk = Block.obtain(blockPool, new Vector2(x, topY), trunkHeight,
+                new ColumnRenderable(trunkPalette, x / Block.SIZE, Block.gridIndexOf(topY)));
+        trunk.setTag(TRUNK_TAG);
+        gameObjects.addGameObject(trunk, trunkLayer);
+        // Record the trunk in the cache
+        cache.add(x, tileRow, trunk, trunkLayer);
+        trunk.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+        trunk.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+    }
+
+    /* Creates the leaves for a tree, leaving out removed leaves */
+    private void createLeaves(int x, TreePlan plan, int tileRow) {
+        int bushSize = plan.getBushSize();
+        int slot = edits == null ? -1 : edits.slotOf(x);
+        // Leaf cells ascend along with the leaves, so their edits are read forwards from the first one
+        int edit = slot < 0 ? 0 : edits.firstEditAtOrAfter(slot, leafCell(0));
+        int editCount = slot < 0 ? 0 : edits.sizeOf(slot);
+        int leaf = 0;
+        for (int i = 0; i < bushSize; i++) {
+            for (int j = 0; j < bushSize; j++) {
+                if (!plan.hasLeaf(i, j)) {
+                    continue;
                 }
-                currentBlockVector = currentBlockVector.add(widthVector);
+                if (edit < editCount && edits.cellAt(slot, edit) == leafCell(leaf)) {
+                    edit++;
+                    leaf++;
+                    continue;
+                }
+                createLeaf(x, new Vector2(plan.getLeavesLeftX() + j * Block.SIZE,
+                        plan.getLeavesTopY() + i * Block.SIZE), plan, leaf++, tileRow);
             }
         }
     }
 
     /* Creates a single leaf */
-    private void createLeaf(int x, Vector2 currentBlockVector, Random treeRandom) {
-        Leaf leaf = new Leaf(currentBlockVector,
-                new RectangleRenderable(ColorSupplier.approximateColor(LEAVES_COLOR)));
-        // Record all created Blocks in the cache
-        if (!(cache.containsKey(x))) {
-            cache.put(x, new ArrayList<GameObject>());
-        }
-        cache.get(x).add(leaf);
+    private void createLeaf(int x, Vector2 currentBlockVector, TreePlan plan, int leafIndex, int tileRow) {
+        Leaf leaf = Leaf.obtain(leafPool, currentBlockVector,
+                leavesPalette.renderableAt(plan.getLeafColor(leafIndex)));
         leaf.physics().setMass(0);
         leaf.physics().preventIntersectionsFromDirection(Vector2.ZERO);
         gameObjects.addGameObject(leaf, leafLayer);
+        // Record all created Blocks in the cache
+        cache.add(x, tileRow, leaf, leafLayer);
         leaf.setTag(LEAF_TAG);
         // Create leaf dynamics
-        createLeafAngleTransition(leaf, treeRandom);
-        createLeafSizeTransition(leaf, treeRandom);
-        createLeafLifeCycle(leaf, treeRandom);
-    }
-
-    /* Creates the complete life cycle of a leaf. The life cycle of a leaf is:
-    * Appear on tree -> fall with lateral movement -> fade out -> repeat */
-    private void createLeafLifeCycle(Leaf leaf, Random treeRandom) {
-        // Init variables
-        int lifetime = treeRandom.nextInt(MAX_LEAF_LIFETIME) + MIN_LEAF_LIFETIME;
-        int fadeInTime = treeRandom.nextInt(MAX_LEAF_FADE_IN_TIME) + MIN_LEAF_FADE_IN_TIME;
-        Vector2 originalLeafCenter = leaf.getCenter();
-        // Create Runnable containing information for a complete leaf life cycle
-        Runnable leafFallRunnable = () -> {
-            // Starts to fall
-            leaf.transform().setAccelerationY(LEAF_GRAVITY);
-            // Lateral movement upon falling
-            Transition<Float> horizontalTransition = new Transition<>(leaf, leaf.transform()::setVelocityX,
-                    -LEAF_WIND_SENSITIVITY, LEAF_WIND_SENSITIVITY, Transition.CUBIC_INTERPOLATOR_FLOAT,
-                    LEAF_HORIZONTAL_MOVEMENT_TRANSITION_TIME,
-                    Transition.TransitionType.TRANSITION_BACK_AND_FORTH, null);
-            leaf.setTransition(horizontalTransition);
-            // Fade out
-            leaf.renderer().fadeOut(FADEOUT_TIME, () -> new ScheduledTask(leaf, fadeInTime, false,
-                    () ->
-                    {   // Reestablish the leaf with a new life cycle
-                        leaf.setCenter(originalLeafCenter);
-                        leaf.transform().setVelocity(Vector2.ZERO);
-                        leaf.transform().setAccelerationY(0);
-                        leaf.renderer().fadeIn(0);
-                        createLeafLifeCycle(leaf, treeRandom);
-                    }
-            ));
-        };
-        // Start to fall once leaf has lived its lifetime on the tree
-        new ScheduledTask(leaf, lifetime, false, leafFallRunnable);
-    }
-
-    /* Makes minor changes in leaf size to create the effect of a real leaf */
-    private void createLeafSizeTransition(Leaf leaf, Random treeRandom) {
-        Runnable leafSizeTransitionRunnable = () ->
-                new Transition<>(leaf, leaf::setDimensions, new Vector2(LEAF_SIZE_DEVIATION * Block.SIZE,
-                        Block.SIZE), new Vector2(Block.SIZE,LEAF_SIZE_DEVIATION * Block.SIZE),
-                        Transition.LINEAR_INTERPOLATOR_VECTOR, 1,
-                        Transition.TransitionType.TRANSITION_BACK_AND_FORTH, null);
-        new ScheduledTask(leaf,(float) treeRandom.nextInt(LEAF_PROPERTIES_TRANSITION_TIME) /
-                        LEAF_PROPERTIES_TRANSITION_TIME, true,leafSizeTransitionRunnable);
-    }
-
-    /* Rotates the leaf in place to create the effect of a real leaf */
-    private void createLeafAngleTransition(Leaf leaf, Random treeRandom) {
-        Runnable leafAngleTransitionRunnable = () ->
-                new Transition<>(leaf, leaf.renderer()::setRenderableAngle, -LEAF_SHAKE, LEAF_SHAKE,
-                        Transition.LINEAR_INTERPOLATOR_FLOAT, 2,
-                        Transition.TransitionType.TRANSITION_BACK_AND_FORTH, null);
-        new ScheduledTask(leaf,(float) treeRandom.nextInt(LEAF_PROPERTIES_TRANSITION_TIME) /
-                        LEAF_PROPERTIES_TRANSITION_TIME,false, leafAngleTransitionRunnable);
+        leafSystem.add(leaf, plan.getAngleDelay(leafIndex), plan.getSizeDelay(leafIndex),
+                plan.getLifetime(leafIndex), plan.getFadeInTime(leafIndex),
+                SplitMix.stream(plan.getCycleSeed(), leafIndex));
     }
 
     /* Computes the offset for the bushes. Used to ensure symmetric-looking trees */
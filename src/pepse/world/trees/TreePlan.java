@@ -0,0 +1,150 @@
+package pepse.world.trees;
+
+/**
+ * An immutable plan of a single tree: the size of its trunk and bush, which cells of the bush hold leaves,
+ * the colors of all its Blocks, and the timing of every leaf's first life cycle. Created by Tree, which
+ * also materializes it.
+ */
+public final class TreePlan {
+
+    /* Private members */
+    private final float groundHeight;
+    private final int trunkHeight;
+    private final int bushSize;  // the bush is a bushSize x bushSize square of cells
+    private final float leavesLeftX;
+    private final float leavesTopY;
+    private final long[] leafMask;  // bit (row * bushSize + column) is set if the cell holds a leaf
+    private final int[] trunkColors;
+    private final int[] leafColors;
+    private final float[] angleDelays;
+    private final float[] sizeDelays;
+    private final int[] lifetimes;
+    private final int[] fadeInTimes;
+    private final long cycleSeed;
+
+    /* Package-private constructor; arrays are not copied and must not be modified afterwards */
+    TreePlan(float groundHeight, int trunkHeight, int bushSize, float leavesLeftX, float leavesTopY,
+             long[] leafMask, int[] trunkColors, int[] leafColors, float[] angleDelays, float[] sizeDelays,
+             int[] lifetimes, int[] fadeInTimes, long cycleSeed) {
+        this.groundHeight = groundHeight;
+        this.trunkHeight = trunkHeight;
+        this.bushSize = bushSize;
+        this.leavesLeftX = leavesLeftX;
+        this.leavesTopY = leavesTopY;
+        this.leafMask = leafMask;
+        this.trunkColors = trunkColors;
+        this.leafColors = leafColors;
+        this.angleDelays = angleDelays;
+        this.sizeDelays = sizeDelays;
+        this.lifetimes = lifetimes;
+        this.fadeInTimes = fadeInTimes;
+        this.cycleSeed = cycleSeed;
+    }
+
+    /**
+     * @return Terrain height at the tree's column, i.e. the y value of the bottom of the trunk.
+     */
+    public float getGroundHeight() {
+        return groundHeight;
+    }
+
+    /**
+     * @return Height of the trunk, in Blocks.
+     */
+    public int getTrunkHeight() {
+        return trunkHeight;
+    }
+
+    /**
+     * @return Width and height of the bush, in Blocks.
+     */
+    public int getBushSize() {
+        return bushSize;
+    }
+
+    /**
+     * @return The x value of the left-most cells of the bush.
+     */
+    public float getLeavesLeftX() {
+        return leavesLeftX;
+    }
+
+    /**
+     * @return The y value of the top-most cells of the bush.
+     */
+    public float getLeavesTopY() {
+        return leavesTopY;
+    }
+
+    /**
+     * @param row Row of a cell of the bush.
+     * @param column Column of a cell of the bush.
+     * @return Whether the cell holds a leaf.
+     */
+    public boolean hasLeaf(int row, int column) {
+        int bit = row * bushSize + column;
+        return (leafMask[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * @return Number of leaves of the tree.
+     */
+    public int getLeafCount() {
+        return leafColors.length;
+    }
+
+    /**
+     * @param row Index of a trunk Block, counting from the bottom Block.
+     * @return Palette index of the Block's color.
+     */
+    public int getTrunkColor(int row) {
+        return trunkColors[row];
+    }
+
+    /**
+     * @param leaf Index of a leaf, in row-major order of the cells of the bush.
+     * @return Palette index of the leaf's color.
+     */
+    public int getLeafColor(int leaf) {
+        return leafColors[leaf];
+    }
+
+    /**
+     * @param leaf Index of a leaf, in row-major order of the cells of the bush.
+     * @return Time, in seconds, until the leaf starts rotating in the wind.
+     */
+    public float getAngleDelay(int leaf) {
+        return angleDelays[leaf];
+    }
+
+    /**
+     * @param leaf Index of a leaf, in row-major order of the cells of the bush.
+     * @return Time, in seconds, until the leaf starts changing its size in the wind.
+     */
+    public float getSizeDelay(int leaf) {
+        return sizeDelays[leaf];
+    }
+
+    /**
+     * @param leaf Index of a leaf, in row-major order of the cells of the bush.
+     * @return Time, in seconds, the leaf stays on the tree in its first life cycle.
+     */
+    public int getLifetime(int leaf) {
+        return lifetimes[leaf];
+    }
+
+    /**
+     * @param leaf Index of a leaf, in row-major order of the cells of the bush.
+     * @return Time, in seconds, until the leaf reappears on the tree after its first fall.
+     */
+    public int getFadeInTime(int leaf) {
+        return fadeInTimes[leaf];
+    }
+
+    /**
+     * @return Seed from which the SplitMix stream drawing every leaf's life cycles is derived.
+     */
+    public long getCycleSeed() {
+        return cycleSeed;
+    }
+}